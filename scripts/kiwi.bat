@@ -0,0 +1,12 @@
+@ECHO OFF
+REM Runs Kiwi from the fat jar, using the AppCDS archive built next to it when present.
+REM
+REM Usage: scripts\kiwi.bat [--cli]
+REM Build both files with gradlew shadowJar. A missing or stale archive is ignored.
+
+SETLOCAL
+SET LIBS=%~dp0..\build\libs
+SET JAVA_OPTS=
+IF EXIST "%LIBS%\kiwi.jsa" SET JAVA_OPTS=-XX:SharedArchiveFile="%LIBS%\kiwi.jsa" -Xlog:cds=off -Xlog:cds+dynamic=off
+
+java %JAVA_OPTS% -jar "%LIBS%\kiwi.jar" %*
@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Measures Kiwi startup time and the number of classes loaded, in CLI and GUI mode.
+#
+# Usage: scripts/startup-stats.sh [runs]
+# Builds the fat jar and its AppCDS archive first, and times the CLI with and
+# without the archive. CLI runs replay text-ui-test/input.txt; the GUI run
+# needs a display and stops once Kiwi reports it is interactive.
+
+set -e
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+JAR=build/libs/kiwi.jar
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+./gradlew -q shadowJar
+
+# Replays the text UI workload RUNS times with the given extra JVM options.
+measure_cli() {
+    local label=$1
+    shift
+    echo "== CLI (--cli) $label, $RUNS runs =="
+    local total=0
+    for ((i = 1; i <= RUNS; i++)); do
+        rm -rf "$WORK/data"
+        local start=$(date +%s%N)
+        (cd "$WORK" && java "$@" -Xlog:class+load:file=classes.txt -jar "$OLDPWD/$JAR" --cli \
+            < "$OLDPWD/text-ui-test/input.txt" > /dev/null)
+        local elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+        total=$((total + elapsed))
+        echo "run $i: ${elapsed} ms"
+    done
+    echo "mean: $((total / RUNS)) ms"
+    echo "classes loaded: $(grep -c 'source:' "$WORK/classes.txt")"
+    echo "  from CDS archive: $(grep -c 'shared objects file' "$WORK/classes.txt" || true)"
+    echo "javafx classes loaded: $(grep -c 'javafx\.' "$WORK/classes.txt" || true)"
+    echo
+}
+
+measure_cli "without AppCDS" -Xshare:auto
+if [ -f build/libs/kiwi.jsa ]; then
+    measure_cli "with AppCDS" -XX:SharedArchiveFile="$PWD/build/libs/kiwi.jsa"
+fi
+
+echo "== GUI =="
+if [ -z "$DISPLAY" ] && [ "$(uname)" = "Linux" ]; then
+    echo "skipped: no display"
+    exit 0
+fi
+rm -rf "$WORK/data"
+(cd "$WORK" && java -Xlog:class+load:file=classes.txt -jar "$OLDPWD/$JAR" > out.txt 2>&1) &
+pid=$!
+for ((i = 0; i < 600; i++)); do
+    grep -q "STARTUP: interactive" "$WORK/out.txt" 2>/dev/null && break
+    sleep 0.1
+done
+kill "$pid"
+grep "STARTUP:" "$WORK/out.txt"
+echo "classes loaded: $(grep -c 'source:' "$WORK/classes.txt")"
+echo "javafx classes loaded: $(grep -c 'javafx\.' "$WORK/classes.txt" || true)"
@@ -0,0 +1,82 @@
+package kiwi.build;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.VBox;
+
+/**
+ * Measures chat bubble creation, alone and as a 10k bubble conversation laid out in a scene.
+ *
+ * Needs a display (or Monocle headless) because the JavaFX toolkit is started in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DialogBoxBenchmark {
+
+    private static final int BUBBLES = 10_000;
+
+    private Image avatar;
+
+    /**
+     * Starts the toolkit once so images and controls can be created.
+     */
+    @Setup
+    public void setUp() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException e) {
+            // Toolkit already running in this JVM
+        }
+        avatar = new WritableImage(80, 80);
+    }
+
+    @Benchmark
+    public DialogBox kiwiBubble() {
+        return DialogBox.getKiwiDialog("Got it. I've added this task:\n[T][ ] read book", avatar);
+    }
+
+    @Benchmark
+    public DialogBox userBubble() {
+        return DialogBox.getUserDialog("todo read book", avatar);
+    }
+
+    /**
+     * Builds 10k alternating bubbles and runs CSS and layout over them once.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public VBox render10kBubbles() {
+        VBox container = new VBox();
+        for (int i = 0; i < BUBBLES; i++) {
+            container.getChildren().add(i % 2 == 0
+                ? DialogBox.getUserDialog("todo task " + i, avatar)
+                : DialogBox.getKiwiDialog("Got it. I've added this task:\n[T][ ] task " + i, avatar));
+        }
+        new Scene(container);
+        container.applyCss();
+        container.layout();
+        return container;
+    }
+}
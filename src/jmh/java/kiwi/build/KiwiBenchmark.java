@@ -0,0 +1,64 @@
+package kiwi.build;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full GUI round trip for adding a todo, dominated by the duplicate check.
+ *
+ * The todo repeats the description of the last task, so every call scans the
+ * whole list and is rejected as a duplicate, leaving the list size unchanged.
+ * Kiwi loads data/kiwi.txt relative to the working directory, which the jmh
+ * Gradle task points at an empty build directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KiwiBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private Kiwi kiwi;
+    private String duplicateTodo;
+
+    /**
+     * Fills a fresh Kiwi with the requested number of todos through the import command.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        Path csv = Files.createTempFile("kiwi-bench", ".csv");
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            rows.append("T,0,task ").append(i).append('\n');
+        }
+        Files.writeString(csv, rows);
+
+        kiwi = new Kiwi();
+        kiwi.getResponse("import " + csv);
+        Files.delete(csv);
+        duplicateTodo = "todo task " + (size - 1);
+    }
+
+    @Benchmark
+    public String addDuplicateTodo() {
+        return kiwi.getResponse(duplicateTodo);
+    }
+}
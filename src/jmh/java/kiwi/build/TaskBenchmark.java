@@ -0,0 +1,57 @@
+package kiwi.build;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kiwi.helper.KiwiException;
+
+/**
+ * Measures the display string of each task type, used by every list and find.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskBenchmark {
+
+    private ToDo todo;
+    private Deadline deadline;
+    private Event event;
+
+    /**
+     * Creates one task of each type.
+     */
+    @Setup
+    public void setUp() throws KiwiException {
+        todo = new ToDo("read book");
+        deadline = new Deadline("return book", "2026-06-06 1700");
+        event = new Event("project meeting", "2026-08-08 1200", "1800");
+    }
+
+    @Benchmark
+    public String todoToString() {
+        return todo.toString();
+    }
+
+    @Benchmark
+    public String deadlineToString() {
+        return deadline.toString();
+    }
+
+    @Benchmark
+    public String eventToString() {
+        return event.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package kiwi.helper;
+
+import java.util.ArrayList;
+
+import kiwi.build.Deadline;
+import kiwi.build.Event;
+import kiwi.build.Task;
+import kiwi.build.ToDo;
+
+/**
+ * Builds task lists shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates a mix of todos, deadlines and events with distinct descriptions.
+     *
+     * Every third task is done, and one in ten descriptions contains "report"
+     * so find benchmarks have a predictable hit rate. One in four is tagged #work
+     * and one in seven #urgent. Priorities cycle through none and 1 to 5.
+     *
+     * @param size number of tasks to create
+     * @return tasks named "task 0" to "task size-1" (with an optional suffix)
+     */
+    public static ArrayList<Task> createTasks(int size) {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                String description = "task " + i + (i % 10 == 0 ? " report" : "")
+                + (i % 4 == 0 ? " #work" : "") + (i % 7 == 0 ? " #urgent" : "");
+                Task task;
+                switch (i % 3) {
+                case 0:
+                    task = new ToDo(description);
+                    break;
+                case 1:
+                    task = new Deadline(description, "2026-04-16 2359");
+                    break;
+                default:
+                    task = new Event(description, "2026-03-07 1030", "1930");
+                    break;
+                }
+                if (i % 3 == 2) {
+                    task.markTask();
+                }
+                task.setPriority(i % 6);
+                tasks.add(task);
+            }
+        } catch (KiwiException e) {
+            throw new IllegalStateException(e);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,50 @@
+package kiwi.helper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of recording one command, to check metrics can stay on in production.
+ *
+ * A recorded command costs two nanoTime calls plus two histogram updates; the
+ * contended variant runs the same recording from four threads at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private final Metrics metrics = new Metrics();
+
+    @Benchmark
+    public long nanoTimeOnly() {
+        return System.nanoTime() - System.nanoTime();
+    }
+
+    @Benchmark
+    public void recordCommand() {
+        long start = System.nanoTime();
+        long parsedAt = System.nanoTime();
+        metrics.recordParse(parsedAt - start, false);
+        metrics.recordCommand(CommandType.LIST, System.nanoTime() - parsedAt, false);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordCommandContended() {
+        recordCommand();
+    }
+}
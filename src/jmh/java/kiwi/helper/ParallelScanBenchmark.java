@@ -0,0 +1,68 @@
+package kiwi.helper;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kiwi.build.Task;
+
+/**
+ * Measures how a keyword scan scales with the number of fork-join workers.
+ *
+ * One worker is the sequential loop, since a single-worker pool never splits.
+ * Compare the scores across {@code workers} for each size; workers beyond the
+ * machine's cores only add overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelScanBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    @Param({"1", "2", "4", "8"})
+    private int workers;
+
+    private ArrayList<Task> tasks;
+    private ForkJoinPool pool;
+    private ParallelScan scan;
+
+    @Setup
+    public void setUp() {
+        tasks = BenchmarkData.createTasks(size);
+        pool = new ForkJoinPool(workers);
+        scan = new ParallelScan(pool, ParallelScan.MIN_LEAF);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public ArrayList<Task> findCommonKeyword() {
+        return scan.filter(tasks, t -> t.getDescription().toLowerCase().contains("report"));
+    }
+
+    @Benchmark
+    public ArrayList<Task> findMissingKeyword() {
+        return scan.filter(tasks, t -> t.getDescription().toLowerCase().contains("holiday"));
+    }
+}
@@ -0,0 +1,85 @@
+package kiwi.helper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Parser.parse throughput against the regex-based splitting it replaced.
+ *
+ * The legacy benchmark repeats the calls the old parser made for each input
+ * (whitespace split, marker split, contains, digit regex and the second date
+ * parse in the task constructor) so both sides can be compared in one run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+
+    @Param({
+        "todo read book",
+        "deadline return book /by 2026-06-06 1700",
+        "event project meeting /from 2026-08-08 1200 /to 1800",
+        "mark 12"
+    })
+    private String input;
+
+    @Benchmark
+    public Parser tokenizer() throws KiwiException {
+        return Parser.parse(input);
+    }
+
+    /**
+     * Replays the splitting and double date parsing done before the tokenizer.
+     */
+    @Benchmark
+    public Object legacyRegexSplit() {
+        String[] parts = input.trim().split("\\s+", 2);
+        String cmd = parts[0].toLowerCase();
+
+        switch (cmd) {
+        case "deadline":
+            String by = parts[1].split(" /by ", 2)[1].trim();
+            legacyParse(by);
+            return legacyParse(by);
+        case "event":
+            if (!parts[1].contains("/from") || !parts[1].contains("/to")) {
+                return null;
+            }
+            String[] evParts = parts[1].split(" /from | /to ", -1);
+            legacyParse(evParts[1].trim());
+            legacyParse(evParts[2].trim());
+            legacyParse(evParts[1].trim());
+            return legacyParse(evParts[2].trim());
+        case "mark":
+            return Integer.parseInt(parts[1].trim());
+        default:
+            return parts[1].trim();
+        }
+    }
+
+    private static LocalDateTime legacyParse(String text) {
+        if (text.length() == 4 && text.matches("\\d{4}")) {
+            String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+            return LocalDateTime.parse(today + " " + text, DATE_TIME_FORMATTER);
+        }
+        return LocalDateTime.parse(text, DATE_TIME_FORMATTER);
+    }
+}
@@ -0,0 +1,74 @@
+package kiwi.helper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kiwi.build.Task;
+
+/**
+ * Measures loading and saving kiwi.txt at different list sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private Path dir;
+    private Storage storage;
+    private ArrayList<Task> tasks;
+
+    /**
+     * Writes a data file of the requested size into a fresh temporary directory.
+     */
+    @Setup
+    public void setUp() throws IOException, KiwiException {
+        dir = Files.createTempDirectory("kiwi-bench");
+        storage = new Storage(dir.toString(), dir.resolve("kiwi.txt").toString());
+        tasks = BenchmarkData.createTasks(size);
+        storage.saveTasks(tasks);
+    }
+
+    /**
+     * Deletes the temporary directory.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Task> loadTasks() {
+        return storage.loadTasks();
+    }
+
+    @Benchmark
+    public void saveTasks() throws KiwiException {
+        storage.saveTasks(tasks);
+    }
+}
@@ -0,0 +1,109 @@
+package kiwi.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kiwi.build.Task;
+
+/**
+ * Measures keyword search over the task list.
+ *
+ * The fuzzy and tag indexes, the next queue and the sorted views are built in
+ * setup, so those benchmarks and the queries planned over them measure lookups only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private TaskList tasks;
+
+    private final TagQuery urgentWork = new TagQuery(List.of(List.of("work"), List.of("urgent")), List.of("done"));
+
+    private Query urgentDeadlines;
+    private Query nextByDeadline;
+
+    @Setup
+    public void setUp() throws KiwiException {
+        tasks = new TaskList(BenchmarkData.createTasks(size));
+        urgentDeadlines = Parser.parse("query type:D and #urgent and undone").getQuery();
+        nextByDeadline = Parser.parse("query undone order by deadline limit 10").getQuery();
+        tasks.findFuzzy("warm up");
+        tasks.findTagged(urgentWork);
+        tasks.next(1);
+        tasks.sorted(SortOrder.DEADLINE);
+    }
+
+    @Benchmark
+    public ArrayList<Task> findCommonKeyword() {
+        return tasks.find("report");
+    }
+
+    @Benchmark
+    public ArrayList<Task> findMissingKeyword() {
+        return tasks.find("holiday");
+    }
+
+    @Benchmark
+    public ArrayList<Task> findFuzzyTypo() {
+        return tasks.findFuzzy("reprot");
+    }
+
+    @Benchmark
+    public ArrayList<Task> findFuzzyMissingKeyword() {
+        return tasks.findFuzzy("holidya");
+    }
+
+    @Benchmark
+    public ArrayList<Task> nextTen() {
+        return tasks.next(10);
+    }
+
+    @Benchmark
+    public ArrayList<Task> markThenUnmarkFirst() {
+        tasks.mark(1);
+        tasks.unmark(1);
+        return tasks.next(1);
+    }
+
+    @Benchmark
+    public List<Task> sortedMiddlePage() {
+        List<Task> byDeadline = tasks.sorted(SortOrder.DEADLINE);
+        int from = byDeadline.size() / 2;
+        return byDeadline.subList(from, Math.min(from + TaskPages.PAGE_SIZE, byDeadline.size()));
+    }
+
+    @Benchmark
+    public ArrayList<Task> findTagged() {
+        return tasks.findTagged(urgentWork);
+    }
+
+    @Benchmark
+    public ArrayList<Task> queryByBitmap() {
+        return tasks.query(urgentDeadlines);
+    }
+
+    @Benchmark
+    public ArrayList<Task> queryOrderedWithLimit() {
+        return tasks.query(nextByDeadline);
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * List cell that renders a {@link ChatMessage} as a chat bubble.
+ *
+ * The chat history is a virtualized ListView, so only enough cells for the
+ * visible rows are created. Each cell keeps one {@link DialogBox} and rebinds
+ * it to whichever message scrolls into view. Messages cut short by paging get
+ * a "load more" link under the bubble.
+ *
+ * @author zow1e
+ * @see ChatMessage
+ * @see MainWindow
+ */
+package kiwi.build;
+
+import java.util.function.Consumer;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Hyperlink;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+import javafx.scene.layout.VBox;
+
+/**
+ * Recycled cell showing one chat bubble.
+ */
+public class ChatCell extends ListCell<ChatMessage> {
+
+    private final Image userImage;
+    private final Image kiwiImage;
+
+    /** Bubble reused for every message this cell displays; created on first use. */
+    private DialogBox dialogBox;
+
+    /** Bubble plus the "load more" link; created with the bubble. */
+    private VBox content;
+
+    private final Hyperlink loadMore = new Hyperlink("Load more");
+
+    /**
+     * Constructs a cell that draws messages with the given avatars.
+     *
+     * @param userImage avatar for user messages
+     * @param kiwiImage avatar for Kiwi messages
+     * @param onLoadMore called with the message whose "load more" link was clicked
+     */
+    public ChatCell(Image userImage, Image kiwiImage, Consumer<ChatMessage> onLoadMore) {
+        this.userImage = userImage;
+        this.kiwiImage = kiwiImage;
+        loadMore.setOnAction(e -> onLoadMore.accept(getItem()));
+
+        // Inline style beats the default selected/focused cell colours
+        setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        // Let the ListView width decide the cell width so bubbles wrap instead of scrolling sideways
+        setPrefWidth(0);
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean empty) {
+        super.updateItem(message, empty);
+
+        if (empty || message == null) {
+            setGraphic(null);
+            return;
+        }
+
+        Image avatar = message.isUser() ? userImage : kiwiImage;
+        if (dialogBox == null) {
+            dialogBox = message.isUser()
+                ? DialogBox.getUserDialog(message.getText(), avatar)
+                : DialogBox.getKiwiDialog(message.getText(), avatar);
+            content = new VBox(dialogBox, loadMore);
+        } else {
+            dialogBox.update(message.getText(), avatar, message.isUser());
+        }
+        loadMore.setVisible(message.hasMore());
+        loadMore.setManaged(message.hasMore());
+        setGraphic(content);
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * A single chat message shown in the Kiwi GUI.
+ *
+ * Messages are plain data; the chat history stores these rather than
+ * {@link DialogBox} nodes, and only the visible messages are bound to nodes.
+ *
+ * @author zow1e
+ * @see ChatCell
+ * @see MainWindow
+ */
+package kiwi.build;
+
+import kiwi.helper.TaskPages;
+
+/**
+ * Text of one chat bubble and who sent it.
+ */
+public class ChatMessage {
+
+    private final String text;
+    private final boolean isUser;
+
+    /** Pages of a long result that follow this message, or null if it is complete. */
+    private final TaskPages morePages;
+
+    private ChatMessage(String text, boolean isUser, TaskPages morePages) {
+        this.text = text;
+        this.isUser = isUser;
+        this.morePages = morePages;
+    }
+
+    /**
+     * Creates a message typed by the user.
+     *
+     * @param text the user's input
+     * @return a user message
+     */
+    public static ChatMessage fromUser(String text) {
+        return new ChatMessage(text, true, null);
+    }
+
+    /**
+     * Creates a message sent by Kiwi.
+     *
+     * @param text Kiwi's response
+     * @return a Kiwi message
+     */
+    public static ChatMessage fromKiwi(String text) {
+        return new ChatMessage(text, false, null);
+    }
+
+    /**
+     * Creates a message sent by Kiwi that can be followed by more pages.
+     *
+     * @param text Kiwi's response
+     * @param morePages the pages not shown yet, or null if the response is complete
+     * @return a Kiwi message
+     */
+    public static ChatMessage fromKiwi(String text, TaskPages morePages) {
+        return new ChatMessage(text, false, morePages != null && morePages.hasNext() ? morePages : null);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns whether the user sent this message.
+     *
+     * @return true for user messages, false for Kiwi messages
+     */
+    public boolean isUser() {
+        return isUser;
+    }
+
+    /**
+     * Returns whether more pages of this response can be loaded.
+     *
+     * @return true if the message offers a "load more" action
+     */
+    public boolean hasMore() {
+        return morePages != null;
+    }
+
+    /**
+     * Returns the pages that follow this message.
+     *
+     * @return the remaining pages, or null if the response is complete
+     */
+    public TaskPages getMorePages() {
+        return morePages;
+    }
+}
@@ -39,6 +39,17 @@ public class Deadline extends Task {
         this.dateTime = parseDateTime(dateTime.trim());
     }
 
+    /**
+     * Constructs a Deadline task with an already parsed due date.
+     *
+     * @param description the task description (non-empty)
+     * @param dateTime the due date
+     */
+    public Deadline(String description, LocalDateTime dateTime) {
+        super(description);
+        this.dateTime = dateTime;
+    }
+
     /**
      * Parses date/time string in either "yyyy-MM-dd HHmm" or "HHmm" format.
      *
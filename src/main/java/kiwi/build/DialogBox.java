@@ -3,22 +3,25 @@
  *
  * Displays messages with avatars in a consistent, fixed size format.
  * Both user and Kiwi avatars are rendered at 80x80 pixels.
+ *
+ * A dialog box can be rebound to another message with {@link #update}, which
+ * lets the chat history recycle a handful of boxes instead of keeping one per message.
  */
 package kiwi.build;
 
-import java.io.IOException;
 import java.util.Collections;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
 
 /**
  * Represents a dialog box with a speaker's avatar and message text.
@@ -26,39 +29,46 @@ import javafx.scene.layout.HBox;
 public class DialogBox extends HBox {
 
     private static final int AVATAR_SIZE = 80;
+    private static final double AVATAR_GAP = 12.0;
+    private static final Insets PADDING = new Insets(8.0, 12.0, 8.0, 12.0);
+    private static final String LABEL_STYLE = "-fx-background-color: rgba(255,255,255,0.95);"
+        + " -fx-background-radius: 18px; -fx-padding: 12px 16px; -fx-text-fill: #333; -fx-font-size: 14px;"
+        + " -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 4, 0, 1, 1);";
+
+    private final Label dialog;
+    private final ImageView displayPicture;
 
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
+    /** Whether the children are in user order (text, then avatar). */
+    private boolean isFlipped;
 
     /**
      * Constructs a DialogBox with the given text and image.
      *
+     * The node tree (avatar, gap, text) is built directly instead of being loaded
+     * from FXML, so creating a bubble does not parse XML or inject fields reflectively.
+     *
      * @param text the text to display
      * @param img the image to display
      */
     private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-            getChildren().addAll(new ImageView(img), new Label(text));
-            return;
-        }
+        displayPicture = new ImageView(img);
+        displayPicture.setPickOnBounds(true);
+        setAvatarSize();
 
-        if (dialog != null) {
-            dialog.setText(text);
-            dialog.setMaxWidth(250.0);
-        }
+        Region gap = new Region();
+        gap.setPrefWidth(AVATAR_GAP);
+        HBox.setHgrow(gap, Priority.NEVER);
 
-        if (displayPicture != null) {
-            displayPicture.setImage(img);
-            setAvatarSize();
-        }
+        dialog = new Label(text);
+        dialog.setStyle(LABEL_STYLE);
+        dialog.setWrapText(true);
+        dialog.setMaxWidth(250.0);
+        dialog.setMinHeight(20.0);
+
+        getChildren().addAll(displayPicture, gap, dialog);
+        setAlignment(Pos.CENTER_LEFT);
+        setPrefWidth(400.0);
+        setPadding(PADDING);
     }
 
     /**
@@ -79,7 +89,25 @@ public class DialogBox extends HBox {
         ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
         Collections.reverse(tmp);
         this.getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_RIGHT);
+        isFlipped = !isFlipped;
+        setAlignment(isFlipped ? Pos.TOP_RIGHT : Pos.CENTER_LEFT);
+    }
+
+    /**
+     * Shows a different message in this dialog box, flipping it if the speaker changed.
+     *
+     * @param text the text to display
+     * @param img the speaker's avatar
+     * @param isUser true for a user message, false for a Kiwi message
+     */
+    public void update(String text, Image img, boolean isUser) {
+        dialog.setText(text);
+        displayPicture.setImage(img);
+        if (isFlipped != isUser) {
+            flip();
+        }
+        getStyleClass().removeAll("user-dialog", "kiwi-dialog");
+        getStyleClass().add(isUser ? "user-dialog" : "kiwi-dialog");
     }
 
     /**
@@ -93,6 +121,7 @@ public class DialogBox extends HBox {
     public static DialogBox getUserDialog(String text, Image img) {
         var db = new DialogBox(text, img);
         db.flip();
+        db.getStyleClass().add("user-dialog");
         return db;
     }
 
@@ -105,6 +134,8 @@ public class DialogBox extends HBox {
      * @return a DialogBox for Kiwi's messages
      */
     public static DialogBox getKiwiDialog(String text, Image img) {
-        return new DialogBox(text, img);
+        var db = new DialogBox(text, img);
+        db.getStyleClass().add("kiwi-dialog");
+        return db;
     }
 }
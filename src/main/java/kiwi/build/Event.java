@@ -59,6 +59,23 @@ public class Event extends Task {
         }
     }
 
+    /**
+     * Constructs an Event task with an already parsed time range.
+     *
+     * @param description the event description (non-empty)
+     * @param fromTime the start time
+     * @param toTime the end time
+     * @throws KiwiException if end time is before start time
+     */
+    public Event(String description, LocalDateTime fromTime, LocalDateTime toTime) throws KiwiException {
+        super(description);
+        if (toTime.isBefore(fromTime)) {
+            throw new KiwiException("End time cannot be before start time!!");
+        }
+        this.fromTime = fromTime;
+        this.toTime = toTime;
+    }
+
     /**
      * Parses date/time string in either "yyyy-MM-dd HHmm" or "HHmm" format.
      *
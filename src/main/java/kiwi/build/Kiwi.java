@@ -7,6 +7,11 @@
  * Automatically loads/saves tasks to data/kiwi.txt.
  *
  * Supports both CLI mode (main method) and GUI mode (getResponse method).
+ * The core does not reference JavaFX, so CLI runs never load the toolkit.
+ * Every command is dispatched once, through a table keyed by {@link CommandType},
+ * and rendered by the {@link ResponseSink} of the calling front end. Responses
+ * to {@code list}, {@code find} and {@code query} are kept in a {@link ResultCache}
+ * until the task list next changes, so repeating one costs a hash lookup.
  *
  * @author zow1e
  * @see kiwi.helper.Parser
@@ -14,23 +19,37 @@
  * @see kiwi.helper.TaskList
  * @see kiwi.helper.Ui
  * @see kiwi.helper.KiwiException
- * @see kiwi.build.Cli
- * @see kiwi.build.Gui
+ * @see kiwi.helper.Cli
+ * @see kiwi.helper.Gui
+ * @see kiwi.helper.ResponseSink
  */
 package kiwi.build;
 
 import java.io.File;
-import java.util.Optional;
-import java.util.Scanner;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.function.Consumer;
 
-import javafx.stage.Stage;
 import kiwi.helper.Cli;
+import kiwi.helper.CommandEvent;
+import kiwi.helper.CommandHandler;
+import kiwi.helper.CommandType;
+import kiwi.helper.Completer;
 import kiwi.helper.Gui;
 import kiwi.helper.KiwiException;
+import kiwi.helper.Metrics;
 import kiwi.helper.Parser;
+import kiwi.helper.ReminderScheduler;
+import kiwi.helper.RenderedResponse;
+import kiwi.helper.ResponseSink;
+import kiwi.helper.ResultCache;
 import kiwi.helper.Storage;
 import kiwi.helper.TaskList;
-import kiwi.helper.Ui;
+import kiwi.helper.TaskPages;
+import kiwi.helper.TaskSelection;
+import kiwi.helper.TaskTransfer;
 
 
 /**
@@ -45,18 +64,30 @@ public class Kiwi {
     /** Full path to the kiwi.txt data file. */
     private static final String DATA_FILE = DATA_DIR + File.separator + "kiwi.txt";
 
-    /** Error message for out of bounds index input. */
-    private static final String INVALID_IDX_MSG = "Please enter a valid task number\n";
-
-    /** Error message for out of bounds index input. */
-    private static Ui ui = new Ui();
-
     /** Manages persistent task storage. */
     private static Storage storage;
 
     /** Manages the task collection. */
     private static TaskList tasks;
 
+    /** Responses to read-only commands, rendered from the current version of the task list. */
+    private static ResultCache results;
+
+    /** Imports and exports tasks as CSV/ICS files. */
+    private static TaskTransfer transfer;
+
+    /** Lead-time alerts for upcoming deadlines and events, kept in sync with every change. */
+    private final ReminderScheduler reminders = new ReminderScheduler();
+
+    /** Suggests completions for partially typed commands. */
+    private Completer completer;
+
+    /** Latency histograms and error counts for this session. */
+    private final Metrics metrics = new Metrics();
+
+    /** Handler for every command type. */
+    private final EnumMap<CommandType, CommandHandler> handlers = new EnumMap<>(CommandType.class);
+
     /** Manages CLI commands */
     private Cli cli;
 
@@ -69,19 +100,140 @@ public class Kiwi {
      */
     public Kiwi() {
         storage = new Storage(DATA_DIR, DATA_FILE);
+        long loadStart = System.nanoTime();
         tasks = new TaskList(storage.loadTasks());
+        metrics.recordLoad(System.nanoTime() - loadStart);
+        results = new ResultCache();
+        metrics.setResultCache(results);
+        reminders.trackAll(tasks.getTasks());
+        transfer = new TaskTransfer(storage);
+        completer = new Completer(tasks);
         cli = new Cli(tasks);
         gui = new Gui(tasks);
+        registerHandlers();
+        if (Boolean.getBoolean(Metrics.DUMP_PROPERTY)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(metrics.format())));
+        }
         assert tasks != null : "TaskList should not be null after initialization";
+        assert handlers.size() == CommandType.values().length : "Every command type needs a handler";
+    }
+
+    /**
+     * Fills the dispatch table with one handler per command type.
+     */
+    private void registerHandlers() {
+        handlers.put(CommandType.TODO, (c, sink) -> addTask(new ToDo(c.getArg(0)), c, sink));
+        handlers.put(CommandType.DEADLINE, (c, sink) -> addTask(c.getRecurrence() == null
+            ? new Deadline(c.getArg(0), c.getDateTime(0))
+            : new RecurringTask(c.getArg(0), c.getDateTime(0), null, c.getRecurrence(), c.getUntil()), c, sink));
+        handlers.put(CommandType.EVENT, (c, sink) -> addTask(c.getRecurrence() == null
+            ? new Event(c.getArg(0), c.getDateTime(0), c.getDateTime(1))
+            : new RecurringTask(c.getArg(0), c.getDateTime(0), c.getDateTime(1), c.getRecurrence(), c.getUntil()),
+            c, sink));
+        handlers.put(CommandType.LIST, (c, sink) -> {
+            if (c.getSortOrder() != null) {
+                sink.showSortedTasks(tasks.sorted(c.getSortOrder()), c.getSortOrder());
+            } else if (c.getDateTime(0) == null) {
+                sink.showTasks(tasks.getTasks());
+            } else {
+                LocalDateTime first = c.getDateTime(0);
+                LocalDateTime last = c.getDateTime(1);
+                sink.showSchedule(tasks.occurrencesBetween(first, last.plusDays(1)),
+                    first.toLocalDate(), last.toLocalDate());
+            }
+            return true;
+        });
+        handlers.put(CommandType.FIND, (c, sink) -> {
+            String keyword = c.getArg(0);
+            if (c.getTagQuery() != null) {
+                sink.showMatchingTasks(tasks.findTagged(c.getTagQuery()));
+            } else {
+                sink.showMatchingTasks(c.isFuzzy() ? tasks.findFuzzy(keyword) : tasks.find(keyword.toLowerCase()));
+            }
+            return true;
+        });
+        handlers.put(CommandType.NEXT, (c, sink) -> {
+            sink.showNextTasks(tasks.next(Integer.parseInt(c.getArg(0))));
+            return true;
+        });
+        handlers.put(CommandType.QUERY, (c, sink) -> {
+            sink.showMatchingTasks(tasks.query(c.getQuery()));
+            return true;
+        });
+        handlers.put(CommandType.EXPLAIN, (c, sink) -> {
+            sink.showQueryPlan(tasks.explain(c.getQuery()));
+            return true;
+        });
+        handlers.put(CommandType.MARK, (c, sink) -> mark(c.getSelection(), sink));
+        handlers.put(CommandType.UNMARK, (c, sink) -> unmark(c.getSelection(), sink));
+        handlers.put(CommandType.DELETE, (c, sink) -> delete(c.getSelection(), sink));
+        handlers.put(CommandType.IMPORT, (c, sink) -> {
+            int before = tasks.size();
+            TaskTransfer.Report report = transfer.importTasks(c.getArg(0), tasks, sink::showProgress);
+            reminders.trackAll(tasks.getTasks().subList(before, tasks.size()));
+            sink.showImported(report);
+            return true;
+        });
+        handlers.put(CommandType.EXPORT, (c, sink) -> {
+            sink.showExported(transfer.exportTasks(c.getArg(0), tasks), c.getArg(0));
+            return true;
+        });
+        handlers.put(CommandType.HELP, (c, sink) -> {
+            sink.showHelp();
+            return true;
+        });
+        handlers.put(CommandType.CLEAR, (c, sink) -> clear(sink));
+        handlers.put(CommandType.STATS, (c, sink) -> {
+            sink.showStats(metrics.format());
+            return true;
+        });
+        handlers.put(CommandType.BYE, (c, sink) -> {
+            long saveStart = System.nanoTime();
+            storage.saveTasks(tasks.getTasks());
+            metrics.recordSave(System.nanoTime() - saveStart);
+            sink.showBye();
+            return false;
+        });
+    }
+
+    /**
+     * Sets the action that closes the GUI after a bye command.
+     *
+     * @param onExit closes the application window; called on the thread running the command
+     */
+    public void setOnExit(Runnable onExit) {
+        gui.setOnExit(onExit);
+    }
+
+    /**
+     * Starts sending reminders for upcoming deadlines and events.
+     *
+     * @param listener receives each alert on the reminder thread
+     */
+    public void startReminders(Consumer<String> listener) {
+        reminders.start(listener);
+    }
+
+    /**
+     * Builds the index of task descriptions used for autocompletion.
+     *
+     * Until this is called only command keywords are completed. It must run on
+     * the thread that executes commands.
+     */
+    public void enableCompletions() {
+        tasks.enableCompletions();
     }
 
     /**
-     * Sets the GUI stage reference for closing the application.
+     * Returns completions for a partially typed command.
+     *
+     * Safe to call from any thread, e.g. the GUI thread on every keystroke.
      *
-     * @param stage the primary stage of the GUI application
+     * @param input the text typed so far
+     * @return up to {@link Completer#LIMIT} completed input lines
      */
-    public void setGuiStage(Stage stage) {
-        gui.setGuiStage(stage);
+    public List<String> complete(String input) {
+        return completer.complete(input);
     }
 
     /**
@@ -92,301 +244,318 @@ public class Kiwi {
     public static void main(String[] args) {
         Kiwi kiwi = new Kiwi();
         kiwi.cli.showWelcome();
+        kiwi.startReminders(kiwi.cli::showReminder);
         kiwi.runCliLoop();
     }
 
     /**
      * Runs the CLI interactive loop.
+     *
+     * The console only hands over whole lines, so a line ending in a Tab asks for
+     * completions of the text before it instead of running it. Reminders are held
+     * back while each line is handled, so they appear between commands.
      */
     private void runCliLoop() {
-        Scanner scanner = new Scanner(System.in);
         boolean isActive = true;
 
-        while (isActive && scanner.hasNextLine()) {
-            String input = scanner.nextLine().trim();
-
+        while (isActive && cli.hasNextLine()) {
+            String line = cli.readLine();
+            cli.beginCommand();
             try {
-                isActive = processCliCommand(input);
-            } catch (KiwiException e) {
-                cli.showError(e.getMessage());
-            } catch (NumberFormatException | IndexOutOfBoundsException e) {
-                cli.showInvalidIndexError();
+                if (line.endsWith("\t")) {
+                    enableCompletions();
+                    cli.showCompletions(complete(line.strip()));
+                } else {
+                    isActive = execute(line.trim(), cli);
+                }
+            } finally {
+                cli.endCommand();
             }
         }
-        scanner.close();
     }
 
     /**
-     * Processes a CLI command.
+     * Processes user input and returns a response (for GUI mode).
      *
      * @param input the user's command
-     * @return false if bye command, true otherwise
-     * @throws KiwiException if command parsing fails
+     * @return the response from Kiwi
      */
-    private boolean processCliCommand(String input) throws KiwiException {
-        Parser parsed = Parser.parse(input);
-        String command = parsed.getType().toLowerCase();
-
-        switch (command) {
-        case "bye":
-            storage.saveTasks(tasks.getTasks());
-            cli.showBye();
-            return false;
-
-        case "list":
-            cli.listTasks();
-            break;
-
-        case "todo":
-            executeAddTask(new ToDo(parsed.getArg(0)), true);
-            break;
-
-        case "deadline":
-            executeAddTask(new Deadline(parsed.getArg(0), parsed.getArg(1)), true);
-            break;
-
-        case "event":
-            executeAddTask(new Event(parsed.getArg(0), parsed.getArg(1), parsed.getArg(2)), true);
-            break;
-
-        case "mark":
-            executeMark(Integer.parseInt(parsed.getArg(0)), true);
-            break;
-
-        case "unmark":
-            executeUnmark(Integer.parseInt(parsed.getArg(0)), true);
-            break;
-
-        case "delete":
-            executeDelete(Integer.parseInt(parsed.getArg(0)), true);
-            break;
-
-        case "find":
-            executeFindTasks(parsed.getArg(0).toLowerCase(), true);
-            break;
-
-        case "help":
-            cli.showHelp();
-            break;
-
-        case "clear":
-            executeClear(true);
-            break;
+    public String getResponse(String input) {
+        execute(input, gui);
+        return gui.takeResponse();
+    }
 
-        default:
-            throw new KiwiException("Command not recognised!");
-        }
-        return true;
+    /**
+     * Returns the pages of the last GUI response that were not shown yet.
+     *
+     * @return the remaining pages, or null if the last response was complete
+     */
+    public TaskPages takeMorePages() {
+        return gui.takeMorePages();
     }
 
     /**
-     * Processes user input and returns a response (for GUI mode).
+     * Parses and executes one command, rendering the outcome to the given sink.
+     *
+     * This is the single dispatch point shared by all front ends; errors are
+     * reported through the sink rather than thrown. Parsing and execution are
+     * timed separately into the session's {@link Metrics}, and the whole call is
+     * reported to Flight Recorder as a {@link CommandEvent}. A response replayed
+     * from the result cache is timed like any other.
      *
      * @param input the user's command
-     * @return the response from Kiwi
+     * @param sink where the response is rendered
+     * @return false if the session should end, true otherwise
      */
-    public String getResponse(String input) {
+    public boolean execute(String input, ResponseSink sink) {
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Parser parsed;
         try {
-            Parser parsed = Parser.parse(input);
-            String command = parsed.getType().toLowerCase();
-
-            assert parsed != null : "Parser should not return a null object";
-            assert !command.isEmpty() : "Parsed command cannot be empty";
-
-            return executeGuiCommand(command, parsed);
+            parsed = Parser.parse(input);
+        } catch (KiwiException | NumberFormatException | IndexOutOfBoundsException e) {
+            metrics.recordParse(System.nanoTime() - start, true);
+            showFailure(e, sink);
+            event.complete("unknown", sink.getClass().getSimpleName(), tasks.size(), true);
+            return true;
+        }
+        assert parsed != null : "Parser should not return a null object";
 
-        } catch (KiwiException e) {
-            return e.getMessage();
-        } catch (NumberFormatException | IndexOutOfBoundsException e) {
-            return "Please enter a valid task number\n";
+        long parsedAt = System.nanoTime();
+        metrics.recordParse(parsedAt - start, false);
+        CommandType type = parsed.getCommandType();
+        boolean isError = true;
+        try {
+            String cacheKey = cacheKey(parsed);
+            boolean isActive = cacheKey == null ? handlers.get(type).handle(parsed, sink)
+                : handleCached(parsed, sink.getClass().getSimpleName() + ':' + cacheKey, sink);
+            isError = false;
+            return isActive;
+        } catch (KiwiException | NumberFormatException | IndexOutOfBoundsException e) {
+            showFailure(e, sink);
+            return true;
+        } finally {
+            metrics.recordCommand(type, System.nanoTime() - parsedAt, isError);
+            event.complete(type.getKeyword(), sink.getClass().getSimpleName(), tasks.size(), isError);
         }
     }
 
     /**
-     * Executes a GUI command.
+     * Runs a read-only command through the result cache.
+     *
+     * A response rendered since the list last changed is replayed as it is. Otherwise
+     * the command runs while the sink records its response, which is kept only if
+     * the command succeeds.
      *
-     * @param command the command type
-     * @param parsed the parsed command
-     * @return the response message
-     * @throws KiwiException if command execution fails
+     * @param command the parsed command
+     * @param key the normalized command, prefixed with the sink it was rendered for
+     * @param sink where the response is rendered
+     * @return true, as read-only commands never end the session
+     * @throws KiwiException if the command fails
      */
-    private String executeGuiCommand(String command, Parser parsed) throws KiwiException {
-        switch (command) {
-        case "bye":
-            storage.saveTasks(tasks.getTasks());
-            gui.closeApplication();
-            return gui.formatByeMessage();
-
-        case "list":
-            return gui.formatTasks(tasks.getTasks());
-
-        case "todo":
-            return executeAddTask(new ToDo(parsed.getArg(0)), false);
-
-        case "deadline":
-            return executeAddTask(new Deadline(parsed.getArg(0), parsed.getArg(1)), false);
-
-        case "event":
-            return executeAddTask(new Event(parsed.getArg(0), parsed.getArg(1), parsed.getArg(2)), false);
-
-        case "mark":
-            return executeMark(Integer.parseInt(parsed.getArg(0)), false);
-
-        case "unmark":
-            return executeUnmark(Integer.parseInt(parsed.getArg(0)), false);
-
-        case "delete":
-            return executeDelete(Integer.parseInt(parsed.getArg(0)), false);
-
-        case "find":
-            return gui.formatTasks(tasks.find(parsed.getArg(0).toLowerCase()));
-
-        case "help":
-            return gui.formatHelpMessage();
-
-        case "clear":
-            return executeClear(false);
+    private boolean handleCached(Parser command, String key, ResponseSink sink) throws KiwiException {
+        long version = tasks.getVersion();
+        RenderedResponse cached = results.get(key, version);
+        if (cached != null) {
+            sink.replay(cached);
+            return true;
+        }
+        RenderedResponse rendered;
+        sink.startRecording();
+        try {
+            handlers.get(command.getCommandType()).handle(command, sink);
+        } finally {
+            rendered = sink.stopRecording();
+        }
+        results.put(key, version, rendered);
+        return true;
+    }
 
+    /**
+     * Returns the normalized form of a command whose response can be cached.
+     *
+     * Commands that mean the same get the same key: keywords are lowercase, and
+     * tag searches and queries are written out in their normalized form.
+     *
+     * @param command the parsed command
+     * @return the cache key, or null if the command changes something or its response may vary
+     */
+    private static String cacheKey(Parser command) {
+        switch (command.getCommandType()) {
+        case LIST:
+            if (command.getSortOrder() != null) {
+                return "list /sort " + command.getSortOrder().getKeyword();
+            }
+            if (command.getDateTime(0) != null) {
+                return "list /from " + command.getDateTime(0).toLocalDate()
+                    + " /to " + command.getDateTime(1).toLocalDate();
+            }
+            return "list";
+        case FIND:
+            if (command.getTagQuery() != null) {
+                return "find " + command.getTagQuery();
+            }
+            return (command.isFuzzy() ? "find ~" : "find ") + command.getArg(0).toLowerCase();
+        case QUERY:
+            return "query " + command.getQuery();
         default:
-            return "Command not recognised!";
+            return null;
         }
     }
 
     /**
-     * Executes add task command.
+     * Reports a failed command through the sink.
      *
-     * @param task the task to add
-     * @param isCliMode true for CLI, false for GUI
-     * @return response message (GUI only)
-     * @throws KiwiException if duplicate found in GUI mode
+     * @param e the parse or execution failure
+     * @param sink where the error is rendered
      */
-    private String executeAddTask(Task task, boolean isCliMode) throws KiwiException {
-        Task finalTask = checkDuplicate(task, isCliMode);
-        tasks.add(finalTask);
-
-        if (isCliMode) {
-            cli.showAddedTask(finalTask);
-            return null;
+    private static void showFailure(Exception e, ResponseSink sink) {
+        if (e instanceof KiwiException) {
+            sink.showError(e.getMessage());
         } else {
-            return gui.formatAddedTask(finalTask);
+            sink.showInvalidIndexError();
         }
     }
 
     /**
-     * Executes mark command.
+     * Returns the metrics recorded by this instance.
      *
-     * @param index the task index
-     * @param isCliMode true for CLI, false for GUI
-     * @return response message (GUI only)
+     * @return the metrics registry
      */
-    private String executeMark(int index, boolean isCliMode) {
-        Task marked = tasks.mark(index);
+    public Metrics getMetrics() {
+        return metrics;
+    }
 
-        if (isCliMode) {
-            cli.showMarkedTask(marked);
-            return null;
+    /**
+     * Adds a task, unless it duplicates a description and the user keeps the existing task.
+     *
+     * @param task the task to add
+     * @param c the parsed command, for the priority given with /p
+     * @param sink where the response is rendered
+     * @return true, as adding never ends the session
+     * @throws KiwiException if the sink rejects the duplicate
+     */
+    private boolean addTask(Task task, Parser c, ResponseSink sink) throws KiwiException {
+        task.setPriority(c.getPriority());
+        Task existing = findDuplicate(task);
+        if (existing != null && !sink.confirmReplaceDuplicate(existing)) {
+            sink.showDuplicateKept(existing);
+            return true;
+        }
+        tasks.add(task);
+        reminders.track(task);
+        sink.showAddedTask(task);
+        return true;
+    }
+
+    /**
+     * Executes mark command.
+     *
+     * @param selection the tasks to mark
+     * @param sink where the response is rendered
+     * @return true, as marking never ends the session
+     * @throws KiwiException if the selection matches no tasks
+     */
+    private boolean mark(TaskSelection selection, ResponseSink sink) throws KiwiException {
+        if (selection.isSingle()) {
+            Task marked = tasks.mark(selection.getFirstIndex());
+            reminders.untrack(marked);
+            sink.showMarkedTask(marked);
         } else {
-            return gui.formatMarkedTask(marked);
+            ArrayList<Task> marked = requireAny(tasks.markAll(selection));
+            marked.forEach(reminders::untrack);
+            sink.showMarkedTasks(marked);
         }
+        return true;
     }
 
     /**
      * Executes unmark command.
      *
-     * @param index the task index
-     * @param isCliMode true for CLI, false for GUI
-     * @return response message (GUI only)
+     * @param selection the tasks to unmark
+     * @param sink where the response is rendered
+     * @return true, as unmarking never ends the session
+     * @throws KiwiException if the selection matches no tasks
      */
-    private String executeUnmark(int index, boolean isCliMode) {
-        Task unmarked = tasks.unmark(index);
-
-        if (isCliMode) {
-            cli.showUnmarkedTask(unmarked);
-            return null;
+    private boolean unmark(TaskSelection selection, ResponseSink sink) throws KiwiException {
+        if (selection.isSingle()) {
+            Task unmarked = tasks.unmark(selection.getFirstIndex());
+            reminders.track(unmarked);
+            sink.showUnmarkedTask(unmarked);
         } else {
-            return gui.formatUnmarkedTask(unmarked);
+            ArrayList<Task> unmarked = requireAny(tasks.unmarkAll(selection));
+            reminders.trackAll(unmarked);
+            sink.showUnmarkedTasks(unmarked);
         }
+        return true;
     }
 
     /**
      * Executes delete command.
      *
-     * @param index the task index
-     * @param isCliMode true for CLI, false for GUI
-     * @return response message (GUI only)
+     * Multiple selected tasks are removed in one pass rather than one delete per task.
+     *
+     * @param selection the tasks to delete
+     * @param sink where the response is rendered
+     * @return true, as deleting never ends the session
+     * @throws KiwiException if the selection matches no tasks
      */
-    private String executeDelete(int index, boolean isCliMode) {
-        Task deleted = tasks.delete(index);
-
-        if (isCliMode) {
-            cli.showDeletedTask(deleted);
-            return null;
+    private boolean delete(TaskSelection selection, ResponseSink sink) throws KiwiException {
+        if (selection.isSingle()) {
+            Task deleted = tasks.delete(selection.getFirstIndex());
+            reminders.untrack(deleted);
+            sink.showDeletedTask(deleted);
         } else {
-            return gui.formatDeletedTask(deleted);
+            ArrayList<Task> deleted = requireAny(tasks.deleteAll(selection));
+            deleted.forEach(reminders::untrack);
+            sink.showDeletedTasks(deleted);
         }
+        return true;
     }
 
     /**
-     * Executes find command.
+     * Ensures a bulk command affected at least one task.
      *
-     * @param keyword the search keyword
-     * @param isCliMode true for CLI, false for GUI
+     * @param affected the tasks changed by the command
+     * @return the same list, if non-empty
+     * @throws KiwiException if no tasks were affected
      */
-    private String executeFindTasks(String keyword, boolean isCliMode) {
-        var matching = tasks.find(keyword);
-
-        if (isCliMode) {
-            cli.showMatchingTasks(matching);
-            return null;
+    private ArrayList<Task> requireAny(ArrayList<Task> affected) throws KiwiException {
+        if (affected.isEmpty()) {
+            throw new KiwiException("No tasks matched that selection.");
         }
-        return null;
+        return affected;
     }
 
     /**
      * Executes clear command.
      *
-     * @param isCliMode true for CLI, false for GUI
-     * @return response message (GUI only)
+     * @param sink where the response is rendered
+     * @return true, as clearing never ends the session
      */
-    private String executeClear(boolean isCliMode) {
-        if (isCliMode) {
-            if (cli.askConfirmClear()) {
-                tasks.getTasks().clear();
-                cli.showTasksCleared();
-            } else {
-                cli.showClearCancelled();
-            }
-            return null;
+    private boolean clear(ResponseSink sink) {
+        if (sink.confirmClear()) {
+            tasks.clear();
+            reminders.untrackAll();
+            sink.showTasksCleared();
         } else {
-            return gui.formatClearedTasks();
+            sink.showClearCancelled();
         }
+        return true;
     }
 
     /**
-     * Checks for duplicate task descriptions.
+     * Finds a task with the same description, ignoring case.
      *
      * @param newTask the new task
-     * @param isCliMode true for CLI, false for GUI
-     * @return the final task to add
-     * @throws KiwiException if duplicate found in GUI mode
+     * @return the first task already in the list with its description, or null if there is none
      */
-    private Task checkDuplicate(Task newTask, boolean isCliMode) throws KiwiException {
+    private Task findDuplicate(Task newTask) {
         String newDesc = newTask.getDescription().toLowerCase();
-
-        Optional<Task> duplicate = tasks.getTasks().stream()
+        return tasks.getTasks().stream()
             .filter(t -> t.getDescription().toLowerCase().equals(newDesc))
-            .findFirst();
-
-        if (duplicate.isEmpty()) {
-            return newTask;
-        }
-
-        Task existing = duplicate.get();
-
-        if (isCliMode) {
-            return cli.askReplaceDuplicate(existing) ? newTask : existing;
-        } else {
-            throw new KiwiException(gui.formatDuplicateMessage(existing));
-        }
+            .findFirst()
+            .orElse(null);
     }
 }
@@ -1,21 +1,35 @@
 /**
  * Launcher class required for JavaFX classpath compatibility.
+ *
+ * Also selects the headless command-line mode, which never loads JavaFX, so
+ * scripts can run Kiwi on machines without a display.
  */
 package kiwi.build;
 
-import javafx.application.Application;
+import java.util.Arrays;
 
 /**
  * Launcher for Kiwi JavaFX application.
  */
 public class Launcher {
 
+    /** Flag selecting the command-line interface instead of the GUI. */
+    private static final String CLI_FLAG = "--cli";
+
     /**
      * Main entry point.
      *
+     * Starts the CLI when the first argument is {@value #CLI_FLAG}, otherwise the GUI.
+     * The GUI is reached only through {@link Main}, so JavaFX classes are not
+     * loaded in CLI mode.
+     *
      * @param args command line arguments
      */
     public static void main(String[] args) {
-        Application.launch(Main.class, args);
+        if (args.length > 0 && CLI_FLAG.equals(args[0])) {
+            Kiwi.main(Arrays.copyOfRange(args, 1, args.length));
+        } else {
+            Main.main(args);
+        }
     }
 }
@@ -1,12 +1,19 @@
 /**
  * JavaFX GUI entry point for Kiwi task manager application.
  * Integrates with existing Kiwi CLI logic for Level-10 requirement.
+ *
+ * The window is shown before any tasks are loaded; {@link MainWindow} loads
+ * them in the background. Startup times, measured from JVM start, are printed
+ * when the first frame is drawn and when the loaded tasks are shown.
  */
 package kiwi.build;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
@@ -17,8 +24,6 @@ import javafx.stage.Stage;
  */
 public class Main extends Application {
 
-    private Kiwi kiwi = new Kiwi();
-
     @Override
     public void start(Stage stage) {
         try {
@@ -27,13 +32,43 @@ public class Main extends Application {
             Scene scene = new Scene(ap);
             stage.setScene(scene);
             stage.setTitle("Kiwi - Task Manager");
-            fxmlLoader.<MainWindow>getController().setKiwi(kiwi);
             stage.show();
+            reportFirstFrame();
+            fxmlLoader.<MainWindow>getController().loadKiwi(Main::createKiwi, () -> reportStartup("interactive"));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Creates Kiwi with bye wired to exit the JavaFX application.
+     *
+     * @return a Kiwi instance with its tasks loaded
+     */
+    private static Kiwi createKiwi() {
+        Kiwi kiwi = new Kiwi();
+        kiwi.setOnExit(Platform::exit);
+        return kiwi;
+    }
+
+    /**
+     * Reports time to first frame on the first animation pulse after the stage is shown.
+     */
+    private void reportFirstFrame() {
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                reportStartup("first frame");
+            }
+        }.start();
+    }
+
+    private static void reportStartup(String milestone) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        System.out.println("STARTUP: " + milestone + " after " + uptime + " ms");
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
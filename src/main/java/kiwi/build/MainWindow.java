@@ -1,43 +1,89 @@
 package kiwi.build;
 
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.image.PixelWriter;
 import javafx.scene.image.WritableImage;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundImage;
 import javafx.scene.layout.BackgroundPosition;
 import javafx.scene.layout.BackgroundRepeat;
 import javafx.scene.layout.BackgroundSize;
-import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
+import kiwi.helper.TaskPages;
 
 
 /**
  * Controller for the main GUI.
+ *
+ * The chat history is a virtualized ListView of {@link ChatMessage} objects,
+ * so the number of bubble nodes depends on the window height, not on how many
+ * messages the session has produced.
+ *
+ * Commands run on a single background thread so a slow find or save never
+ * blocks the JavaFX Application Thread. One thread keeps commands in the order
+ * they were sent and means Kiwi's task list is only ever touched by that thread.
+ * Autocompletion is the one exception: suggestions are looked up on the FX
+ * thread as the user types, in prefix trees that are safe to read concurrently.
  */
 public class MainWindow extends AnchorPane {
 
     private static final int AVATAR_SIZE = 80;
 
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<ChatMessage> dialogContainer;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator busyIndicator;
 
+    /** Created on the command thread by {@link #loadKiwi} and only used there. */
     private Kiwi kiwi;
 
     private Image userImage;
     private Image kiwiImage;
 
+    /** Every message of the session, in order. */
+    private final ObservableList<ChatMessage> messages = FXCollections.observableArrayList();
+
+    /** Runs Kiwi commands one at a time, in submission order, off the FX thread. */
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kiwi-command");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Commands submitted but not yet answered; only read and written on the FX thread. */
+    private int pendingCommands;
+
+    /** Looks up completions for the input; set on the FX thread once Kiwi has loaded. */
+    private Function<String, List<String>> completer;
+
+    /** Completions for the current input, shown below the input field. */
+    private final ContextMenu suggestions = new ContextMenu();
+
     /**
      * Initializes the main window.
      */
@@ -46,22 +92,124 @@ public class MainWindow extends AnchorPane {
         loadImages();
         setBackgroundImage();
 
-        // Make ScrollPane transparent
-        scrollPane.setStyle(
-            "-fx-background-color: transparent !important;"
-            + "-fx-background: transparent !important;"
-            + "-fx-control-inner-background: transparent !important;"
-        );
+        dialogContainer.setItems(messages);
+        dialogContainer.setCellFactory(list -> new ChatCell(userImage, kiwiImage, this::loadMore));
+
+        userInput.textProperty().addListener((observable, oldText, newText) -> showSuggestions(newText));
+        userInput.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.TAB && suggestions.isShowing()) {
+                suggestions.getItems().get(0).fire();
+                event.consume();
+            } else if (event.getCode() == KeyCode.ESCAPE) {
+                suggestions.hide();
+            }
+        });
+    }
+
+    /**
+     * Shows completions of the typed text below the input field, or hides them if there are none.
+     *
+     * Tab or a click takes a suggestion; Escape dismisses them.
+     *
+     * @param text the current input
+     */
+    private void showSuggestions(String text) {
+        List<String> completions = completer == null ? List.of() : completer.apply(text);
+        if (completions.isEmpty()) {
+            suggestions.hide();
+            return;
+        }
+
+        suggestions.getItems().clear();
+        for (String completion : completions) {
+            MenuItem item = new MenuItem(completion);
+            item.setOnAction(event -> {
+                userInput.setText(completion);
+                userInput.end();
+            });
+            suggestions.getItems().add(item);
+        }
+        if (!suggestions.isShowing()) {
+            suggestions.show(userInput, Side.BOTTOM, 0, 0);
+        }
+    }
 
-        // VBox should grow to fill available space
-        VBox.setVgrow(dialogContainer, javafx.scene.layout.Priority.ALWAYS);
+    /**
+     * Appends messages to the chat and scrolls to the newest one.
+     *
+     * @param newMessages the messages to show
+     */
+    private void addMessages(ChatMessage... newMessages) {
+        messages.addAll(newMessages);
+        dialogContainer.scrollTo(messages.size() - 1);
+    }
 
-        // Auto-scroll to bottom when new content is added
-        dialogContainer.heightProperty().addListener((obs, oldVal, newVal) -> {
-            scrollPane.setVvalue(1.0);
+    /**
+     * Runs a command on the command thread and hands the response back on the FX thread.
+     *
+     * @param input the command to run
+     * @param onResponse called on the FX thread with Kiwi's reply
+     */
+    private void runCommand(String input, Consumer<ChatMessage> onResponse) {
+        runInBackground(() -> {
+            if (kiwi == null) {
+                return ChatMessage.fromKiwi("Your tasks could not be loaded. Please restart Kiwi.");
+            }
+            return ChatMessage.fromKiwi(kiwi.getResponse(input), kiwi.takeMorePages());
+        }, onResponse);
+    }
+
+    /**
+     * Shows the next page of a paged reply and removes the link from the message it came from.
+     *
+     * Pages are formatted on the command thread, after any commands already queued.
+     *
+     * @param message the message whose "load more" link was clicked
+     */
+    private void loadMore(ChatMessage message) {
+        int index = messages.indexOf(message);
+        if (index < 0 || !message.hasMore()) {
+            return;
+        }
+        messages.set(index, ChatMessage.fromKiwi(message.getText()));
+
+        TaskPages pages = message.getMorePages();
+        runInBackground(() -> ChatMessage.fromKiwi(pages.next(), pages), this::addMessages);
+    }
+
+    /**
+     * Builds a reply on the command thread and hands it back on the FX thread.
+     *
+     * @param work produces Kiwi's reply; runs on the command thread
+     * @param onResponse called on the FX thread with the reply
+     */
+    private void runInBackground(Supplier<ChatMessage> work, Consumer<ChatMessage> onResponse) {
+        setPending(pendingCommands + 1);
+        commandExecutor.execute(() -> {
+            ChatMessage reply;
+            try {
+                reply = work.get();
+            } catch (RuntimeException e) {
+                reply = ChatMessage.fromKiwi("Something went wrong: " + e.getMessage());
+            }
+            ChatMessage finalReply = reply;
+            Platform.runLater(() -> {
+                onResponse.accept(finalReply);
+                setPending(pendingCommands - 1);
+            });
         });
     }
 
+    /**
+     * Updates the in-flight count and shows the busy indicator while it is non-zero.
+     *
+     * @param count the new number of pending commands
+     */
+    private void setPending(int count) {
+        pendingCommands = count;
+        busyIndicator.setVisible(count > 0);
+    }
+
 
     /**
      * Sets the background image for the main window.
@@ -93,7 +241,11 @@ public class MainWindow extends AnchorPane {
             this.setBackground(new Background(bgImage));
 
             // Make dialogContainer transparent so background shows
-            dialogContainer.setStyle("-fx-background-color: transparent;");
+            dialogContainer.setStyle(
+                "-fx-background-color: transparent;"
+                + "-fx-control-inner-background: transparent;"
+                + "-fx-padding: 10;"
+            );
 
             System.out.println("DEBUG: Background set on main AnchorPane");
 
@@ -148,31 +300,49 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Injects the Kiwi instance and displays initial messages.
+     * Shows the welcome message and creates Kiwi on the command thread.
      *
-     * @param k the Kiwi instance
+     * Loading the saved tasks is the first job on the command thread, so the
+     * window can be drawn straight away. Commands typed while loading wait behind
+     * it and run in order once the tasks are ready. A placeholder bubble stands in
+     * for the task list until then.
+     *
+     * @param loader creates Kiwi and loads its tasks; runs on the command thread
+     * @param onReady called on the FX thread once the loaded tasks are shown
      */
-    public void setKiwi(Kiwi k) {
-        kiwi = k;
-
+    public void loadKiwi(Supplier<Kiwi> loader, Runnable onReady) {
         // Display welcome message
         String welcome = "Hello! I'm Kiwi\nWhat can I do for you?";
-        dialogContainer.getChildren().addAll(
-                DialogBox.getKiwiDialog(welcome, kiwiImage)
-        );
-
-        // Display list of loaded tasks
-        String taskList = kiwi.getResponse("list");
-        if (!taskList.isEmpty() && !taskList.contains("No matching tasks")) {
-            dialogContainer.getChildren().addAll(
-                    DialogBox.getKiwiDialog(taskList, kiwiImage)
-            );
-        }
+        ChatMessage placeholder = ChatMessage.fromKiwi("Loading your tasks...");
+        addMessages(ChatMessage.fromKiwi(welcome), placeholder);
+
+        // Display list of loaded tasks in place of the placeholder
+        runInBackground(() -> {
+            kiwi = loader.get();
+            kiwi.startReminders(alert -> Platform.runLater(() -> addMessages(ChatMessage.fromKiwi(alert))));
+            kiwi.enableCompletions();
+            return ChatMessage.fromKiwi(kiwi.getResponse("list"), kiwi.takeMorePages());
+        }, taskList -> {
+            if (kiwi != null) {
+                completer = kiwi::complete;
+            }
+            // Replace the placeholder where it is, above any commands typed while loading
+            int index = messages.indexOf(placeholder);
+            String text = taskList.getText();
+            if (text.isEmpty() || text.contains("No matching tasks")) {
+                messages.remove(placeholder);
+            } else if (index >= 0) {
+                messages.set(index, taskList);
+            } else {
+                addMessages(taskList);
+            }
+            onReady.run();
+        });
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Kiwi's reply
-     * and then appends them to the dialog container. Clears the user input after processing.
+     * Echoes the user's input to the chat history at once and adds Kiwi's reply
+     * when the command finishes in the background. Clears the user input immediately.
      */
     @FXML
     private void handleUserInput() {
@@ -181,15 +351,9 @@ public class MainWindow extends AnchorPane {
             return;
         }
 
-        String response = kiwi.getResponse(input);
-
-        var userDialog = DialogBox.getUserDialog(input, userImage);
-        userDialog.getStyleClass().add("user-dialog");
-
-        var kiwiDialog = DialogBox.getKiwiDialog(response, kiwiImage);
-        kiwiDialog.getStyleClass().add("kiwi-dialog");
-
-        dialogContainer.getChildren().addAll(userDialog, kiwiDialog);
+        addMessages(ChatMessage.fromUser(input));
         userInput.clear();
+        suggestions.hide();
+        runCommand(input, this::addMessages);
     }
 }
@@ -0,0 +1,78 @@
+/**
+ * Repeat intervals for recurring tasks in the Kiwi task manager.
+ *
+ * Each constant owns the keyword typed after /every and the calendar unit it
+ * steps by. The n-th occurrence is always computed from the first one, so a
+ * monthly task on the 31st falls on the last day of shorter months and returns
+ * to the 31st afterwards instead of drifting.
+ *
+ * @author zow1e
+ * @see RecurringTask
+ */
+package kiwi.build;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * How often a recurring task repeats.
+ */
+public enum Recurrence {
+    DAILY("daily", ChronoUnit.DAYS),
+    WEEKLY("weekly", ChronoUnit.WEEKS),
+    MONTHLY("monthly", ChronoUnit.MONTHS);
+
+    private final String keyword;
+    private final ChronoUnit unit;
+
+    Recurrence(String keyword, ChronoUnit unit) {
+        this.keyword = keyword;
+        this.unit = unit;
+    }
+
+    /**
+     * Returns the keyword used in commands and in the storage file.
+     *
+     * @return lowercase keyword (e.g., "weekly")
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Looks up the recurrence for a keyword, ignoring case.
+     *
+     * @param keyword the keyword typed by the user or read from storage
+     * @return the matching recurrence, or null if the keyword is unknown
+     */
+    public static Recurrence fromKeyword(String keyword) {
+        for (Recurrence recurrence : values()) {
+            if (recurrence.keyword.equalsIgnoreCase(keyword)) {
+                return recurrence;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the n-th occurrence after the first.
+     *
+     * @param first the first occurrence
+     * @param n number of intervals to step, 0 for the first occurrence itself
+     * @return the n-th occurrence
+     */
+    LocalDateTime step(LocalDateTime first, long n) {
+        return first.plus(n, unit);
+    }
+
+    /**
+     * Returns a lower bound for the number of whole intervals from the first occurrence to a time.
+     *
+     * @param first the first occurrence
+     * @param time a time after the first occurrence
+     * @return an interval count whose occurrence is not after {@code time}, give or take one month-end clamp
+     */
+    long intervalsBetween(LocalDateTime first, LocalDateTime time) {
+        return unit.between(first, time);
+    }
+}
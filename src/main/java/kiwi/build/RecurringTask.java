@@ -0,0 +1,182 @@
+/**
+ * A deadline or event that repeats daily, weekly or monthly.
+ *
+ * Extends {@link Task} to hold a single recurrence rule: the first occurrence,
+ * the {@link Recurrence} interval and an optional last date. Occurrences are
+ * never stored; they are computed on demand for the range being looked at, so
+ * a daily task for a year is still one task in the list and one line in the
+ * storage file. Marking a recurring task as done ends the whole series.
+ *
+ * @author zow1e
+ * @see Recurrence
+ * @see Deadline
+ * @see Event
+ */
+package kiwi.build;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import kiwi.helper.KiwiException;
+
+/**
+ * Represents a repeating deadline or event as one rule.
+ */
+public class RecurringTask extends Task {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("MMM d yyyy HHmm");
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM d yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HHmm");
+
+    /** How long each occurrence lasts, or null for a recurring deadline. */
+    private final Duration length;
+
+    private final Recurrence recurrence;
+
+    /** Last date an occurrence may fall on, or null if the task repeats forever. */
+    private final LocalDate until;
+
+    /**
+     * Constructs a recurring task.
+     *
+     * @param description the task description (non-empty)
+     * @param first the due time, or start time for an event, of the first occurrence
+     * @param end the end time of the first occurrence for an event, or null for a deadline
+     * @param recurrence how often the task repeats
+     * @param until last date an occurrence may fall on, or null to repeat forever
+     * @throws KiwiException if the end time or last date is before the first occurrence
+     */
+    public RecurringTask(String description, LocalDateTime first, LocalDateTime end, Recurrence recurrence,
+            LocalDate until) throws KiwiException {
+        super(description);
+        if (end != null && end.isBefore(first)) {
+            throw new KiwiException("End time cannot be before start time!!");
+        }
+        if (until != null && until.isBefore(first.toLocalDate())) {
+            throw new KiwiException("Repeating cannot stop before the first occurrence!!");
+        }
+        this.dateTime = first;
+        this.length = end == null ? null : Duration.between(first, end);
+        this.recurrence = recurrence;
+        this.until = until;
+    }
+
+    /**
+     * Returns whether each occurrence is an event rather than a deadline.
+     *
+     * @return true if occurrences have a start and end time
+     */
+    public boolean isEvent() {
+        return length != null;
+    }
+
+    /**
+     * Returns the end time of the first occurrence.
+     *
+     * @return the end time, or null for a recurring deadline
+     */
+    public LocalDateTime getEnd() {
+        return length == null ? null : dateTime.plus(length);
+    }
+
+    /**
+     * Returns how often this task repeats.
+     *
+     * @return the recurrence interval
+     */
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    /**
+     * Returns the last date an occurrence may fall on.
+     *
+     * @return the last date, or null if the task repeats forever
+     */
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    /**
+     * Lazily lists the occurrences that start in a time window.
+     *
+     * Occurrences before the window are skipped arithmetically, so the cost depends
+     * only on how many occurrences fall inside it.
+     *
+     * @param from start of the window (inclusive)
+     * @param to end of the window (exclusive)
+     * @return due or start times of the occurrences in the window, in order
+     */
+    public Stream<LocalDateTime> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        return LongStream.iterate(firstIndexFrom(from), n -> n + 1)
+            .mapToObj(n -> recurrence.step(dateTime, n))
+            .takeWhile(time -> time.isBefore(to) && isWithinUntil(time));
+    }
+
+    /**
+     * Returns the first occurrence strictly after the given time.
+     *
+     * @param time the time to look after
+     * @return the due or start time of that occurrence, or null if the series has ended
+     */
+    public LocalDateTime nextOccurrence(LocalDateTime time) {
+        long n = firstIndexFrom(time);
+        LocalDateTime next = recurrence.step(dateTime, n);
+        if (!next.isAfter(time)) {
+            next = recurrence.step(dateTime, n + 1);
+        }
+        return isWithinUntil(next) ? next : null;
+    }
+
+    /**
+     * Returns the smallest occurrence index whose time is not before the given time.
+     */
+    private long firstIndexFrom(LocalDateTime time) {
+        if (!time.isAfter(dateTime)) {
+            return 0;
+        }
+        long n = Math.max(0, recurrence.intervalsBetween(dateTime, time));
+        while (recurrence.step(dateTime, n).isBefore(time)) {
+            n++;
+        }
+        return n;
+    }
+
+    private boolean isWithinUntil(LocalDateTime time) {
+        return until == null || !time.toLocalDate().isAfter(until);
+    }
+
+    /**
+     * Returns how one occurrence is displayed, in the same form as a one-off deadline or event.
+     *
+     * @param occurrence the due or start time of the occurrence
+     * @return formatted string of that occurrence
+     */
+    public String formatOccurrence(LocalDateTime occurrence) {
+        return (isEvent() ? "[E]" : "[D]") + super.toString() + " (" + formatTime(occurrence) + ")";
+    }
+
+    private String formatTime(LocalDateTime occurrence) {
+        if (!isEvent()) {
+            return "by: " + occurrence.format(DATE_TIME_FORMATTER);
+        }
+        return "at: " + occurrence.format(DATE_FORMATTER) + " " + occurrence.format(TIME_FORMATTER)
+            + " - " + occurrence.plus(length).format(TIME_FORMATTER);
+    }
+
+    /**
+     * Returns a string representation of this recurring task and its rule.
+     *
+     * @return formatted string of the recurring task
+     */
+    @Override
+    public String toString() {
+        String rule = recurrence.getKeyword() + (until == null ? "" : " until " + until.format(DATE_FORMATTER));
+        return "[R]" + (isEvent() ? "[E]" : "[D]") + super.toString()
+            + " (" + formatTime(dateTime) + ", " + rule + ")";
+    }
+}
@@ -10,12 +10,20 @@ package kiwi.build;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Generic task class with description and completion status.
  */
 public class Task {
 
+    /** Most urgent priority level. */
+    public static final int HIGHEST_PRIORITY = 1;
+
+    /** Least urgent priority level. */
+    public static final int LOWEST_PRIORITY = 5;
+
     /** The description of the task. */
     protected String description;
 
@@ -25,6 +33,12 @@ public class Task {
     /** The date/time associated with the task (nullable). */
     protected LocalDateTime dateTime;
 
+    /** The #tags in the description, lowercase and without the '#'. */
+    private final List<String> tags;
+
+    /** Priority from 1 (most urgent) to 5, or 0 if none was given. */
+    private int priority;
+
     /**
      * Constructs a Task with the given description.
      *
@@ -33,6 +47,57 @@ public class Task {
     public Task(String description) {
         this.description = description;
         this.isDone = false;
+        this.tags = parseTags(description);
+    }
+
+    /**
+     * Returns the #tags in a task description.
+     *
+     * A tag is a '#' at the start of a word followed by letters, digits, '-' or '_'.
+     *
+     * @param description the task description
+     * @return distinct lowercase tag names without the '#', in order of appearance
+     */
+    public static List<String> parseTags(String description) {
+        List<String> tags = List.of();
+        int hash = description.indexOf('#');
+        while (hash >= 0) {
+            int end = tagEnd(description, hash + 1);
+            if (end > hash + 1 && (hash == 0 || isSpace(description.charAt(hash - 1)))) {
+                String tag = description.substring(hash + 1, end).toLowerCase();
+                if (tags.isEmpty()) {
+                    tags = new ArrayList<>(2);
+                }
+                if (!tags.contains(tag)) {
+                    tags.add(tag);
+                }
+            }
+            hash = description.indexOf('#', end);
+        }
+        return tags;
+    }
+
+    /**
+     * Returns the end of the tag name starting at {@code start}.
+     *
+     * @param text the text holding the tag
+     * @param start index just after the '#'
+     * @return index of the first character that cannot be part of a tag name
+     */
+    public static int tagEnd(String text, int start) {
+        int end = start;
+        while (end < text.length() && isTagChar(text.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isTagChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
     /**
@@ -44,6 +109,37 @@ public class Task {
         return this.description;
     }
 
+    /**
+     * Returns the #tags written in the description.
+     *
+     * @return distinct lowercase tag names without the '#', in order of appearance
+     */
+    public List<String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Returns the priority of this task.
+     *
+     * @return 1 (most urgent) to 5, or 0 if the task has no priority
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the priority of this task.
+     *
+     * Set it before the task is added to a list, whose queue of next tasks reads it once.
+     *
+     * @param priority 1 (most urgent) to 5, or 0 for none
+     */
+    public void setPriority(int priority) {
+        assert priority == 0 || priority >= HIGHEST_PRIORITY && priority <= LOWEST_PRIORITY
+            : "Priority out of range: " + priority;
+        this.priority = priority;
+    }
+
     /**
      * Returns the status icon representing the task's completion status.
      *
@@ -53,6 +149,15 @@ public class Task {
         return (isDone ? "X" : " ");
     }
 
+    /**
+     * Returns whether this task has been marked as done.
+     *
+     * @return true if the task is done, false otherwise
+     */
+    public boolean isDone() {
+        return this.isDone;
+    }
+
     /**
      * Marks this task as done.
      */
@@ -96,6 +201,6 @@ public class Task {
     @Override
     public String toString() {
         String fullDesc = "[" + getStatusIcon() + "] " + description;
-        return fullDesc;
+        return priority == 0 ? fullDesc : fullDesc + " [P" + priority + "]";
     }
 }
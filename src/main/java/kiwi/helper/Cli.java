@@ -10,7 +10,9 @@
  */
 package kiwi.helper;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 import kiwi.build.Kiwi;
@@ -19,13 +21,16 @@ import kiwi.build.Task;
 /**
  * CLI operations for Kiwi task manager.
  */
-public class Cli {
+public class Cli implements ResponseSink {
 
     private static final String INVALID_IDX_MSG = "Please enter a valid task number\n";
 
     private Ui ui;
     private TaskList tasks;
 
+    /** The only reader of System.in, shared by the command loop and the y/n prompts. */
+    private final Scanner in = new Scanner(System.in);
+
     /**
      * Constructs a CLI instance.
      *
@@ -36,27 +41,134 @@ public class Cli {
         this.ui = new Ui();
     }
 
+    /**
+     * Returns whether another input line is available.
+     *
+     * @return false once standard input is exhausted
+     */
+    public boolean hasNextLine() {
+        return in.hasNextLine();
+    }
+
+    /**
+     * Reads the next input line.
+     *
+     * @return the line, without its line terminator
+     */
+    public String readLine() {
+        return in.nextLine();
+    }
+
+    /**
+     * Reads a y/n answer, treating end of input as no.
+     *
+     * @return true if the user answered y
+     */
+    private boolean readYes() {
+        ui.flush();
+        return in.hasNextLine() && in.nextLine().trim().toLowerCase().equals("y");
+    }
+
     /**
      * Shows the welcome message and initial task list.
      */
     public void showWelcome() {
         ui.showWelcome();
         ui.showTasks(tasks.getTasks());
+        ui.flush();
+    }
+
+    /**
+     * Starts running one command or completion; reminders are held back until {@link #endCommand()}.
+     */
+    public void beginCommand() {
+        ui.beginCommand();
+    }
+
+    /**
+     * Makes the output of the command visible and shows any reminders held back meanwhile.
+     */
+    public void endCommand() {
+        ui.endCommand();
     }
 
     /**
      * Shows help message with all command formats.
      */
+    @Override
     public void showHelp() {
         String helpMessage = Ui.formatHelpMessage();
-        System.out.println(helpMessage);
+        ui.println(helpMessage);
+    }
+
+    /**
+     * Shows how a query would be answered.
+     *
+     * @param plan the plan described one step per line
+     */
+    @Override
+    public void showQueryPlan(String plan) {
+        ui.showQueryPlan(plan);
+    }
+
+    /**
+     * Shows the latency report for this session.
+     *
+     * @param report the formatted metrics report
+     */
+    @Override
+    public void showStats(String report) {
+        ui.println(report);
+    }
+
+    /**
+     * Starts keeping a copy of the console output.
+     */
+    @Override
+    public void startRecording() {
+        ui.startRecording();
+    }
+
+    /**
+     * Stops keeping a copy of the console output.
+     *
+     * @return the output since recording started
+     */
+    @Override
+    public RenderedResponse stopRecording() {
+        return new RenderedResponse(ui.stopRecording(), null);
+    }
+
+    /**
+     * Prints a recorded response again.
+     *
+     * @param response the recorded response
+     */
+    @Override
+    public void replay(RenderedResponse response) {
+        ui.print(response.getText());
     }
 
     /**
      * Shows all tasks in the list.
+     *
+     * @param taskList the tasks to show
      */
-    public void listTasks() {
-        ui.showTasks(tasks.getTasks());
+    @Override
+    public void showTasks(ArrayList<Task> taskList) {
+        ui.showTasks(taskList);
+    }
+
+    /**
+     * Shows the occurrences in a window of days.
+     *
+     * @param occurrences the occurrences to show
+     * @param first first day of the window
+     * @param last last day of the window
+     */
+    @Override
+    public void showSchedule(ArrayList<TaskList.Occurrence> occurrences, LocalDate first, LocalDate last) {
+        ui.showSchedule(occurrences, first, last);
     }
 
     /**
@@ -64,6 +176,7 @@ public class Cli {
      *
      * @param task the task that was added
      */
+    @Override
     public void showAddedTask(Task task) {
         ui.showAddTask(task, tasks.size());
     }
@@ -73,6 +186,7 @@ public class Cli {
      *
      * @param task the task that was marked
      */
+    @Override
     public void showMarkedTask(Task task) {
         ui.showMarked(task);
     }
@@ -82,6 +196,7 @@ public class Cli {
      *
      * @param task the task that was unmarked
      */
+    @Override
     public void showUnmarkedTask(Task task) {
         ui.showUnmarked(task);
     }
@@ -91,22 +206,129 @@ public class Cli {
      *
      * @param task the task that was deleted
      */
+    @Override
     public void showDeletedTask(Task task) {
         ui.showDeleted(task, tasks.size());
     }
 
+    /**
+     * Shows tasks marked by a bulk mark command.
+     *
+     * @param marked the tasks that were marked
+     */
+    @Override
+    public void showMarkedTasks(ArrayList<Task> marked) {
+        ui.showMarkedAll(marked);
+    }
+
+    /**
+     * Shows tasks unmarked by a bulk unmark command.
+     *
+     * @param unmarked the tasks that were unmarked
+     */
+    @Override
+    public void showUnmarkedTasks(ArrayList<Task> unmarked) {
+        ui.showUnmarkedAll(unmarked);
+    }
+
+    /**
+     * Shows tasks removed by a bulk delete command.
+     *
+     * @param deleted the tasks that were deleted
+     */
+    @Override
+    public void showDeletedTasks(ArrayList<Task> deleted) {
+        ui.showDeletedAll(deleted, tasks.size());
+    }
+
+    /**
+     * Shows a reminder for an upcoming task as soon as no command is running.
+     *
+     * Called on the reminder thread. A reminder that fires while a command runs or
+     * waits for a y/n answer is shown once {@link #endCommand()} is called.
+     *
+     * @param alert the reminder text
+     */
+    public void showReminder(String alert) {
+        ui.showReminder(alert);
+    }
+
+    /**
+     * Shows completions asked for by ending a line with a Tab.
+     *
+     * @param completions the completed input lines
+     */
+    public void showCompletions(List<String> completions) {
+        ui.showCompletions(completions);
+    }
+
+    /**
+     * Shows import progress while a large file is being read.
+     *
+     * @param message the progress line
+     */
+    @Override
+    public void showProgress(String message) {
+        ui.println(message);
+        ui.flush();
+    }
+
+    /**
+     * Shows the outcome of an import.
+     *
+     * @param report counts from the finished import
+     */
+    @Override
+    public void showImported(TaskTransfer.Report report) {
+        ui.showImported(report, tasks.size());
+    }
+
+    /**
+     * Shows the outcome of an export.
+     *
+     * @param count number of tasks written
+     * @param file the file written to
+     */
+    @Override
+    public void showExported(int count, String file) {
+        ui.showExported(count, file);
+    }
+
     /**
      * Shows matching tasks from a find operation.
      *
      * @param matchingTasks the tasks that matched the search
      */
+    @Override
     public void showMatchingTasks(ArrayList<Task> matchingTasks) {
         ui.showMatchingTasks(matchingTasks);
     }
 
+    /**
+     * Shows the whole task list in a sort order.
+     *
+     * @param sorted a read-only view of the tasks in that order
+     * @param order the order of the view
+     */
+    @Override
+    public void showSortedTasks(List<Task> sorted, SortOrder order) {
+        ui.showSortedTasks(sorted, order);
+    }
+
+    /**
+     * Shows the undone tasks to do next.
+     *
+     * @param next the tasks, most urgent first
+     */
+    @Override
+    public void showNextTasks(ArrayList<Task> next) {
+        ui.showNextTasks(next);
+    }
+
     /**
      * Shows the goodbye message.
      */
+    @Override
     public void showBye() {
         ui.showBye();
     }
@@ -116,15 +338,17 @@ public class Cli {
      *
      * @param message the error message
      */
+    @Override
     public void showError(String message) {
-        System.err.println(message + "\nPlease retry\n");
+        ui.showError(message + "\nPlease retry\n");
     }
 
     /**
      * Shows an error for invalid index.
      */
+    @Override
     public void showInvalidIndexError() {
-        System.err.println(INVALID_IDX_MSG);
+        ui.showError(INVALID_IDX_MSG);
     }
 
     /**
@@ -133,15 +357,21 @@ public class Cli {
      * @param existing the existing task with duplicate description
      * @return true if user wants to replace, false otherwise
      */
-    public boolean askReplaceDuplicate(Task existing) {
-        System.out.println("!! Duplicate task found: " + existing);
-        System.out.print("Replace with new task? [y/n]: ");
-
-        Scanner scanner = new Scanner(System.in);
-        String choice = scanner.nextLine().trim().toLowerCase();
-        scanner.close();
+    @Override
+    public boolean confirmReplaceDuplicate(Task existing) {
+        ui.println("!! Duplicate task found: " + existing);
+        ui.print("Replace with new task? [y/n]: ");
+        return readYes();
+    }
 
-        return choice.equals("y");
+    /**
+     * Shows that the new task was not added.
+     *
+     * @param existing the task kept in the list
+     */
+    @Override
+    public void showDuplicateKept(Task existing) {
+        ui.println("Kept the existing task, nothing was added:\n" + existing + "\n");
     }
 
     /**
@@ -149,31 +379,30 @@ public class Cli {
      *
      * @return true if user confirms, false otherwise
      */
-    public boolean askConfirmClear() {
+    @Override
+    public boolean confirmClear() {
         if (tasks.getTasks().isEmpty()) {
-            System.out.println("Task list is already empty!\n");
+            ui.println("Task list is already empty!\n");
             return false;
         }
 
-        System.out.print("Are you sure you want to delete all tasks? [y/n]: ");
-        Scanner scanner = new Scanner(System.in);
-        String choice = scanner.nextLine().trim().toLowerCase();
-        scanner.close();
-
-        return choice.equals("y");
+        ui.print("Are you sure you want to delete all tasks? [y/n]: ");
+        return readYes();
     }
 
     /**
      * Shows confirmation that all tasks were cleared.
      */
+    @Override
     public void showTasksCleared() {
-        System.out.println("All tasks have been cleared!\n");
+        ui.println("All tasks have been cleared!\n");
     }
 
     /**
      * Shows message when clear is cancelled.
      */
+    @Override
     public void showClearCancelled() {
-        System.out.println("Clear cancelled.\n");
+        ui.println("Clear cancelled.\n");
     }
 }
@@ -0,0 +1,60 @@
+/**
+ * Flight Recorder event for one command executed by the Kiwi task manager.
+ *
+ * Covers parsing and execution of a CLI or GUI command, so recordings taken with
+ * {@code jcmd <pid> JFR.start} can tie GC and allocation spikes to commands.
+ * When no recording is running the event is never committed and costs close to nothing.
+ *
+ * @author zow1e
+ * @see TaskFileEvent
+ * @see FindEvent
+ */
+package kiwi.helper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Duration and outcome of a single command.
+ */
+@Name("kiwi.Command")
+@Label("Kiwi Command")
+@Category("Kiwi")
+@Description("Parsing and execution of one command")
+public class CommandEvent extends Event {
+
+    @Label("Command")
+    private String command;
+
+    @Label("Front End")
+    private String frontEnd;
+
+    @Label("Task Count")
+    @Description("Number of tasks in the list after the command")
+    private int taskCount;
+
+    @Label("Failed")
+    private boolean failed;
+
+    /**
+     * Ends the event and commits it if a recording wants it.
+     *
+     * @param command the command keyword, or "unknown" if parsing failed
+     * @param frontEnd the front end that issued the command (e.g., "Cli")
+     * @param taskCount number of tasks after the command
+     * @param failed true if the command reported an error
+     */
+    public void complete(String command, String frontEnd, int taskCount, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.command = command;
+            this.frontEnd = frontEnd;
+            this.taskCount = taskCount;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
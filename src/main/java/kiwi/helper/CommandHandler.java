@@ -0,0 +1,25 @@
+/**
+ * Handler for a single Kiwi command type.
+ *
+ * @author zow1e
+ * @see CommandType
+ * @see ResponseSink
+ */
+package kiwi.helper;
+
+/**
+ * Executes one parsed command and reports the result to a sink.
+ */
+@FunctionalInterface
+public interface CommandHandler {
+
+    /**
+     * Executes the command.
+     *
+     * @param command the parsed command
+     * @param sink where results are rendered
+     * @return false if the session should end, true otherwise
+     * @throws KiwiException if the command fails
+     */
+    boolean handle(Parser command, ResponseSink sink) throws KiwiException;
+}
@@ -0,0 +1,92 @@
+/**
+ * Enumerates every command understood by the Kiwi task manager.
+ *
+ * Each constant owns the keyword typed by the user. {@link Parser} resolves the
+ * keyword once and the resulting constant is used as the key for command dispatch,
+ * so no other component needs to compare command strings.
+ *
+ * @author zow1e
+ * @see Parser
+ */
+package kiwi.helper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Typed command kinds produced by the Parser.
+ */
+public enum CommandType {
+    TODO("todo"),
+    DEADLINE("deadline"),
+    EVENT("event"),
+    LIST("list"),
+    FIND("find"),
+    NEXT("next"),
+    QUERY("query"),
+    EXPLAIN("explain"),
+    MARK("mark"),
+    UNMARK("unmark"),
+    DELETE("delete"),
+    IMPORT("import"),
+    EXPORT("export"),
+    HELP("help"),
+    CLEAR("clear"),
+    STATS("stats"),
+    BYE("bye");
+
+    private static final Map<String, CommandType> BY_KEYWORD = new HashMap<>();
+
+    private static final CommandType[] ALL = values();
+
+    static {
+        for (CommandType type : ALL) {
+            BY_KEYWORD.put(type.keyword, type);
+        }
+    }
+
+    private final String keyword;
+
+    CommandType(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * Returns the keyword that invokes this command.
+     *
+     * @return lowercase command keyword (e.g., "todo")
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Looks up the command for a lowercase keyword.
+     *
+     * @param keyword the lowercase keyword typed by the user
+     * @return the matching command, or null if the keyword is unknown
+     */
+    public static CommandType fromKeyword(String keyword) {
+        return BY_KEYWORD.get(keyword);
+    }
+
+    /**
+     * Looks up the command whose keyword equals, ignoring case, the given region of the input.
+     *
+     * Lets the parser resolve the command without first copying and lowercasing it.
+     *
+     * @param input the raw input line
+     * @param start start index of the keyword (inclusive)
+     * @param end end index of the keyword (exclusive)
+     * @return the matching command, or null if the keyword is unknown
+     */
+    public static CommandType fromKeyword(String input, int start, int end) {
+        int length = end - start;
+        for (CommandType type : ALL) {
+            if (type.keyword.length() == length && input.regionMatches(true, start, type.keyword, 0, length)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
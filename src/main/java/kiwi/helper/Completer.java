@@ -0,0 +1,96 @@
+/**
+ * Autocompletion of typed commands for the Kiwi task manager.
+ *
+ * While the first word is being typed, it is completed against the command
+ * keywords. After todo, deadline, event or find, the rest of the line is
+ * completed against the descriptions of existing tasks. Both are looked up in a
+ * {@link PrefixTree}: the keywords in a fixed one, the descriptions in the one
+ * kept up to date by {@link TaskList}, so each lookup only walks the typed prefix.
+ *
+ * @author zow1e
+ * @see PrefixTree
+ * @see TaskList#completeDescription(String, int)
+ */
+package kiwi.helper;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Suggests whole input lines for a partially typed command.
+ */
+public class Completer {
+
+    /** Maximum number of suggestions returned for one lookup. */
+    public static final int LIMIT = 8;
+
+    private static final PrefixTree KEYWORDS = new PrefixTree();
+
+    /** Commands followed by a task description. */
+    private static final EnumSet<CommandType> DESCRIBED =
+        EnumSet.of(CommandType.TODO, CommandType.DEADLINE, CommandType.EVENT, CommandType.FIND);
+
+    static {
+        for (CommandType type : CommandType.values()) {
+            KEYWORDS.add(type.getKeyword());
+        }
+    }
+
+    private final TaskList tasks;
+
+    /**
+     * Creates a completer for the given task list.
+     *
+     * @param tasks the tasks whose descriptions are suggested
+     */
+    public Completer(TaskList tasks) {
+        this.tasks = tasks;
+    }
+
+    /**
+     * Returns input lines that complete what has been typed so far.
+     *
+     * Suggestions equal to the input itself are left out, so a fully typed
+     * command produces no suggestions.
+     *
+     * @param input the partially typed command
+     * @return up to {@link #LIMIT} completed lines, in alphabetical order
+     */
+    public List<String> complete(String input) {
+        int start = 0;
+        while (start < input.length() && Character.isWhitespace(input.charAt(start))) {
+            start++;
+        }
+        int space = start;
+        while (space < input.length() && !Character.isWhitespace(input.charAt(space))) {
+            space++;
+        }
+        if (start == input.length()) {
+            return new ArrayList<>();
+        }
+
+        String keyword = input.substring(start, space);
+        if (space == input.length()) {
+            return withoutInput(KEYWORDS.complete(keyword, LIMIT + 1), "", keyword);
+        }
+
+        CommandType type = CommandType.fromKeyword(keyword.toLowerCase());
+        String rest = input.substring(space).stripLeading();
+        if (type == null || !DESCRIBED.contains(type) || rest.isEmpty() || rest.startsWith("~")) {
+            return new ArrayList<>();
+        }
+        return withoutInput(tasks.completeDescription(rest, LIMIT + 1), keyword + " ", keyword + " " + rest);
+    }
+
+    private static List<String> withoutInput(List<String> suggestions, String prefix, String input) {
+        List<String> lines = new ArrayList<>(LIMIT);
+        for (String suggestion : suggestions) {
+            String line = prefix + suggestion;
+            if (!line.equalsIgnoreCase(input) && lines.size() < LIMIT) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
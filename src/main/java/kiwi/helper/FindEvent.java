@@ -0,0 +1,45 @@
+/**
+ * Flight Recorder event for a keyword search over the Kiwi task list.
+ *
+ * @author zow1e
+ * @see TaskList#find(String)
+ * @see CommandEvent
+ */
+package kiwi.helper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Duration and selectivity of one find.
+ */
+@Name("kiwi.Find")
+@Label("Kiwi Find")
+@Category("Kiwi")
+@Description("Scanning the task list for a keyword")
+public class FindEvent extends Event {
+
+    @Label("List Size")
+    private int listSize;
+
+    @Label("Result Count")
+    private int resultCount;
+
+    /**
+     * Ends the event and commits it if a recording wants it.
+     *
+     * @param listSize number of tasks searched
+     * @param resultCount number of matching tasks
+     */
+    public void complete(int listSize, int resultCount) {
+        end();
+        if (shouldCommit()) {
+            this.listSize = listSize;
+            this.resultCount = resultCount;
+            commit();
+        }
+    }
+}
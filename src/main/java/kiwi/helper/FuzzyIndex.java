@@ -0,0 +1,375 @@
+/**
+ * Typo-tolerant word index behind {@code find ~keyword} in the Kiwi task manager.
+ *
+ * Every word of every description is stored once in a trie, with the tasks that
+ * contain it. A search walks the trie while computing one row of the Levenshtein
+ * table per character, and abandons a branch as soon as every entry in the row
+ * exceeds the allowed distance. This acts as a Levenshtein automaton over the
+ * vocabulary: only prefixes within reach of the keyword are visited, however many
+ * tasks or distinct words there are, and no task is compared with the keyword.
+ *
+ * The index is updated as tasks are added and removed. Removed tasks are dropped
+ * from word lists lazily, once most of a list is stale, and empty branches are
+ * pruned, so deleting stays proportional to the words of the deleted task.
+ *
+ * @author zow1e
+ * @see TaskList#findFuzzy(String)
+ */
+package kiwi.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+import kiwi.build.Task;
+
+/**
+ * Trie of description words supporting bounded edit-distance search.
+ */
+class FuzzyIndex {
+
+    private final Node root = new Node();
+
+    /** Live tasks, keyed by identity like TaskList itself, with their insertion order. */
+    private final Map<Task, Entry> entries = new IdentityHashMap<>();
+
+    private long nextSequence;
+
+    /**
+     * Returns the largest edit distance tolerated for a word of the given length.
+     *
+     * Short words must match exactly, words of 3 to 5 characters may have one typo
+     * and longer words two, so short keywords do not match half the vocabulary.
+     *
+     * @param length number of characters in the word
+     * @return the maximum edit distance
+     */
+    static int maxDistanceFor(int length) {
+        return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Splits text into distinct lowercase words of letters and digits.
+     *
+     * @param text a description or keyword
+     * @return the words in order of first appearance
+     */
+    static List<String> wordsOf(String text) {
+        List<String> words = new ArrayList<>(4);
+        String lower = text.toLowerCase();
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean isWordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                String word = lower.substring(start, i);
+                if (!words.contains(word)) {
+                    words.add(word);
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Indexes a task that was appended to the list.
+     *
+     * @param task the added task
+     */
+    void add(Task task) {
+        Entry entry = entries.get(task);
+        if (entry != null) {
+            entry.copies++;
+            return;
+        }
+        entries.put(task, new Entry(nextSequence++));
+        for (String word : wordsOf(task.getDescription())) {
+            Node node = root;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.childOrCreate(word.charAt(i));
+            }
+            if (node.tasks == null) {
+                node.tasks = new ArrayList<>(1);
+            }
+            node.tasks.add(task);
+            node.live++;
+        }
+    }
+
+    /**
+     * Indexes tasks that were appended to the list, in order.
+     *
+     * @param tasks the added tasks
+     */
+    void addAll(Collection<Task> tasks) {
+        tasks.forEach(this::add);
+    }
+
+    /**
+     * Removes a task that was deleted from the list.
+     *
+     * @param task the deleted task
+     */
+    void remove(Task task) {
+        Entry entry = entries.get(task);
+        if (entry == null || --entry.copies > 0) {
+            return;
+        }
+        entries.remove(task);
+        for (String word : wordsOf(task.getDescription())) {
+            release(word);
+        }
+    }
+
+    /**
+     * Removes every task.
+     */
+    void clear() {
+        root.clearChildren();
+        entries.clear();
+    }
+
+    /**
+     * Finds tasks with a word close to every word of the keyword.
+     *
+     * @param keyword one or more words, possibly misspelt
+     * @return matching tasks, closest first and in list order among equally close ones
+     */
+    ArrayList<Task> find(String keyword) {
+        Map<Task, Integer> distances = null;
+        for (String word : wordsOf(keyword)) {
+            Map<Task, Integer> previous = distances;
+            Map<Task, Integer> found = new IdentityHashMap<>();
+            search(word, maxDistanceFor(word.length()), (task, distance) -> {
+                if (entries.containsKey(task) && (previous == null || previous.containsKey(task))) {
+                    found.merge(task, distance, Math::min);
+                }
+            });
+            if (previous != null) {
+                found.replaceAll((task, distance) -> distance + previous.get(task));
+            }
+            distances = found;
+        }
+        if (distances == null) {
+            return new ArrayList<>();
+        }
+
+        // Rank on one precomputed key rather than looking up distance and order on every comparison
+        ArrayList<Match> ranked = new ArrayList<>(distances.size());
+        distances.forEach((task, distance) -> ranked.add(new Match(task, distance, entries.get(task).sequence)));
+        ranked.sort(Comparator.comparingLong(match -> match.rank));
+        ArrayList<Task> matches = new ArrayList<>(ranked.size());
+        ranked.forEach(match -> matches.add(match.task));
+        return matches;
+    }
+
+    /**
+     * Finds the tasks with a description word that contains some text.
+     *
+     * Walks the vocabulary rather than the tasks, counting the tasks of each
+     * matching word so a planner can weigh the result before fetching it. Text of
+     * letters and digits only, as told by {@link #wordsOf(String)}, is contained in
+     * a description exactly when it is contained in one of its words.
+     *
+     * @param text lowercase letters and digits
+     * @return the candidate tasks, fetched in list order when asked for
+     */
+    QueryPlan.Candidates containing(String text) {
+        List<Node> found = new ArrayList<>();
+        collectContaining(root, new StringBuilder(), text, found);
+        int estimate = 0;
+        for (Node node : found) {
+            estimate += node.live;
+        }
+        return new QueryPlan.Candidates(estimate, () -> {
+            ArrayList<Task> tasks = new ArrayList<>();
+            for (Node node : found) {
+                for (Task task : node.tasks) {
+                    if (entries.containsKey(task)) {
+                        tasks.add(task);
+                    }
+                }
+            }
+
+            // A task holding several matching words is reported once per word; keep the first
+            tasks.sort(Comparator.comparingLong(task -> entries.get(task).sequence));
+            ArrayList<Task> distinct = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                if (distinct.isEmpty() || distinct.get(distinct.size() - 1) != task) {
+                    distinct.add(task);
+                }
+            }
+            return distinct;
+        });
+    }
+
+    private void collectContaining(Node node, StringBuilder word, String text, List<Node> found) {
+        if (node.tasks != null && node.live > 0 && word.indexOf(text) >= 0) {
+            found.add(node);
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            word.append(node.keys[i]);
+            collectContaining(node.children[i], word, text, found);
+            word.setLength(word.length() - 1);
+        }
+    }
+
+    /**
+     * Reports every indexed task holding a word within the given distance of {@code word}.
+     *
+     * Tasks may be reported more than once, and removed tasks may still be reported.
+     */
+    private void search(String word, int maxDistance, ObjIntConsumer<Task> visitor) {
+        int[] firstRow = new int[word.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        for (int i = 0; i < root.childCount; i++) {
+            search(root.children[i], root.keys[i], word, firstRow, maxDistance, visitor);
+        }
+    }
+
+    private void search(Node node, char key, String word, int[] previousRow, int maxDistance,
+            ObjIntConsumer<Task> visitor) {
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int replace = previousRow[i - 1] + (word.charAt(i - 1) == key ? 0 : 1);
+            row[i] = Math.min(replace, Math.min(row[i - 1], previousRow[i]) + 1);
+            rowMin = Math.min(rowMin, row[i]);
+        }
+
+        int distance = row[row.length - 1];
+        if (distance <= maxDistance && node.tasks != null) {
+            for (Task task : node.tasks) {
+                visitor.accept(task, distance);
+            }
+        }
+        if (rowMin <= maxDistance) {
+            for (int i = 0; i < node.childCount; i++) {
+                search(node.children[i], node.keys[i], word, row, maxDistance, visitor);
+            }
+        }
+    }
+
+    /**
+     * Drops one task from a word, compacting its task list or pruning its branch when needed.
+     */
+    private void release(String word) {
+        Node[] path = new Node[word.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < word.length(); i++) {
+            path[i + 1] = path[i].child(word.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+
+        Node node = path[word.length()];
+        node.live--;
+        if (node.live <= 0) {
+            node.tasks = null;
+            node.live = 0;
+        } else if (node.live * 2 < node.tasks.size()) {
+            node.tasks.removeIf(task -> !entries.containsKey(task));
+        }
+
+        for (int i = word.length(); i > 0 && path[i].tasks == null && path[i].childCount == 0; i--) {
+            path[i - 1].removeChild(word.charAt(i - 1));
+        }
+    }
+
+    /**
+     * Insertion order and copy count of a task in the list.
+     */
+    private static class Entry {
+        private final long sequence;
+        private int copies = 1;
+
+        Entry(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * A matching task with its sort key: distance in the high bits, insertion order in the low bits.
+     */
+    private static class Match {
+        private final Task task;
+        private final long rank;
+
+        Match(Task task, int distance, long sequence) {
+            this.task = task;
+            this.rank = (long) distance << 48 | sequence;
+        }
+    }
+
+    /**
+     * Trie node; children are kept in small arrays sorted by character.
+     */
+    private static class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+
+        /** Tasks whose description holds the word ending here, possibly with stale entries. */
+        private ArrayList<Task> tasks;
+
+        /** Number of live tasks in {@link #tasks}. */
+        private int live;
+
+        Node child(char key) {
+            int i = Arrays.binarySearch(keys, 0, childCount, key);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char key) {
+            int i = Arrays.binarySearch(keys, 0, childCount, key);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, at, keys, at + 1, childCount - at);
+            System.arraycopy(children, at, children, at + 1, childCount - at);
+            Node child = new Node();
+            keys[at] = key;
+            children[at] = child;
+            childCount++;
+            return child;
+        }
+
+        void removeChild(char key) {
+            int i = Arrays.binarySearch(keys, 0, childCount, key);
+            if (i < 0) {
+                return;
+            }
+            System.arraycopy(keys, i + 1, keys, i, childCount - i - 1);
+            System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+            children[--childCount] = null;
+        }
+
+        void clearChildren() {
+            keys = NO_KEYS;
+            children = NO_CHILDREN;
+            childCount = 0;
+            tasks = null;
+            live = 0;
+        }
+    }
+}
@@ -2,7 +2,11 @@
  * Handles GUI (Graphical User Interface) operations for the Kiwi task manager.
  *
  * Manages response formatting for GUI mode, including text-based output
- * that appears in chat bubbles and application display.
+ * that appears in chat bubbles and application display. As a {@link ResponseSink}
+ * it collects the text of one command's response until it is taken for display.
+ *
+ * This class does not depend on JavaFX; the window supplies how to close itself
+ * through {@link #setOnExit(Runnable)}, so the core can run without the toolkit.
  *
  * @author zow1e
  * @see Kiwi
@@ -10,23 +14,38 @@
  */
 package kiwi.helper;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import javafx.application.Platform;
-import javafx.stage.Stage;
 import kiwi.build.Kiwi;
 import kiwi.build.Task;
 
 /**
  * GUI operations for Kiwi task manager.
  */
-public class Gui {
+public class Gui implements ResponseSink {
+
+    private static final String INVALID_IDX_MSG = "Please enter a valid task number\n";
 
-    private Stage guiStage;
+    /** Closes the window after bye; null if no window is attached. */
+    private Runnable onExit;
     private TaskList tasks;
 
+    /** Response text collected for the command being executed. */
+    private final StringBuilder response = new StringBuilder();
+
+    /** Remaining pages of the last long list or find result, or null if it fit in one page. */
+    private TaskPages morePages;
+
+    /** Length of the response when recording started, or -1 when not recording. */
+    private int recordedFrom = -1;
+
+    /** Whole result behind the paged response being recorded, or null. */
+    private List<Task> recordedPages;
+
     /**
      * Constructs a GUI instance.
      *
@@ -37,12 +56,247 @@ public class Gui {
     }
 
     /**
-     * Sets the GUI stage reference for closing the application.
+     * Sets the action that closes the GUI after a bye command.
      *
-     * @param stage the primary stage of the GUI application
+     * @param onExit closes the application window; may be called from any thread
+     */
+    public void setOnExit(Runnable onExit) {
+        this.onExit = onExit;
+    }
+
+    /**
+     * Returns the response collected since the last call and resets the buffer.
+     *
+     * @return the response text for the last executed command
+     */
+    public String takeResponse() {
+        String text = response.toString();
+        response.setLength(0);
+        return text;
+    }
+
+    /**
+     * Returns the remaining pages of the last response and forgets them.
+     *
+     * @return the unread pages, or null if the last list or find result fit in one page
+     */
+    public TaskPages takeMorePages() {
+        TaskPages pages = morePages;
+        morePages = null;
+        return pages;
+    }
+
+    @Override
+    public void startRecording() {
+        recordedFrom = response.length();
+        recordedPages = null;
+    }
+
+    @Override
+    public RenderedResponse stopRecording() {
+        // Skip the line break respond() put between the earlier text and the recording
+        int from = recordedFrom == 0 || recordedFrom == response.length() ? recordedFrom : recordedFrom + 1;
+        RenderedResponse recorded = new RenderedResponse(response.substring(from), recordedPages);
+        recordedFrom = -1;
+        recordedPages = null;
+        return recorded;
+    }
+
+    /**
+     * Responds with a recorded response; a paged one starts again after its first page.
      */
-    public void setGuiStage(Stage stage) {
-        this.guiStage = stage;
+    @Override
+    public void replay(RenderedResponse recorded) {
+        respond(recorded.getText());
+        if (recorded.getPagedTasks() != null) {
+            morePages = new TaskPages(recorded.getPagedTasks(), TaskPages.PAGE_SIZE, TaskPages.PAGE_SIZE, tasks);
+        }
+    }
+
+    private void respond(String text) {
+        if (response.length() > 0) {
+            response.append('\n');
+        }
+        response.append(text);
+    }
+
+    @Override
+    public void showTasks(ArrayList<Task> taskList) {
+        respondPaged(taskList);
+    }
+
+    @Override
+    public void showSchedule(ArrayList<TaskList.Occurrence> occurrences, LocalDate first, LocalDate last) {
+        respond(Ui.formatSchedule(occurrences, first, last));
+    }
+
+    @Override
+    public void showMatchingTasks(ArrayList<Task> matches) {
+        respondPaged(matches);
+    }
+
+    /**
+     * Responds with the first page of a sorted view.
+     *
+     * The view is not copied, which would cost a pass over the whole list: later
+     * pages read the live view, one page-sized run at a time, until the list changes.
+     */
+    @Override
+    public void showSortedTasks(List<Task> sorted, SortOrder order) {
+        respondPaged(sorted);
+    }
+
+    /**
+     * Responds with the whole list if it fits in one page, otherwise with its first
+     * page, keeping the rest for {@link #takeMorePages()} until the task list changes.
+     *
+     * @param taskList the tasks to show; may be a live view of the task list
+     */
+    private void respondPaged(List<Task> taskList) {
+        if (taskList.size() <= TaskPages.PAGE_SIZE) {
+            respond(formatTasks(taskList.subList(0, taskList.size())));
+            return;
+        }
+        TaskPages pages = new TaskPages(taskList, TaskPages.PAGE_SIZE, 0, tasks);
+        respond(pages.next());
+        morePages = pages;
+        if (recordedFrom >= 0) {
+            recordedPages = taskList;
+        }
+    }
+
+    @Override
+    public void showNextTasks(ArrayList<Task> next) {
+        respond(Ui.formatNextTasks(next));
+    }
+
+    @Override
+    public void showAddedTask(Task task) {
+        respond(formatAddedTask(task));
+    }
+
+    @Override
+    public void showMarkedTask(Task task) {
+        respond(formatMarkedTask(task));
+    }
+
+    @Override
+    public void showUnmarkedTask(Task task) {
+        respond(formatUnmarkedTask(task));
+    }
+
+    @Override
+    public void showDeletedTask(Task task) {
+        respond(formatDeletedTask(task));
+    }
+
+    @Override
+    public void showMarkedTasks(ArrayList<Task> marked) {
+        respond(formatMarkedTasks(marked));
+    }
+
+    @Override
+    public void showUnmarkedTasks(ArrayList<Task> unmarked) {
+        respond(formatUnmarkedTasks(unmarked));
+    }
+
+    @Override
+    public void showDeletedTasks(ArrayList<Task> deleted) {
+        respond(formatDeletedTasks(deleted));
+    }
+
+    /**
+     * Ignores progress lines; the chat only shows the final result.
+     *
+     * @param message the progress line
+     */
+    @Override
+    public void showProgress(String message) {
+    }
+
+    @Override
+    public void showImported(TaskTransfer.Report report) {
+        respond(formatImported(report));
+    }
+
+    @Override
+    public void showExported(int count, String file) {
+        respond(formatExported(count, file));
+    }
+
+    @Override
+    public void showHelp() {
+        respond(formatHelpMessage());
+    }
+
+    @Override
+    public void showQueryPlan(String plan) {
+        respond(plan);
+    }
+
+    @Override
+    public void showStats(String report) {
+        respond(report);
+    }
+
+    /**
+     * Allows clearing without a prompt unless the list is already empty.
+     *
+     * @return true if there is anything to clear
+     */
+    @Override
+    public boolean confirmClear() {
+        if (tasks.getTasks().isEmpty()) {
+            respond("Task list is already empty!");
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void showDuplicateKept(Task existing) {
+        respond("Kept the existing task:\n  " + existing);
+    }
+
+    @Override
+    public void showTasksCleared() {
+        respond("All tasks have been cleared!");
+    }
+
+    /**
+     * Shows nothing extra; the GUI only cancels clearing an empty list,
+     * which {@link #confirmClear()} has already reported.
+     */
+    @Override
+    public void showClearCancelled() {
+    }
+
+    /**
+     * Rejects duplicates; the GUI has no prompt to ask whether to replace.
+     *
+     * @param existing the existing task with the same description
+     * @return never returns normally
+     * @throws KiwiException always, carrying the duplicate message
+     */
+    @Override
+    public boolean confirmReplaceDuplicate(Task existing) throws KiwiException {
+        throw new KiwiException(formatDuplicateMessage(existing));
+    }
+
+    @Override
+    public void showBye() {
+        respond(formatByeMessage());
+        closeApplication();
+    }
+
+    @Override
+    public void showError(String message) {
+        respond(message);
+    }
+
+    @Override
+    public void showInvalidIndexError() {
+        respond(INVALID_IDX_MSG);
     }
 
     /**
@@ -51,7 +305,7 @@ public class Gui {
      * @param taskList the tasks to format
      * @return formatted task list response
      */
-    public String formatTasks(ArrayList<Task> taskList) {
+    public String formatTasks(List<Task> taskList) {
         if (taskList.isEmpty()) {
             return "No matching tasks found.";
         }
@@ -102,25 +356,71 @@ public class Gui {
     }
 
     /**
-     * Formats help message for GUI display.
+     * Formats a response for tasks marked by a bulk command.
      *
-     * @return formatted help message
+     * @param marked the tasks that were marked
+     * @return formatted bulk mark response
      */
-    public String formatHelpMessage() {
-        return Ui.formatHelpMessage();
+    public String formatMarkedTasks(ArrayList<Task> marked) {
+        return marked.stream()
+            .map(Task::toString)
+            .collect(Collectors.joining("\n  ", "Nice! I've marked " + marked.size() + " tasks as done:\n  ", ""));
     }
 
     /**
-     * Formats response for clearing tasks.
+     * Formats a response for tasks unmarked by a bulk command.
      *
-     * @return formatted clear response
+     * @param unmarked the tasks that were unmarked
+     * @return formatted bulk unmark response
      */
-    public String formatClearedTasks() {
-        if (tasks.getTasks().isEmpty()) {
-            return "Task list is already empty!";
-        }
-        tasks.getTasks().clear();
-        return "All tasks have been cleared!";
+    public String formatUnmarkedTasks(ArrayList<Task> unmarked) {
+        return unmarked.stream()
+            .map(Task::toString)
+            .collect(Collectors.joining("\n  ",
+                "OK, I've marked " + unmarked.size() + " tasks as not done yet:\n  ", ""));
+    }
+
+    /**
+     * Formats a response for tasks removed by a bulk command.
+     *
+     * @param deleted the tasks that were deleted
+     * @return formatted bulk delete response
+     */
+    public String formatDeletedTasks(ArrayList<Task> deleted) {
+        return deleted.stream()
+            .map(Task::toString)
+            .collect(Collectors.joining("\n  ", "Noted. I've removed " + deleted.size() + " tasks:\n  ",
+                "\nNow you have " + tasks.size() + " tasks in the list."));
+    }
+
+    /**
+     * Formats a response for a finished import.
+     *
+     * @param report counts from the finished import
+     * @return formatted import response
+     */
+    public String formatImported(TaskTransfer.Report report) {
+        return Ui.formatImportReport(report) + "\nThere are now " + tasks.size() + " tasks in the list";
+    }
+
+    /**
+     * Formats a response for a finished export.
+     *
+     * @param count number of tasks written
+     * @param file the file written to
+     * @return formatted export response
+     */
+    public String formatExported(int count, String file) {
+        return "Exported " + count + " tasks to " + file;
+    }
+
+    /**
+     * Formats help message for GUI display.
+     *
+     * @return formatted help message
+     */
+    public String formatHelpMessage() {
+        return Ui.formatHelpMessage();
     }
 
     /**
@@ -135,13 +435,11 @@ public class Gui {
     }
 
     /**
-     * Closes the GUI stage gracefully.
+     * Closes the GUI gracefully, if one is attached.
      */
     public void closeApplication() {
-        if (guiStage != null) {
-            Platform.runLater(() -> guiStage.close());
-        } else {
-            Platform.exit();
+        if (onExit != null) {
+            onExit.run();
         }
     }
 
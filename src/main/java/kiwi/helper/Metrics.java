@@ -0,0 +1,147 @@
+/**
+ * Metrics registry for the Kiwi task manager.
+ *
+ * Keeps a {@link LatencyHistogram} and an error counter per {@link CommandType},
+ * plus histograms for parsing and for loading and saving the task file. All
+ * histograms are created up front, so recording never allocates or locks and
+ * can stay on in normal use. The counters of the {@link ResultCache} are
+ * reported with the latencies. The {@code stats} command shows the report, and
+ * setting the system property {@value #DUMP_PROPERTY} prints it on exit.
+ *
+ * @author zow1e
+ * @see LatencyHistogram
+ */
+package kiwi.helper;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-command latency histograms and counters.
+ */
+public class Metrics {
+
+    /** System property that, when "true", prints the report when the JVM exits. */
+    public static final String DUMP_PROPERTY = "kiwi.metrics.dump";
+
+    private static final String ROW_FORMAT = "%-9s %8s %7s %9s %9s %9s %9s%n";
+
+    private final Map<CommandType, LatencyHistogram> commands = new EnumMap<>(CommandType.class);
+    private final Map<CommandType, LongAdder> errors = new EnumMap<>(CommandType.class);
+    private final LatencyHistogram parse = new LatencyHistogram();
+    private final LongAdder parseErrors = new LongAdder();
+    private final LatencyHistogram load = new LatencyHistogram();
+    private final LatencyHistogram save = new LatencyHistogram();
+
+    /** Cache whose counters are reported, or null if there is none. */
+    private ResultCache resultCache;
+
+    /**
+     * Creates a registry with an empty histogram for every command type.
+     */
+    public Metrics() {
+        for (CommandType type : CommandType.values()) {
+            commands.put(type, new LatencyHistogram());
+            errors.put(type, new LongAdder());
+        }
+    }
+
+    /**
+     * Records the time taken to parse one input line.
+     *
+     * @param nanos elapsed nanoseconds
+     * @param isError true if the input was rejected
+     */
+    public void recordParse(long nanos, boolean isError) {
+        parse.record(nanos);
+        if (isError) {
+            parseErrors.increment();
+        }
+    }
+
+    /**
+     * Records the time taken to execute one command, excluding parsing.
+     *
+     * @param type the command executed
+     * @param nanos elapsed nanoseconds
+     * @param isError true if the command reported an error
+     */
+    public void recordCommand(CommandType type, long nanos, boolean isError) {
+        commands.get(type).record(nanos);
+        if (isError) {
+            errors.get(type).increment();
+        }
+    }
+
+    /**
+     * Records the time taken to load the task file.
+     *
+     * @param nanos elapsed nanoseconds
+     */
+    public void recordLoad(long nanos) {
+        load.record(nanos);
+    }
+
+    /**
+     * Records the time taken to save the task file.
+     *
+     * @param nanos elapsed nanoseconds
+     */
+    public void recordSave(long nanos) {
+        save.record(nanos);
+    }
+
+    /**
+     * Includes the counters of a result cache in the report.
+     *
+     * @param cache the cache of command responses
+     */
+    public void setResultCache(ResultCache cache) {
+        this.resultCache = cache;
+    }
+
+    /**
+     * Returns the histogram for one command type.
+     *
+     * @param type the command type
+     * @return its latency histogram
+     */
+    public LatencyHistogram getCommandHistogram(CommandType type) {
+        return commands.get(type);
+    }
+
+    /**
+     * Formats every non-empty histogram as a table of counts and latencies in microseconds,
+     * followed by the result cache counters.
+     *
+     * @return the report text
+     */
+    public String format() {
+        StringBuilder report = new StringBuilder("Latency in microseconds:\n");
+        report.append(String.format(ROW_FORMAT, "", "count", "errors", "p50", "p90", "p99", "max"));
+        appendRow(report, "parse", parse, parseErrors.sum());
+        for (CommandType type : CommandType.values()) {
+            appendRow(report, type.getKeyword(), commands.get(type), errors.get(type).sum());
+        }
+        appendRow(report, "load", load, 0);
+        appendRow(report, "save", save, 0);
+        if (resultCache != null) {
+            report.append(resultCache.format());
+        }
+        return report.toString();
+    }
+
+    private static void appendRow(StringBuilder report, String name, LatencyHistogram histogram, long errorCount) {
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        report.append(String.format(ROW_FORMAT, name, histogram.getCount(), errorCount,
+            micros(histogram.getPercentile(50)), micros(histogram.getPercentile(90)),
+            micros(histogram.getPercentile(99)), micros(histogram.getMax())));
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+}
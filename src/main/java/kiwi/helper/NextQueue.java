@@ -0,0 +1,256 @@
+/**
+ * Indexed priority queue behind the {@code next} command of the Kiwi task manager.
+ *
+ * A binary min-heap holds every undone task, ordered by priority (tasks without
+ * one last), then by due or start time (undated tasks last), then by list order.
+ * Each task remembers its position in the heap, so marking, unmarking or deleting
+ * a task moves just that entry up or down in O(log n) instead of re-sorting.
+ *
+ * Reading the top n does not disturb the heap: a second, small heap of candidates
+ * starts at the root and, each time it yields an entry, takes in that entry's two
+ * children. Only about 2n entries are ever compared, however long the list is.
+ *
+ * @author zow1e
+ * @see TaskList#next(int)
+ */
+package kiwi.helper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import kiwi.build.Event;
+import kiwi.build.Task;
+
+/**
+ * Heap of undone tasks in "do next" order.
+ */
+class NextQueue {
+
+    private Entry[] heap = new Entry[16];
+    private int size;
+
+    /** Every task in the list, keyed by identity like TaskList itself. */
+    private final Map<Task, Entry> entries = new IdentityHashMap<>();
+
+    private long nextSequence;
+
+    /**
+     * Queues a task that was appended to the list, unless it is done.
+     *
+     * @param task the added task
+     */
+    void add(Task task) {
+        Entry entry = entries.get(task);
+        if (entry != null) {
+            entry.copies++;
+            return;
+        }
+        entry = new Entry(task, nextSequence++);
+        entries.put(task, entry);
+        if (!task.isDone()) {
+            push(entry);
+        }
+    }
+
+    /**
+     * Queues tasks that were appended to the list, in order.
+     *
+     * Entries are appended first and the heap is then fixed up bottom-up, which
+     * takes linear time for a large batch.
+     *
+     * @param tasks the added tasks
+     */
+    void addAll(Collection<Task> tasks) {
+        for (Task task : tasks) {
+            Entry entry = entries.get(task);
+            if (entry != null) {
+                entry.copies++;
+                continue;
+            }
+            entry = new Entry(task, nextSequence++);
+            entries.put(task, entry);
+            if (!task.isDone()) {
+                append(entry);
+            }
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Drops a task that was deleted from the list.
+     *
+     * @param task the deleted task
+     */
+    void remove(Task task) {
+        Entry entry = entries.get(task);
+        if (entry == null || --entry.copies > 0) {
+            return;
+        }
+        entries.remove(task);
+        if (entry.heapIndex >= 0) {
+            removeAt(entry.heapIndex);
+        }
+    }
+
+    /**
+     * Takes a task out of the queue when it is marked and back in when it is unmarked.
+     *
+     * @param task a task in the list
+     */
+    void updateDone(Task task) {
+        Entry entry = entries.get(task);
+        if (entry == null) {
+            return;
+        }
+        if (task.isDone() && entry.heapIndex >= 0) {
+            removeAt(entry.heapIndex);
+        } else if (!task.isDone() && entry.heapIndex < 0) {
+            push(entry);
+        }
+    }
+
+    /**
+     * Removes every task.
+     */
+    void clear() {
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        entries.clear();
+    }
+
+    /**
+     * Returns the first undone tasks in "do next" order, leaving the queue unchanged.
+     *
+     * @param count the maximum number of tasks to return
+     * @return up to {@code count} tasks, most urgent first
+     */
+    ArrayList<Task> peek(int count) {
+        ArrayList<Task> next = new ArrayList<>(Math.min(count, size));
+        PriorityQueue<Entry> candidates = new PriorityQueue<>(NextQueue::compare);
+        if (size > 0) {
+            candidates.add(heap[0]);
+        }
+        while (next.size() < count && !candidates.isEmpty()) {
+            Entry entry = candidates.poll();
+            next.add(entry.task);
+            int child = 2 * entry.heapIndex + 1;
+            for (int i = child; i <= child + 1 && i < size; i++) {
+                candidates.add(heap[i]);
+            }
+        }
+        return next;
+    }
+
+    private void push(Entry entry) {
+        append(entry);
+        siftUp(size - 1);
+    }
+
+    private void append(Entry entry) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = entry;
+        entry.heapIndex = size++;
+    }
+
+    private void removeAt(int i) {
+        Entry removed = heap[i];
+        removed.heapIndex = -1;
+        Entry last = heap[--size];
+        heap[size] = null;
+        if (i == size) {
+            return;
+        }
+        heap[i] = last;
+        last.heapIndex = i;
+        siftDown(i);
+        if (heap[i] == last) {
+            siftUp(i);
+        }
+    }
+
+    private void siftUp(int i) {
+        Entry entry = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (compare(heap[parent], entry) <= 0) {
+                break;
+            }
+            place(heap[parent], i);
+            i = parent;
+        }
+        place(entry, i);
+    }
+
+    private void siftDown(int i) {
+        Entry entry = heap[i];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (compare(entry, heap[child]) <= 0) {
+                break;
+            }
+            place(heap[child], i);
+            i = child;
+        }
+        place(entry, i);
+    }
+
+    private void place(Entry entry, int i) {
+        heap[i] = entry;
+        entry.heapIndex = i;
+    }
+
+    private static int compare(Entry a, Entry b) {
+        if (a.rank != b.rank) {
+            return Integer.compare(a.rank, b.rank);
+        }
+        if (a.due != b.due) {
+            if (a.due == null || b.due == null) {
+                return a.due == null ? 1 : -1;
+            }
+            int byDue = a.due.compareTo(b.due);
+            if (byDue != 0) {
+                return byDue;
+            }
+        }
+        return Long.compare(a.sequence, b.sequence);
+    }
+
+    /**
+     * A task with its sort key and its current position in the heap.
+     */
+    private static class Entry {
+        private final Task task;
+
+        /** Priority with "none" ranked after the least urgent level. */
+        private final int rank;
+
+        /** Due or start time, or null for undated tasks. */
+        private final LocalDateTime due;
+
+        /** Position in the list relative to other tasks, for ties. */
+        private final long sequence;
+
+        /** Index in the heap, or -1 while the task is done. */
+        private int heapIndex = -1;
+        private int copies = 1;
+
+        Entry(Task task, long sequence) {
+            this.task = task;
+            this.rank = task.getPriority() == 0 ? Task.LOWEST_PRIORITY + 1 : task.getPriority();
+            this.due = task instanceof Event ? ((Event) task).getFrom() : task.getDateTime();
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Fork-join filter behind full scans of large task lists in the Kiwi task manager.
+ *
+ * A list too short to be worth splitting is filtered in a plain loop. A longer
+ * one is cut into consecutive leaves that workers of a {@link ForkJoinPool} test
+ * in parallel, each leaf collecting its own matches; the leaves are then joined
+ * in order, so the result is exactly what the loop would return and the 1-based
+ * numbering of results stays correct.
+ *
+ * How long is long enough depends on the pool: every worker should get at least
+ * one full leaf, since waking a worker for less costs more than it saves. With a
+ * single worker nothing is ever split. Above that, the list is cut into about
+ * four leaves per worker so that workers finishing early can steal the rest.
+ *
+ * @author zow1e
+ * @see TaskList#find(String)
+ * @see QueryPlan
+ */
+package kiwi.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+import kiwi.build.Task;
+
+/**
+ * Order-preserving filter that splits large lists across a fork-join pool.
+ */
+class ParallelScan {
+
+    /** Fewest tasks a leaf holds; a substring test takes tens of nanoseconds, so this is about a millisecond. */
+    static final int MIN_LEAF = 16_384;
+
+    /** Scan over the common pool, shared by every task list. */
+    static final ParallelScan COMMON = new ParallelScan(ForkJoinPool.commonPool(), MIN_LEAF);
+
+    private static final int LEAVES_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+    private final int minLeaf;
+
+    /**
+     * Creates a scan over a pool.
+     *
+     * @param pool the workers to split scans across
+     * @param minLeaf the fewest tasks one worker is given at a time
+     */
+    ParallelScan(ForkJoinPool pool, int minLeaf) {
+        this.pool = pool;
+        this.minLeaf = minLeaf;
+    }
+
+    /**
+     * Returns the list size from which scans are split.
+     *
+     * @return one leaf per worker, or {@link Integer#MAX_VALUE} for a pool with one worker
+     */
+    int threshold() {
+        int workers = pool.getParallelism();
+        return workers <= 1 ? Integer.MAX_VALUE : (int) Math.min(Integer.MAX_VALUE, (long) workers * minLeaf);
+    }
+
+    /**
+     * Returns the tasks that pass a test, in list order.
+     *
+     * The test may run on several threads at once, so it must not change anything;
+     * the list must not change until the scan returns.
+     *
+     * @param tasks a list with fast access by position
+     * @param test the condition to keep a task
+     * @return the passing tasks, in the order of {@code tasks}
+     */
+    ArrayList<Task> filter(List<Task> tasks, Predicate<? super Task> test) {
+        int size = tasks.size();
+        if (size < threshold()) {
+            return filter(tasks, 0, size, test);
+        }
+
+        int leaf = Math.max(minLeaf, ceilDiv(size, pool.getParallelism() * LEAVES_PER_WORKER));
+        // Each leaf sets only its own slot, which needs no locking in a list of fixed size
+        List<ArrayList<Task>> parts = new ArrayList<>(Collections.nCopies(ceilDiv(size, leaf), null));
+        pool.invoke(new Split(tasks, test, parts, leaf, 0, parts.size()));
+
+        int total = 0;
+        for (ArrayList<Task> part : parts) {
+            total += part.size();
+        }
+        ArrayList<Task> matches = new ArrayList<>(total);
+        for (ArrayList<Task> part : parts) {
+            matches.addAll(part);
+        }
+        return matches;
+    }
+
+    private static ArrayList<Task> filter(List<Task> tasks, int from, int to, Predicate<? super Task> test) {
+        ArrayList<Task> matches = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Task task = tasks.get(i);
+            if (test.test(task)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return (a + b - 1) / b;
+    }
+
+    /**
+     * Filters a run of leaves, halving it until one leaf is left.
+     */
+    private static class Split extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Task> tasks;
+        private final Predicate<? super Task> test;
+        private final List<ArrayList<Task>> parts;
+        private final int leaf;
+        private final int first;
+        private final int last;
+
+        Split(List<Task> tasks, Predicate<? super Task> test, List<ArrayList<Task>> parts, int leaf, int first,
+                int last) {
+            this.tasks = tasks;
+            this.test = test;
+            this.parts = parts;
+            this.leaf = leaf;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first == 1) {
+                int from = first * leaf;
+                parts.set(first, filter(tasks, from, Math.min(tasks.size(), from + leaf), test));
+                return;
+            }
+            int middle = (first + last) >>> 1;
+            invokeAll(new Split(tasks, test, parts, leaf, first, middle),
+                new Split(tasks, test, parts, leaf, middle, last));
+        }
+    }
+}
@@ -3,7 +3,23 @@
  *
  * Converts raw user input strings into {@link Parser} objects containing the command
  * type and arguments. Supports all Kiwi commands: todo, deadline, event, list, find,
- * mark, unmark, delete, bye.
+ * mark, unmark, delete, import, export, bye.
+ *
+ * Mark, unmark and delete accept a single number, a list of numbers and ranges
+ * (e.g. "3,7,9-20") or a completion condition ("where done", "where undone").
+ * Deadlines and events may end with a repeat rule ("/every weekly /until 2026-06-30"),
+ * and any new task with a priority ("/p 1"),
+ * and list may be given a window of dates ("/from 2026-03-01 /to 2026-03-31") or
+ * a sort order ("/sort deadline").
+ * A find keyword starting with '~' asks for typo-tolerant matching, and one made of
+ * #tags ("#work #urgent -#done") becomes a {@link TagQuery}. Tags are also read
+ * out of task descriptions, by {@link Task#parseTags(String)}. The conditions of
+ * query and explain are handed to {@link QueryParser}.
+ *
+ * Input is scanned once by hand rather than split with regular expressions: the
+ * parser works on index ranges into the original string and only creates substrings
+ * for the arguments it returns. Dates are parsed once here and handed to the task
+ * constructors as {@link LocalDateTime} values.
  *
  * Validates input format and throws {@link KiwiException} for invalid syntax.
  *
@@ -16,6 +32,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import kiwi.build.Recurrence;
+import kiwi.build.Task;
 
 /**
  * Parse user input into components for easy processing.
@@ -28,14 +51,53 @@ public class Parser {
     private static final DateTimeFormatter DATE_TIME_FORMATTER =
         DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
 
-    private String type;
-    private String[] args;
+    /** Formats the date part used to complete time-only input. */
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final String BY_MARKER = " /by ";
+    private static final String FROM_MARKER = " /from ";
+    private static final String TO_MARKER = " /to ";
+    private static final String EVERY_MARKER = " /every ";
+    private static final String UNTIL_MARKER = " /until ";
+    private static final String WINDOW_FROM = "/from ";
+    private static final String PRIORITY_MARKER = " /p ";
+    private static final String SORT_MARKER = "/sort ";
+
+    /** Number of tasks shown by "next" without a count. */
+    private static final String DEFAULT_NEXT_COUNT = "5";
 
-    private Parser(String type, String... args) {
+    /** Every command keyword, listed when a command is not recognised. */
+    private static final String AVAILABLE_COMMANDS = Arrays.stream(CommandType.values())
+        .map(CommandType::getKeyword)
+        .collect(Collectors.joining(", "));
+
+    private CommandType type;
+    private String[] args;
+    private TaskSelection selection;
+    private LocalDateTime[] dateTimes;
+    private Recurrence recurrence;
+    private LocalDate until;
+    private boolean isFuzzy;
+    private TagQuery tagQuery;
+    private int priority;
+    private SortOrder sortOrder;
+    private Query query;
+
+    private Parser(CommandType type, String... args) {
         this.type = type;
         this.args = args;
     }
 
+    private Parser(CommandType type, TaskSelection selection, String... args) {
+        this(type, args);
+        this.selection = selection;
+    }
+
+    private Parser(CommandType type, LocalDateTime[] dateTimes, String... args) {
+        this(type, args);
+        this.dateTimes = dateTimes;
+    }
+
     /**
      * Parse user input to be handled by different Classes
      *
@@ -43,155 +105,560 @@ public class Parser {
      * @throws KiwiException if input format is invalid
      */
     public static Parser parse(String input) throws KiwiException {
-        String[] parts = input.trim().split("\\s+", 2);
-        String cmd = parts[0].toLowerCase();
+        int end = input.length();
+        while (end > 0 && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int start = 0;
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
 
-        switch (cmd) {
-        case "todo":
-            return parseTodo(parts);
+        int cmdEnd = start;
+        while (cmdEnd < end && !isSpace(input.charAt(cmdEnd))) {
+            cmdEnd++;
+        }
+        int restStart = cmdEnd;
+        while (restStart < end && isSpace(input.charAt(restStart))) {
+            restStart++;
+        }
+        boolean hasRest = cmdEnd < end;
 
-        case "deadline":
-            return parseDeadline(parts);
+        CommandType type = CommandType.fromKeyword(input, start, cmdEnd);
+        if (type == null) {
+            throw new KiwiException("Unknown command: '" + input.substring(start, cmdEnd).toLowerCase() + "'\n"
+                + "Available: " + AVAILABLE_COMMANDS);
+        }
 
-        case "event":
-            return parseEvent(parts);
+        switch (type) {
+        case TODO:
+        case DEADLINE:
+        case EVENT:
+            return parseNewTask(type, input, restStart, end);
 
-        case "list":
-            return new Parser("list");
+        case LIST:
+            return parseList(input, hasRest, restStart, end);
 
-        case "find":
-            return parseFind(parts);
+        case FIND:
+            return parseFind(input, hasRest, restStart, end);
 
-        case "mark":
-        case "unmark":
-        case "delete":
-            return parseIndexCommand(cmd, parts);
+        case NEXT:
+            return parseNext(input, hasRest, restStart, end);
 
-        case "help":
-            return new Parser("help");
+        case QUERY:
+        case EXPLAIN:
+            return parseQuery(type, input, hasRest, restStart, end);
 
-        case "clear":
-            return new Parser("clear");
+        case MARK:
+        case UNMARK:
+        case DELETE:
+            return parseIndexCommand(type, input, hasRest, restStart, end);
 
-        case "bye":
-            return new Parser("bye");
+        case IMPORT:
+        case EXPORT:
+            return parseFileCommand(type, input, hasRest, restStart, end);
 
         default:
-            throw new KiwiException("Unknown command: '" + cmd + "'\n"
-                + "Available: todo, deadline, event, list, find, mark, unmark, delete, bye");
+            return new Parser(type);
+        }
+    }
+
+    /**
+     * Parses a todo, deadline or event, taking an optional "/p N" priority off the end first.
+     *
+     * Only a "/p" followed by a single word that ends the input is a priority, so
+     * "todo read chapter /p 3 of book" keeps "/p 3 of book" in its description.
+     */
+    private static Parser parseNewTask(CommandType type, String input, int start, int end) throws KiwiException {
+        int priority = 0;
+        int marker = input.lastIndexOf(PRIORITY_MARKER, end - 1);
+        if (marker >= 0 && marker >= start - 1 && marker + PRIORITY_MARKER.length() <= end) {
+            String level = slice(input, marker + PRIORITY_MARKER.length(), end);
+            if (level.chars().noneMatch(c -> c <= ' ')) {
+                priority = parsePriority(level);
+                end = marker;
+            }
+        }
+        boolean hasRest = start < end;
+
+        Parser parser;
+        switch (type) {
+        case TODO:
+            parser = parseTodo(input, hasRest, start, end);
+            break;
+        case DEADLINE:
+            parser = parseDeadline(input, hasRest, start, end);
+            break;
+        default:
+            parser = parseEvent(input, hasRest, start, end);
+            break;
+        }
+        parser.priority = priority;
+        return parser;
+    }
+
+    private static int parsePriority(String level) throws KiwiException {
+        String digits = level.length() == 2 && (level.charAt(0) == 'p' || level.charAt(0) == 'P')
+            ? level.substring(1) : level;
+        if (digits.length() != 1 || digits.charAt(0) < '0' + Task.HIGHEST_PRIORITY
+                || digits.charAt(0) > '0' + Task.LOWEST_PRIORITY) {
+            throw new KiwiException("Invalid priority: '" + level + "'\n"
+                + "Priority must be " + Task.HIGHEST_PRIORITY + " (most urgent) to " + Task.LOWEST_PRIORITY
+                + ", e.g. todo fix login /p 1");
         }
+        return digits.charAt(0) - '0';
     }
 
-    private static Parser parseTodo(String[] parts) throws KiwiException {
-        if (parts.length < 2 || parts[1].trim().isEmpty()) {
+    private static Parser parseNext(String input, boolean hasRest, int start, int end) throws KiwiException {
+        String count = hasRest ? slice(input, start, end) : DEFAULT_NEXT_COUNT;
+        boolean isValid = !count.isEmpty() && count.length() <= 6;
+        for (int i = 0; i < count.length() && isValid; i++) {
+            isValid = count.charAt(i) >= '0' && count.charAt(i) <= '9';
+        }
+        if (!isValid || Integer.parseInt(count) == 0) {
+            throw new KiwiException("Invalid count: '" + count + "'\n"
+                + "Usage: next [number of tasks]");
+        }
+        return new Parser(CommandType.NEXT, count);
+    }
+
+    private static Parser parseTodo(String input, boolean hasRest, int start, int end) throws KiwiException {
+        String description = hasRest ? slice(input, start, end) : "";
+        if (description.isEmpty()) {
             throw new KiwiException("Todo description cannot be empty!\n"
                 + "Usage: todo <description>");
         }
-        return new Parser("todo", parts[1].trim());
+        return new Parser(CommandType.TODO, description);
     }
 
-    private static Parser parseDeadline(String[] parts) throws KiwiException {
-        if (parts.length < 2) {
+    private static Parser parseDeadline(String input, boolean hasRest, int start, int end) throws KiwiException {
+        if (!hasRest) {
             throw new KiwiException("Missing deadline details!\n"
                 + "Usage: deadline <description> /by yyyy-MM-dd HHmm");
         }
 
-        String[] dlParts = parts[1].split(" /by ", 2);
-        if (dlParts.length < 2) {
+        int every = indexOf(input, EVERY_MARKER, start, end);
+        int ruleEnd = end;
+        if (every >= 0) {
+            end = every;
+        }
+
+        int by = indexOf(input, BY_MARKER, start, end);
+        if (by < 0) {
             throw new KiwiException("Invalid deadline format!\n"
                 + "Usage: deadline <description> /by yyyy-MM-dd HHmm\n"
                 + "Example: deadline CS2103T /by 2026-02-15 2359");
         }
 
-        validateDateTime(dlParts[1].trim(), "deadline");
-        return new Parser("deadline", dlParts[0].trim(), dlParts[1].trim());
+        String description = slice(input, start, by);
+        String due = slice(input, by + BY_MARKER.length(), end);
+        LocalDateTime dueTime = parseDateTime(due, null, "deadline");
+        Parser parser = new Parser(CommandType.DEADLINE, new LocalDateTime[] {dueTime}, description, due);
+        return every < 0 ? parser : parser.withRecurrence(input, every + EVERY_MARKER.length(), ruleEnd);
     }
 
-    private static Parser parseEvent(String[] parts) throws KiwiException {
-        if (parts.length < 2) {
+    private static Parser parseEvent(String input, boolean hasRest, int start, int end) throws KiwiException {
+        if (!hasRest) {
             throw new KiwiException("Missing event details!\n"
                 + "Usage: event <description> /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm");
         }
 
-        String eventInput = parts[1];
-        if (!eventInput.contains("/from") || !eventInput.contains("/to")) {
+        int every = indexOf(input, EVERY_MARKER, start, end);
+        int ruleEnd = end;
+        if (every >= 0) {
+            end = every;
+        }
+
+        if (indexOf(input, "/from", start, end) < 0 || indexOf(input, "/to", start, end) < 0) {
             throw new KiwiException("Invalid event format!\n"
                 + "Usage: event <description> /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm\n"
                 + "Example: event meeting /from 2026-02-12 1400 /to 2026-02-12 1600");
         }
 
-        String[] evParts = eventInput.split(" /from | /to ", -1);
-        if (evParts.length < 3) {
+        // Cut at every " /from " or " /to ", in order of appearance, keeping the first three pieces
+        int[] cuts = new int[6];
+        int pieces = 0;
+        int pieceStart = start;
+        for (int i = start; i < end && pieces < 3; ) {
+            int markerLength = input.startsWith(FROM_MARKER, i) ? FROM_MARKER.length()
+                : input.startsWith(TO_MARKER, i) ? TO_MARKER.length() : 0;
+            if (markerLength == 0 || i + markerLength > end) {
+                i++;
+                continue;
+            }
+            cuts[2 * pieces] = pieceStart;
+            cuts[2 * pieces + 1] = i;
+            pieces++;
+            i += markerLength;
+            pieceStart = i;
+        }
+        if (pieces < 3) {
+            cuts[2 * pieces] = pieceStart;
+            cuts[2 * pieces + 1] = end;
+            pieces++;
+        }
+
+        if (pieces < 3) {
             throw new KiwiException("Event needs both /from and /to!\n"
                 + "Example: event meeting /from 2026-02-12 1400 /to 2026-02-12 1600");
         }
 
-        validateDateTime(evParts[1].trim(), "event /from");
-        validateDateTime(evParts[2].trim(), "event /to");
-        return new Parser("event", evParts[0].trim(), evParts[1].trim(), evParts[2].trim());
+        String description = slice(input, cuts[0], cuts[1]);
+        String from = slice(input, cuts[2], cuts[3]);
+        String to = slice(input, cuts[4], cuts[5]);
+        LocalDateTime fromTime = parseDateTime(from, null, "event /from");
+        LocalDateTime toTime = parseDateTime(to, fromTime.toLocalDate(), "event /to");
+        Parser parser = new Parser(CommandType.EVENT, new LocalDateTime[] {fromTime, toTime}, description, from, to);
+        return every < 0 ? parser : parser.withRecurrence(input, every + EVERY_MARKER.length(), ruleEnd);
     }
 
-    private static Parser parseFind(String[] parts) throws KiwiException {
-        if (parts.length < 2) {
+    /**
+     * Adds the repeat rule found after " /every " to a parsed deadline or event.
+     *
+     * @param input the raw input line
+     * @param start start of the rule, just after the marker
+     * @param end end of the rule
+     * @return this parser
+     * @throws KiwiException if the interval or last date is invalid
+     */
+    private Parser withRecurrence(String input, int start, int end) throws KiwiException {
+        int untilAt = indexOf(input, UNTIL_MARKER, start, end);
+        String keyword = slice(input, start, untilAt < 0 ? end : untilAt);
+        recurrence = Recurrence.fromKeyword(keyword);
+        if (recurrence == null) {
+            throw new KiwiException("Unknown repeat interval: '" + keyword + "'\n"
+                + "Use: /every daily|weekly|monthly [/until yyyy-MM-dd]");
+        }
+        if (untilAt >= 0) {
+            until = parseDate(slice(input, untilAt + UNTIL_MARKER.length(), end), "/until date");
+        }
+        return this;
+    }
+
+    private static Parser parseList(String input, boolean hasRest, int start, int end) throws KiwiException {
+        if (!hasRest) {
+            return new Parser(CommandType.LIST);
+        }
+        if (input.regionMatches(true, start, SORT_MARKER, 0, SORT_MARKER.length())) {
+            String keyword = slice(input, start + SORT_MARKER.length(), end);
+            Parser parser = new Parser(CommandType.LIST, keyword);
+            parser.sortOrder = SortOrder.fromKeyword(keyword);
+            if (parser.sortOrder == null) {
+                throw new KiwiException("Unknown sort order: '" + keyword + "'\n"
+                    + "Usage: list /sort deadline|created|desc|done");
+            }
+            return parser;
+        }
+
+        int to = indexOf(input, TO_MARKER, start, end);
+        if (!input.regionMatches(true, start, WINDOW_FROM, 0, WINDOW_FROM.length()) || to < 0) {
+            throw new KiwiException("Invalid list window!\n"
+                + "Usage: list /from yyyy-MM-dd /to yyyy-MM-dd");
+        }
+
+        String from = slice(input, start + WINDOW_FROM.length(), to);
+        String last = slice(input, to + TO_MARKER.length(), end);
+        LocalDate fromDate = parseDate(from, "list /from date");
+        LocalDate lastDate = parseDate(last, "list /to date");
+        if (lastDate.isBefore(fromDate)) {
+            throw new KiwiException("The list window cannot end before it starts!");
+        }
+        return new Parser(CommandType.LIST,
+            new LocalDateTime[] {fromDate.atStartOfDay(), lastDate.atStartOfDay()}, from, last);
+    }
+
+    private static Parser parseFind(String input, boolean hasRest, int start, int end) throws KiwiException {
+        if (!hasRest) {
             throw new KiwiException("Find needs a keyword!\nUsage: find <keyword>");
         }
-        return new Parser("find", parts[1].trim());
+        String rest = slice(input, start, end);
+        if (isTagSearch(rest)) {
+            Parser parser = new Parser(CommandType.FIND, rest);
+            parser.tagQuery = parseTagQuery(rest);
+            return parser;
+        }
+        if (input.charAt(start) != '~') {
+            return new Parser(CommandType.FIND, rest);
+        }
+
+        String keyword = slice(input, start + 1, end);
+        if (keyword.isEmpty()) {
+            throw new KiwiException("Fuzzy find needs a keyword after '~'!\nUsage: find ~<keyword>");
+        }
+        Parser parser = new Parser(CommandType.FIND, keyword);
+        parser.isFuzzy = true;
+        return parser;
+    }
+
+    private static Parser parseQuery(CommandType type, String input, boolean hasRest, int start, int end)
+            throws KiwiException {
+        if (!hasRest) {
+            throw new KiwiException("A query needs a condition!\n" + QueryParser.USAGE);
+        }
+        String text = slice(input, start, end);
+        Parser parser = new Parser(type, text);
+        parser.query = QueryParser.parse(text);
+        return parser;
     }
 
-    private static Parser parseIndexCommand(String cmd, String[] parts) throws KiwiException {
-        if (parts.length < 2) {
+    /**
+     * Tells whether every word of a find is a tag term: #tag, #tag|#other or -#tag.
+     * Anything else, such as "issue #1", is searched for as plain text.
+     */
+    private static boolean isTagSearch(String keyword) {
+        List<String> terms = terms(keyword);
+        for (String term : terms) {
+            if (!isTagTerm(term)) {
+                return false;
+            }
+        }
+        return !terms.isEmpty();
+    }
+
+    private static boolean isTagTerm(String term) {
+        String alternatives = term.startsWith("-") ? term.substring(1) : term;
+        for (String alternative : alternatives.split("\\|", -1)) {
+            if (alternative.length() < 2 || alternative.charAt(0) != '#'
+                    || Task.tagEnd(alternative, 1) != alternative.length()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Reads a find made only of tag terms, as checked by {@link #isTagSearch(String)}. */
+    private static TagQuery parseTagQuery(String keyword) throws KiwiException {
+        List<List<String>> required = new ArrayList<>();
+        List<String> excluded = new ArrayList<>();
+        for (String term : terms(keyword)) {
+            boolean isExcluded = term.startsWith("-");
+            List<String> tags = new ArrayList<>();
+            for (String alternative : term.substring(isExcluded ? 1 : 0).split("\\|", -1)) {
+                tags.add(alternative.substring(1).toLowerCase());
+            }
+            if (!isExcluded) {
+                required.add(tags);
+            } else if (tags.size() == 1) {
+                excluded.add(tags.get(0));
+            } else {
+                throw new KiwiException("Only single tags can be excluded: '" + term + "'\n"
+                    + "Usage: find #tag [#tag|#other] [-#tag]");
+            }
+        }
+        return new TagQuery(required, excluded);
+    }
+
+    /** Splits trimmed text into its whitespace-separated words. */
+    private static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || isSpace(text.charAt(i))) {
+                if (i > start) {
+                    terms.add(text.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return terms;
+    }
+
+    private static Parser parseFileCommand(CommandType type, String input, boolean hasRest, int start, int end)
+            throws KiwiException {
+        String cmd = type.getKeyword();
+        String file = hasRest ? slice(input, start, end) : "";
+        if (file.isEmpty()) {
+            throw new KiwiException(cmd.toUpperCase() + " needs a file!\nUsage: " + cmd + " <file.csv|file.ics>");
+        }
+        return new Parser(type, file);
+    }
+
+    private static Parser parseIndexCommand(CommandType type, String input, boolean hasRest, int start, int end)
+            throws KiwiException {
+        String cmd = type.getKeyword();
+        if (!hasRest) {
             throw new KiwiException(cmd.toUpperCase() + " needs task number!\nUsage: " + cmd + " <number>");
         }
 
+        if (input.regionMatches(true, start, "where", 0, "where".length())) {
+            String spec = input.substring(start, end);
+            return new Parser(type, parseCondition(cmd, spec), spec);
+        }
+
+        // Like String.split(","), trailing empty items are ignored
+        int specEnd = end;
+        while (specEnd > start && input.charAt(specEnd - 1) == ',') {
+            specEnd--;
+        }
+
+        int[] bounds = new int[2];
+        int count = 0;
+        int itemStart = start;
+        while (itemStart <= specEnd) {
+            int itemEnd = input.indexOf(',', itemStart);
+            if (itemEnd < 0 || itemEnd > specEnd) {
+                itemEnd = specEnd;
+            }
+
+            int from = itemStart;
+            int to = itemEnd;
+            while (from < to && input.charAt(from) <= ' ') {
+                from++;
+            }
+            while (to > from && input.charAt(to - 1) <= ' ') {
+                to--;
+            }
+            int dash = from + 1 < to ? input.indexOf('-', from + 1) : -1;
+            if (dash >= to) {
+                dash = -1;
+            }
+
+            if (count == bounds.length) {
+                bounds = Arrays.copyOf(bounds, count * 2);
+            }
+            bounds[count] = parseTaskNumber(input, from, dash < 0 ? to : dash, start, end);
+            bounds[count + 1] = dash < 0 ? bounds[count] : parseTaskNumber(input, dash + 1, to, start, end);
+            if (bounds[count] > bounds[count + 1]) {
+                throw new KiwiException("Invalid range: '" + input.substring(from, to) + "'\n"
+                    + "The start must not be after the end.");
+            }
+            count += 2;
+            itemStart = itemEnd + 1;
+        }
+
+        if (count == 2 && bounds[0] == bounds[1]) {
+            return new Parser(type, TaskSelection.ofIndex(bounds[0]), String.valueOf(bounds[0]));
+        }
+        return new Parser(type, TaskSelection.ofRanges(Arrays.copyOf(bounds, count)),
+            input.substring(start, end));
+    }
+
+    private static int parseTaskNumber(String input, int from, int to, int argStart, int argEnd)
+            throws KiwiException {
+        while (from < to && input.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && input.charAt(to - 1) <= ' ') {
+            to--;
+        }
         try {
-            int index = Integer.parseInt(parts[1].trim());
+            int index = Integer.parseInt(input, from, to, 10);
             if (index < 1) {
                 throw new KiwiException("Task number must be 1 or higher!");
             }
-            return new Parser(cmd, String.valueOf(index));
+            return index;
         } catch (NumberFormatException e) {
-            throw new KiwiException("Invalid task number: '" + parts[1] + "'\nEnter a number like '1', '2', etc.");
+            throw new KiwiException("Invalid task number: '" + input.substring(argStart, argEnd)
+                + "'\nEnter a number like '1', '2', etc.");
+        }
+    }
+
+    private static TaskSelection parseCondition(String cmd, String spec) throws KiwiException {
+        String condition = spec.substring("where".length()).trim().toLowerCase();
+        switch (condition) {
+        case "done":
+            return TaskSelection.whereDone(true);
+
+        case "undone":
+            return TaskSelection.whereDone(false);
+
+        default:
+            throw new KiwiException("Unknown condition: '" + condition + "'\n"
+                + "Usage: " + cmd + " where done|undone");
         }
     }
 
     /**
-     * Validates date/time string format.
-     * Accepts: yyyy-MM-dd HHmm (full datetime) or HHmm (time only, assumes today)
+     * Parses and validates a date/time string.
+     * Accepts: yyyy-MM-dd HHmm (full datetime) or HHmm (time only)
      *
-     * @param dateTimeStr the date/time string to validate
+     * @param dateTimeStr the trimmed date/time string
+     * @param baseDate date used for time-only input, or null for today
      * @param context description of where this datetime is used (e.g., "deadline")
+     * @return the parsed date/time
      * @throws KiwiException if format is invalid
      */
-    private static void validateDateTime(String dateTimeStr, String context) throws KiwiException {
-        if (dateTimeStr == null || dateTimeStr.trim().isEmpty()) {
+    private static LocalDateTime parseDateTime(String dateTimeStr, LocalDate baseDate, String context)
+            throws KiwiException {
+        if (dateTimeStr.isEmpty()) {
             throw new KiwiException("Empty " + context + " date/time!");
         }
 
-        String trimmed = dateTimeStr.trim();
-
         try {
             // Try time-only format (HHmm)
-            if (trimmed.length() == 4 && trimmed.matches("\\d{4}")) {
-                String todayStr = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                LocalDateTime.parse(todayStr + " " + trimmed, DATE_TIME_FORMATTER);
-                return;
+            if (isTimeOnly(dateTimeStr)) {
+                LocalDate date = baseDate == null ? LocalDate.now() : baseDate;
+                return LocalDateTime.parse(date.format(DATE_FORMATTER) + " " + dateTimeStr, DATE_TIME_FORMATTER);
             }
 
             // Try full datetime format (yyyy-MM-dd HHmm)
-            LocalDateTime.parse(trimmed, DATE_TIME_FORMATTER);
+            return LocalDateTime.parse(dateTimeStr, DATE_TIME_FORMATTER);
         } catch (DateTimeParseException e) {
-            throw new KiwiException("Invalid " + context + ": '" + trimmed + "'\n"
+            throw new KiwiException("Invalid " + context + ": '" + dateTimeStr + "'\n"
                 + "Use: yyyy-MM-dd HHmm (e.g. 2026-02-15 2359)\n"
                 + "Or:  HHmm (e.g. 2359)");
         }
     }
 
+    static LocalDate parseDate(String dateStr, String context) throws KiwiException {
+        try {
+            return LocalDate.parse(dateStr, DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new KiwiException("Invalid " + context + ": '" + dateStr + "'\n"
+                + "Use: yyyy-MM-dd (e.g. 2026-02-15)");
+        }
+    }
+
+    private static boolean isTimeOnly(String text) {
+        if (text.length() != 4) {
+            return false;
+        }
+        for (int i = 0; i < 4; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Matches the characters of the regex class \s used by the original splitting. */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** Finds {@code marker} fully inside [start, end), or returns -1. */
+    private static int indexOf(String input, String marker, int start, int end) {
+        int found = input.indexOf(marker, start);
+        return found >= 0 && found + marker.length() <= end ? found : -1;
+    }
+
+    /** Returns the trimmed text of [start, end). */
+    private static String slice(String input, int start, int end) {
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return input.substring(start, end);
+    }
+
     /**
      * Returns the command type parsed from user input.
      *
      * @return command type string (e.g., "todo", "list", "bye")
      */
     public String getType() {
+        return type.getKeyword();
+    }
+
+    /**
+     * Returns the typed command parsed from user input, used for dispatch.
+     *
+     * @return the command type
+     */
+    public CommandType getCommandType() {
         return type;
     }
 
@@ -215,5 +682,91 @@ public class Parser {
     public String getArg(int i) {
         return i < args.length ? args[i] : "";
     }
+
+    /**
+     * Returns the tasks targeted by a mark, unmark or delete command.
+     *
+     * @return the parsed selection, or null for commands without one
+     */
+    public TaskSelection getSelection() {
+        return selection;
+    }
+
+    /**
+     * Returns a date/time already parsed from a deadline or event command.
+     *
+     * Deadlines have the due time at index 0; events have /from at 0 and /to at 1,
+     * with a time-only /to resolved against the /from date. A list window has the
+     * start of its first day at 0 and the start of its last day at 1.
+     *
+     * @param i date/time index (0-based)
+     * @return the parsed date/time, or null if the command has none at that index
+     */
+    public LocalDateTime getDateTime(int i) {
+        return dateTimes != null && i < dateTimes.length ? dateTimes[i] : null;
+    }
+
+    /**
+     * Returns whether a find command asked for typo-tolerant matching with '~'.
+     *
+     * @return true for "find ~keyword", whose keyword is returned without the '~'
+     */
+    public boolean isFuzzy() {
+        return isFuzzy;
+    }
+
+    /**
+     * Returns the tag search of a find command made of #tags.
+     *
+     * @return the parsed query, or null if the find is by keyword
+     */
+    public TagQuery getTagQuery() {
+        return tagQuery;
+    }
+
+    /**
+     * Returns the order asked for with "list /sort".
+     *
+     * @return the sort order, or null for a plain or windowed list
+     */
+    public SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    /**
+     * Returns the query of a query or explain command.
+     *
+     * @return the parsed query, or null for other commands
+     */
+    public Query getQuery() {
+        return query;
+    }
+
+    /**
+     * Returns the priority given to a new task with "/p".
+     *
+     * @return 1 (most urgent) to 5, or 0 if none was given
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Returns how often a deadline or event repeats.
+     *
+     * @return the parsed interval, or null if the task does not repeat
+     */
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    /**
+     * Returns the last date a repeating deadline or event may fall on.
+     *
+     * @return the parsed /until date, or null if none was given
+     */
+    public LocalDate getUntil() {
+        return until;
+    }
 }
 
@@ -0,0 +1,239 @@
+/**
+ * Compact prefix tree behind autocompletion in the Kiwi task manager.
+ *
+ * A radix tree: each edge holds a run of characters rather than one, so a
+ * branch only exists where two stored strings diverge and the tree has at most
+ * about twice as many nodes as distinct strings. Keys are lowercase; the text
+ * as first added is what completions return. Children are kept sorted, so a
+ * completion walks down the typed prefix and then takes the first few strings
+ * below it in alphabetical order, without looking at the rest of the tree.
+ *
+ * All methods are synchronized, so completions can be looked up on the UI
+ * thread while commands change the tree on another thread.
+ *
+ * @author zow1e
+ * @see Completer
+ */
+package kiwi.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Thread-safe radix tree of strings, with a count for each repeated string.
+ */
+class PrefixTree {
+
+    private final Node root = new Node("");
+
+    /**
+     * Adds one occurrence of a string.
+     *
+     * @param text the string to add
+     */
+    synchronized void add(String text) {
+        String key = text.toLowerCase();
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.addChild(child);
+                node = child;
+                break;
+            }
+
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                node.replaceChild(split);
+                child.label = child.label.substring(common);
+                split.addChild(child);
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+        if (node.count++ == 0) {
+            node.value = text;
+        }
+    }
+
+    /**
+     * Removes one occurrence of a string, merging nodes that are no longer needed.
+     *
+     * @param text the string to remove; ignored if it is not in the tree
+     */
+    synchronized void remove(String text) {
+        String key = text.toLowerCase();
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            node = node.child(key.charAt(i));
+            if (node == null || !key.startsWith(node.label, i)) {
+                return;
+            }
+            path.add(node);
+            i += node.label.length();
+        }
+        if (node.count == 0) {
+            return;
+        }
+        if (--node.count > 0) {
+            return;
+        }
+        node.value = null;
+
+        int last = path.size() - 1;
+        if (node == root) {
+            return;
+        }
+        Node parent = path.get(last - 1);
+        if (node.childCount == 0) {
+            parent.removeChild(node.label.charAt(0));
+            if (parent != root && parent.value == null && parent.childCount == 1) {
+                mergeWithOnlyChild(path.get(last - 2), parent);
+            }
+        } else if (node.childCount == 1) {
+            mergeWithOnlyChild(parent, node);
+        }
+    }
+
+    /**
+     * Removes every string.
+     */
+    synchronized void clear() {
+        root.children = Node.NO_CHILDREN;
+        root.childCount = 0;
+        root.value = null;
+        root.count = 0;
+    }
+
+    /**
+     * Returns stored strings that start with a prefix, ignoring case.
+     *
+     * @param prefix the typed prefix
+     * @param limit the maximum number of strings to return
+     * @return up to {@code limit} strings in alphabetical order, as first added
+     */
+    synchronized List<String> complete(String prefix, int limit) {
+        String key = prefix.toLowerCase();
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            node = node.child(key.charAt(i));
+            if (node == null) {
+                return new ArrayList<>();
+            }
+            int remaining = key.length() - i;
+            if (node.label.length() >= remaining) {
+                if (!node.label.startsWith(key.substring(i))) {
+                    return new ArrayList<>();
+                }
+                break;
+            }
+            if (!key.startsWith(node.label, i)) {
+                return new ArrayList<>();
+            }
+            i += node.label.length();
+        }
+
+        List<String> completions = new ArrayList<>(limit);
+        collect(node, completions, limit);
+        return completions;
+    }
+
+    private static void collect(Node node, List<String> completions, int limit) {
+        if (node.value != null) {
+            completions.add(node.value);
+        }
+        for (int i = 0; i < node.childCount && completions.size() < limit; i++) {
+            collect(node.children[i], completions, limit);
+        }
+    }
+
+    private static void mergeWithOnlyChild(Node parent, Node node) {
+        Node only = node.children[0];
+        only.label = node.label + only.label;
+        parent.replaceChild(only);
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Radix tree node; children are sorted by the first character of their label.
+     */
+    private static class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        /** Characters on the edge leading to this node. */
+        private String label;
+
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+
+        /** The string ending here as first added, or null if none ends here. */
+        private String value;
+
+        /** How many times the string ending here was added and not removed. */
+        private int count;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int i = indexOf(first);
+            return i >= 0 ? children[i] : null;
+        }
+
+        void addChild(Node child) {
+            int at = -indexOf(child.label.charAt(0)) - 1;
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+            }
+            System.arraycopy(children, at, children, at + 1, childCount - at);
+            children[at] = child;
+            childCount++;
+        }
+
+        /** Replaces the child whose label starts with the same character. */
+        void replaceChild(Node child) {
+            children[indexOf(child.label.charAt(0))] = child;
+        }
+
+        void removeChild(char first) {
+            int i = indexOf(first);
+            System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+            children[--childCount] = null;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+    }
+}
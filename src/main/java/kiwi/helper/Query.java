@@ -0,0 +1,372 @@
+/**
+ * A query over the Kiwi task list, such as {@code query type:D and not done and due:2026-03-01..2026-03-31}.
+ *
+ * A query is a condition built from predicates on the task type, completion,
+ * description text, tags and due or start date, combined with {@code and},
+ * {@code or}, {@code not} and parentheses, optionally followed by
+ * {@code order by} and {@code limit}. Queries are read by {@link QueryParser}
+ * and answered by {@link TaskList#query(Query)}, which plans each one over the
+ * list's indexes before falling back to a scan.
+ *
+ * @author zow1e
+ * @see QueryPlan
+ */
+package kiwi.helper;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import kiwi.build.Deadline;
+import kiwi.build.Event;
+import kiwi.build.RecurringTask;
+import kiwi.build.Task;
+
+/**
+ * Condition, order and limit of a query.
+ */
+public class Query {
+
+    /** Limit of a query without one. */
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final Condition where;
+    private final SortOrder orderBy;
+    private final int limit;
+
+    /**
+     * Creates a query.
+     *
+     * @param where the condition, or null to match every task
+     * @param orderBy the order of the results, or null for list order
+     * @param limit the maximum number of results
+     */
+    Query(Condition where, SortOrder orderBy, int limit) {
+        this.where = where;
+        this.orderBy = orderBy;
+        this.limit = limit;
+    }
+
+    /**
+     * Returns the condition tasks must meet.
+     *
+     * @return the condition, or null if every task matches
+     */
+    public Condition getWhere() {
+        return where;
+    }
+
+    /**
+     * Returns the order of the results.
+     *
+     * @return the order, or null for list order
+     */
+    public SortOrder getOrderBy() {
+        return orderBy;
+    }
+
+    /**
+     * Returns the maximum number of results.
+     *
+     * @return the limit, or {@link #NO_LIMIT}
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Tells whether a task meets the condition.
+     *
+     * @param task a task in the list
+     * @return true if the task matches
+     */
+    public boolean matches(Task task) {
+        return where == null || where.test(task);
+    }
+
+    /**
+     * Returns the query in its normalized written form.
+     *
+     * @return the query as it could be typed after "query"
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(where == null ? "all" : where.toString());
+        if (orderBy != null) {
+            text.append(" order by ").append(orderBy.getKeyword());
+        }
+        if (limit != NO_LIMIT) {
+            text.append(" limit ").append(limit);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Returns the letter of a task's type: T, D or E, recurring tasks by what each occurrence is.
+     *
+     * @param task a task
+     * @return the type letter shown in the task list
+     */
+    static char typeOf(Task task) {
+        if (task instanceof RecurringTask) {
+            return ((RecurringTask) task).isEvent() ? 'E' : 'D';
+        }
+        return task instanceof Event ? 'E' : task instanceof Deadline ? 'D' : 'T';
+    }
+
+    /**
+     * Returns the time a task is due or starts.
+     *
+     * @param task a task
+     * @return the due or start time, or null for undated tasks
+     */
+    static LocalDateTime dueOf(Task task) {
+        return task instanceof Event ? ((Event) task).getFrom() : task.getDateTime();
+    }
+
+    /**
+     * A test on a single task; part of the condition of a query.
+     */
+    public abstract static class Condition {
+        /**
+         * Tells whether a task meets this condition.
+         *
+         * @param task a task in the list
+         * @return true if the task matches
+         */
+        abstract boolean test(Task task);
+    }
+
+    /**
+     * Met when every one of its parts is met.
+     */
+    static class And extends Condition {
+        private final List<Condition> parts;
+
+        And(List<Condition> parts) {
+            this.parts = parts;
+        }
+
+        List<Condition> getParts() {
+            return parts;
+        }
+
+        @Override
+        boolean test(Task task) {
+            for (Condition part : parts) {
+                if (!part.test(task)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return join(parts, " and ");
+        }
+    }
+
+    /**
+     * Met when any one of its parts is met.
+     */
+    static class Or extends Condition {
+        private final List<Condition> parts;
+
+        Or(List<Condition> parts) {
+            this.parts = parts;
+        }
+
+        List<Condition> getParts() {
+            return parts;
+        }
+
+        @Override
+        boolean test(Task task) {
+            for (Condition part : parts) {
+                if (part.test(task)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return join(parts, " or ");
+        }
+    }
+
+    /**
+     * Met when its operand is not.
+     */
+    static class Not extends Condition {
+        private final Condition operand;
+
+        Not(Condition operand) {
+            this.operand = operand;
+        }
+
+        Condition getOperand() {
+            return operand;
+        }
+
+        @Override
+        boolean test(Task task) {
+            return !operand.test(task);
+        }
+
+        @Override
+        public String toString() {
+            return "not " + (operand instanceof And || operand instanceof Or ? "(" + operand + ")" : operand);
+        }
+    }
+
+    /**
+     * Met by tasks of one type.
+     */
+    static class TypeIs extends Condition {
+        private final char type;
+
+        TypeIs(char type) {
+            this.type = type;
+        }
+
+        char getType() {
+            return type;
+        }
+
+        @Override
+        boolean test(Task task) {
+            return typeOf(task) == type;
+        }
+
+        @Override
+        public String toString() {
+            return "type:" + type;
+        }
+    }
+
+    /**
+     * Met by tasks marked as done.
+     */
+    static class IsDone extends Condition {
+        @Override
+        boolean test(Task task) {
+            return task.isDone();
+        }
+
+        @Override
+        public String toString() {
+            return "done";
+        }
+    }
+
+    /**
+     * Met by tasks carrying a tag.
+     */
+    static class HasTag extends Condition {
+        private final String tag;
+
+        HasTag(String tag) {
+            this.tag = tag;
+        }
+
+        String getTag() {
+            return tag;
+        }
+
+        @Override
+        boolean test(Task task) {
+            return task.getTags().contains(tag);
+        }
+
+        @Override
+        public String toString() {
+            return "#" + tag;
+        }
+    }
+
+    /**
+     * Met by tasks whose description contains some text, ignoring case.
+     */
+    static class Contains extends Condition {
+        private final String text;
+
+        Contains(String text) {
+            this.text = text.toLowerCase();
+        }
+
+        String getText() {
+            return text;
+        }
+
+        @Override
+        boolean test(Task task) {
+            return task.getDescription().toLowerCase().contains(text);
+        }
+
+        @Override
+        public String toString() {
+            return "desc:\"" + text + "\"";
+        }
+    }
+
+    /**
+     * Met by tasks due or starting in a window of time; undated tasks never match.
+     * A repeating task matches if any of its occurrences falls in the window.
+     */
+    static class DueBetween extends Condition {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+
+        /**
+         * Creates the window [from, to).
+         *
+         * @param from start of the window, or null for no start
+         * @param to end of the window (exclusive), or null for no end
+         */
+        DueBetween(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        LocalDateTime getFrom() {
+            return from;
+        }
+
+        LocalDateTime getTo() {
+            return to;
+        }
+
+        @Override
+        boolean test(Task task) {
+            if (task instanceof RecurringTask) {
+                return ((RecurringTask) task).occurrencesBetween(from == null ? LocalDateTime.MIN : from,
+                    to == null ? LocalDateTime.MAX : to).findFirst().isPresent();
+            }
+            LocalDateTime due = dueOf(task);
+            return due != null && (from == null || !due.isBefore(from)) && (to == null || due.isBefore(to));
+        }
+
+        @Override
+        public String toString() {
+            return "due:" + (from == null ? "" : from.format(DATE_FORMATTER)) + ".."
+                + (to == null ? "" : to.minusDays(1).format(DATE_FORMATTER));
+        }
+    }
+
+    private static String join(List<Condition> parts, String operator) {
+        StringBuilder text = new StringBuilder();
+        for (Condition part : parts) {
+            if (text.length() > 0) {
+                text.append(operator);
+            }
+            boolean isNested = part instanceof And || part instanceof Or;
+            text.append(isNested ? "(" : "").append(part).append(isNested ? ")" : "");
+        }
+        return text.toString();
+    }
+}
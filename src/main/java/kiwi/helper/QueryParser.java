@@ -0,0 +1,302 @@
+/**
+ * Reads the query language of the {@code query} and {@code explain} commands of the Kiwi task manager.
+ *
+ * <pre>
+ * query     := [condition] [order by deadline|created|desc|done] [limit N]
+ * condition := term (or term)*
+ * term      := factor ([and] factor)*
+ * factor    := not factor | ( condition ) | predicate
+ * predicate := type:T|D|E | done | undone | #tag | due:[yyyy-MM-dd]..[yyyy-MM-dd]
+ *            | desc:text | "text" | text
+ * </pre>
+ *
+ * Keywords are case-insensitive, and terms written next to each other must
+ * both hold, as in a search box. Text in double quotes may hold spaces and
+ * keywords. A due window includes both of its days; either end may be left out.
+ * As in tag searches, {@code #done} means the same as {@code done}.
+ *
+ * @author zow1e
+ * @see Query
+ */
+package kiwi.helper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import kiwi.build.Task;
+
+/**
+ * Recursive-descent parser from query text to {@link Query}.
+ */
+class QueryParser {
+
+    /** Usage shown with every query syntax error. */
+    static final String USAGE = "Usage: query [type:T|D|E] [done|undone] [#tag] [desc:text] "
+        + "[due:yyyy-MM-dd..yyyy-MM-dd]\n"
+        + "  joined with and/or/not and ( ), then [order by deadline|created|desc|done] [limit N]";
+
+    private static final String RANGE = "..";
+
+    private final List<Token> tokens;
+    private int next;
+
+    private QueryParser(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Parses the text typed after "query" or "explain".
+     *
+     * @param text the query text
+     * @return the parsed query
+     * @throws KiwiException if the text is not a valid query
+     */
+    static Query parse(String text) throws KiwiException {
+        return new QueryParser(tokenize(text)).query();
+    }
+
+    private Query query() throws KiwiException {
+        Query.Condition where = null;
+        if (!atEnd() && !isKeyword(peek(), "order") && !isKeyword(peek(), "limit")) {
+            where = condition();
+        }
+        SortOrder orderBy = null;
+        int limit = Query.NO_LIMIT;
+        while (!atEnd()) {
+            Token token = take();
+            if (isKeyword(token, "order") && orderBy == null) {
+                if (atEnd() || !isKeyword(take(), "by") || atEnd()) {
+                    throw error("'order' must be followed by 'by' and an order");
+                }
+                String keyword = take().text;
+                orderBy = SortOrder.fromKeyword(keyword);
+                if (orderBy == null) {
+                    throw error("Unknown sort order: '" + keyword + "'");
+                }
+            } else if (isKeyword(token, "limit") && limit == Query.NO_LIMIT) {
+                limit = parseLimit(atEnd() ? "" : take().text);
+            } else {
+                throw error("Unexpected '" + token.text + "'");
+            }
+        }
+        return new Query(where, orderBy, limit);
+    }
+
+    private Query.Condition condition() throws KiwiException {
+        List<Query.Condition> parts = new ArrayList<>();
+        parts.add(term());
+        while (!atEnd() && isKeyword(peek(), "or")) {
+            take();
+            parts.add(term());
+        }
+        return parts.size() == 1 ? parts.get(0) : new Query.Or(flatten(parts, Query.Or.class));
+    }
+
+    private Query.Condition term() throws KiwiException {
+        List<Query.Condition> parts = new ArrayList<>();
+        parts.add(factor());
+        while (!atEnd() && !isKeyword(peek(), "or") && !isKeyword(peek(), "order")
+                && !isKeyword(peek(), "limit") && !peek().isClose()) {
+            if (isKeyword(peek(), "and")) {
+                take();
+            }
+            parts.add(factor());
+        }
+        return parts.size() == 1 ? parts.get(0) : new Query.And(flatten(parts, Query.And.class));
+    }
+
+    private Query.Condition factor() throws KiwiException {
+        if (atEnd()) {
+            throw error("The condition ends too early");
+        }
+        Token token = take();
+        if (isKeyword(token, "not")) {
+            Query.Condition operand = factor();
+            return operand instanceof Query.Not ? ((Query.Not) operand).getOperand() : new Query.Not(operand);
+        }
+        if (token.isOpen()) {
+            Query.Condition inner = condition();
+            if (atEnd() || !take().isClose()) {
+                throw error("Missing ')'");
+            }
+            return inner;
+        }
+        return predicate(token);
+    }
+
+    private Query.Condition predicate(Token token) throws KiwiException {
+        String text = token.text;
+        if (token.isQuoted && !text.startsWith("desc:")) {
+            return contains(text);
+        }
+        String lower = text.toLowerCase();
+        if (token.isClose() || isKeyword(token, "and") || isKeyword(token, "or")
+                || isKeyword(token, "order") || isKeyword(token, "limit")) {
+            throw error("Expected a condition before '" + text + "'");
+        }
+        if (lower.equals("done")) {
+            return new Query.IsDone();
+        }
+        if (lower.equals("undone")) {
+            return new Query.Not(new Query.IsDone());
+        }
+        if (text.startsWith("#")) {
+            List<String> tags = Task.parseTags(text);
+            if (tags.size() != 1 || tags.get(0).length() != text.length() - 1) {
+                throw error("Invalid tag: '" + text + "'");
+            }
+            return tags.get(0).equals(TagQuery.DONE) ? new Query.IsDone() : new Query.HasTag(tags.get(0));
+        }
+        int colon = text.indexOf(':');
+        if (colon < 0) {
+            return contains(text);
+        }
+        String value = text.substring(colon + 1);
+        switch (lower.substring(0, colon)) {
+        case "type":
+            if (value.length() != 1 || "TDE".indexOf(Character.toUpperCase(value.charAt(0))) < 0) {
+                throw error("Unknown task type: '" + value + "' (use T, D or E)");
+            }
+            return new Query.TypeIs(Character.toUpperCase(value.charAt(0)));
+        case "desc":
+            return contains(value);
+        case "due":
+            return due(value);
+        default:
+            throw error("Unknown field: '" + text.substring(0, colon) + "'");
+        }
+    }
+
+    private static Query.Condition contains(String text) throws KiwiException {
+        if (text.isEmpty()) {
+            throw error("Empty text to search for");
+        }
+        return new Query.Contains(text);
+    }
+
+    /** Parses "A..B", "A..", "..B" or "A" into a window covering whole days. */
+    private static Query.Condition due(String window) throws KiwiException {
+        int range = window.indexOf(RANGE);
+        String first = range < 0 ? window : window.substring(0, range);
+        String last = range < 0 ? window : window.substring(range + RANGE.length());
+        if (first.isEmpty() && last.isEmpty()) {
+            throw error("A due window needs at least one date");
+        }
+        LocalDate firstDate = first.isEmpty() ? null : Parser.parseDate(first, "query due date");
+        LocalDate lastDate = last.isEmpty() ? null : Parser.parseDate(last, "query due date");
+        if (firstDate != null && lastDate != null && lastDate.isBefore(firstDate)) {
+            throw error("The due window cannot end before it starts");
+        }
+        LocalDateTime from = firstDate == null ? null : firstDate.atStartOfDay();
+        LocalDateTime to = lastDate == null ? null : lastDate.plusDays(1).atStartOfDay();
+        return new Query.DueBetween(from, to);
+    }
+
+    private static int parseLimit(String text) throws KiwiException {
+        try {
+            int limit = Integer.parseInt(text);
+            if (limit > 0) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw error("'limit' needs a positive number, not '" + text + "'");
+    }
+
+    /** Merges parts that are themselves of the same kind, so "a and (b and c)" has three parts. */
+    private static List<Query.Condition> flatten(List<Query.Condition> parts, Class<?> kind) {
+        List<Query.Condition> flat = new ArrayList<>(parts.size());
+        for (Query.Condition part : parts) {
+            if (part instanceof Query.And && kind == Query.And.class) {
+                flat.addAll(((Query.And) part).getParts());
+            } else if (part instanceof Query.Or && kind == Query.Or.class) {
+                flat.addAll(((Query.Or) part).getParts());
+            } else {
+                flat.add(part);
+            }
+        }
+        return flat;
+    }
+
+    private boolean atEnd() {
+        return next == tokens.size();
+    }
+
+    private Token peek() {
+        return tokens.get(next);
+    }
+
+    private Token take() {
+        return tokens.get(next++);
+    }
+
+    private static boolean isKeyword(Token token, String keyword) {
+        return !token.isQuoted && token.text.equalsIgnoreCase(keyword);
+    }
+
+    private static KiwiException error(String message) {
+        return new KiwiException("Invalid query: " + message + "\n" + USAGE);
+    }
+
+    /**
+     * Splits query text into words and parentheses; double quotes protect spaces and parentheses.
+     */
+    private static List<Token> tokenize(String text) throws KiwiException {
+        List<Token> tokens = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        boolean isQuoted = false;
+        boolean inQuotes = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (inQuotes && i < text.length()) {
+                if (c == '"') {
+                    inQuotes = false;
+                } else {
+                    word.append(c);
+                }
+            } else if (c == '"' && i < text.length()) {
+                inQuotes = true;
+                isQuoted = true;
+            } else if (c <= ' ' || c == '(' || c == ')') {
+                if (word.length() > 0 || isQuoted) {
+                    tokens.add(new Token(word.toString(), isQuoted));
+                    word.setLength(0);
+                    isQuoted = false;
+                }
+                if (c == '(' || c == ')') {
+                    tokens.add(new Token(String.valueOf(c), false));
+                }
+            } else {
+                word.append(c);
+            }
+        }
+        if (inQuotes) {
+            throw error("Missing closing '\"'");
+        }
+        return tokens;
+    }
+
+    /**
+     * A word or parenthesis of the query, remembering whether any of it was quoted.
+     */
+    private static class Token {
+        private final String text;
+        private final boolean isQuoted;
+
+        Token(String text, boolean isQuoted) {
+            this.text = text;
+            this.isQuoted = isQuoted;
+        }
+
+        boolean isOpen() {
+            return !isQuoted && text.equals("(");
+        }
+
+        boolean isClose() {
+            return !isQuoted && text.equals(")");
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/**
+ * Plans and runs queries over the indexes of the Kiwi task list.
+ *
+ * A query's condition is taken as a list of parts that must all hold. Each
+ * index that can answer some of the parts is asked how many tasks it would
+ * offer, which it can tell without fetching them:
+ * <ul>
+ * <li>the bitmap index ({@link TagIndex}) answers every part made only of types,
+ *     completion and tags, however they are combined, with bitmap operations;</li>
+ * <li>the text index ({@link FuzzyIndex}) answers a search for a word or part of
+ *     one by walking its vocabulary;</li>
+ * <li>the date index (the deadline order of {@link SortedViews}) counts a due
+ *     window with two descents of its tree.</li>
+ * </ul>
+ * The index offering the fewest tasks drives the query and the remaining parts
+ * filter its tasks. When no index offers fewer tasks than the list holds, the
+ * list is scanned instead. A query with an order and a limit may instead walk
+ * the sorted view of that order and stop at the limit, when the expected number
+ * of tasks to walk before finding enough matches is below the number the best
+ * index offers. {@link #explain()} shows the choice. Whenever every task the
+ * plan reads must be tested, long runs are tested in parallel by {@link ParallelScan}.
+ *
+ * @author zow1e
+ * @see TaskList#query(Query)
+ */
+package kiwi.helper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import kiwi.build.Task;
+
+/**
+ * The chosen way to answer one query.
+ */
+class QueryPlan {
+
+    private final Query query;
+    private final TaskList list;
+
+    /** Index the query is driven by, or null to scan the list. */
+    private final Path driver;
+
+    /** Parts of the condition left for the filter, or null if the driver answers them all. */
+    private final Query.Condition filter;
+
+    /** Whether the scan walks a sorted view and stops at the limit. */
+    private final boolean isOrderedScan;
+
+    /** Every index path that was weighed, for {@link #explain()}. */
+    private final List<Path> considered;
+
+    private QueryPlan(Query query, TaskList list, Path driver, Query.Condition filter, boolean isOrderedScan,
+            List<Path> considered) {
+        this.query = query;
+        this.list = list;
+        this.driver = driver;
+        this.filter = filter;
+        this.isOrderedScan = isOrderedScan;
+        this.considered = considered;
+    }
+
+    /**
+     * Chooses how to answer a query. Builds the indexes the query can use if they do not exist yet.
+     *
+     * @param query the query
+     * @param list the task list to query
+     * @return the plan
+     */
+    static QueryPlan plan(Query query, TaskList list) {
+        List<Query.Condition> parts = partsOf(query.getWhere());
+        List<Path> paths = new ArrayList<>();
+
+        List<Query.Condition> bitmapParts = new ArrayList<>();
+        for (Query.Condition part : parts) {
+            if (isBitmapAnswerable(part)) {
+                bitmapParts.add(part);
+            }
+        }
+        if (!bitmapParts.isEmpty()) {
+            TagIndex index = list.tagIndex();
+            index.compact();
+            CompactBitmap slots = index.live();
+            for (Query.Condition part : bitmapParts) {
+                slots = CompactBitmap.and(slots, bitmapOf(part, index));
+            }
+            CompactBitmap matches = slots;
+            paths.add(new Path("bitmap index", bitmapParts,
+                new Candidates(matches.cardinality(), () -> index.tasksOf(matches))));
+        }
+        for (Query.Condition part : parts) {
+            if (part instanceof Query.Contains && isWordText(((Query.Contains) part).getText())) {
+                String text = ((Query.Contains) part).getText();
+                paths.add(new Path("text index", List.of(part), list.fuzzyIndex().containing(text)));
+            } else if (part instanceof Query.DueBetween) {
+                Query.DueBetween window = (Query.DueBetween) part;
+                paths.add(new Path("date index", List.of(part),
+                    list.sortedViews().dueBetween(window.getFrom(), window.getTo(), list.getTasks())));
+            }
+        }
+
+        Path driver = null;
+        for (Path path : paths) {
+            if (path.candidates.estimate() < list.size()
+                    && (driver == null || path.candidates.estimate() < driver.candidates.estimate())) {
+                driver = path;
+            }
+        }
+
+        // Matches are assumed spread evenly through the order, at the rate the best index suggests
+        SortOrder order = query.getOrderBy();
+        boolean isOrderedScan = false;
+        if (order != null && order != SortOrder.CREATED && query.getLimit() != Query.NO_LIMIT) {
+            long offered = driver == null ? list.size() : driver.candidates.estimate();
+            long toWalk = offered == 0 ? list.size() : (long) query.getLimit() * list.size() / offered;
+            isOrderedScan = toWalk < offered;
+        }
+        if (isOrderedScan) {
+            driver = null;
+        }
+
+        List<Query.Condition> rest = new ArrayList<>(parts);
+        if (driver != null) {
+            rest.removeAll(driver.parts);
+        }
+        Query.Condition filter = rest.isEmpty() ? null : rest.size() == 1 ? rest.get(0) : new Query.And(rest);
+        return new QueryPlan(query, list, driver, filter, isOrderedScan, paths);
+    }
+
+    /**
+     * Runs the plan.
+     *
+     * @return the matching tasks, in the requested order or list order, at most the limit
+     */
+    ArrayList<Task> execute() {
+        int limit = query.getLimit();
+        SortOrder order = query.getOrderBy();
+        boolean isListOrder = order == null || order == SortOrder.CREATED;
+        List<Task> source = isOrderedScan ? list.sorted(order)
+            : driver == null ? list.getTasks() : driver.candidates.tasks();
+
+        ArrayList<Task> matches;
+        if (filter != null && (limit == Query.NO_LIMIT || !isListOrder) && !isOrderedScan) {
+            matches = ParallelScan.COMMON.filter(source, filter::test);
+        } else {
+            // A limit in the order read lets the scan stop early, which beats splitting it
+            matches = new ArrayList<>();
+            for (Task task : source) {
+                if (filter == null || filter.test(task)) {
+                    matches.add(task);
+                    if (matches.size() == limit && (isListOrder || isOrderedScan)) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (!isListOrder && !isOrderedScan) {
+            matches.sort(comparatorFor(order));
+            if (matches.size() > limit) {
+                matches.subList(limit, matches.size()).clear();
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Describes the plan, one step per line, followed by the paths it did not take.
+     *
+     * @return the plan as shown by the explain command
+     */
+    String explain() {
+        StringBuilder text = new StringBuilder("Query: ").append(query).append('\n');
+        text.append("Plan:\n");
+        int step = 1;
+        if (driver != null) {
+            text.append("  ").append(step++).append(". ").append(driver).append('\n');
+        } else if (isOrderedScan) {
+            text.append("  ").append(step++).append(". scan the ").append(query.getOrderBy().getKeyword())
+                .append(" sorted view (").append(list.size()).append(" tasks), stopping at the limit\n");
+        } else {
+            text.append("  ").append(step++).append(". scan the list (").append(list.size()).append(" tasks)\n");
+        }
+        if (filter != null) {
+            text.append("  ").append(step++).append(". filter: ").append(filter).append('\n');
+        }
+        if (query.getOrderBy() != null && query.getOrderBy() != SortOrder.CREATED && !isOrderedScan) {
+            text.append("  ").append(step++).append(". sort by ").append(query.getOrderBy().getKeyword()).append('\n');
+        }
+        if (query.getLimit() != Query.NO_LIMIT) {
+            text.append("  ").append(step).append(". keep the first ").append(query.getLimit()).append('\n');
+        }
+        for (Path path : considered) {
+            if (path != driver) {
+                text.append("Not used: ").append(path).append('\n');
+            }
+        }
+        return text.toString().stripTrailing();
+    }
+
+    /** Splits a condition into the parts that must all hold. */
+    private static List<Query.Condition> partsOf(Query.Condition where) {
+        if (where == null) {
+            return List.of();
+        }
+        return where instanceof Query.And ? ((Query.And) where).getParts() : List.of(where);
+    }
+
+    /** Tells whether a condition is made only of types, completion and tags. */
+    private static boolean isBitmapAnswerable(Query.Condition condition) {
+        if (condition instanceof Query.Not) {
+            return isBitmapAnswerable(((Query.Not) condition).getOperand());
+        }
+        if (condition instanceof Query.And || condition instanceof Query.Or) {
+            List<Query.Condition> parts = condition instanceof Query.And
+                ? ((Query.And) condition).getParts() : ((Query.Or) condition).getParts();
+            return parts.stream().allMatch(QueryPlan::isBitmapAnswerable);
+        }
+        return condition instanceof Query.TypeIs || condition instanceof Query.IsDone
+            || condition instanceof Query.HasTag;
+    }
+
+    private static CompactBitmap bitmapOf(Query.Condition condition, TagIndex index) {
+        if (condition instanceof Query.TypeIs) {
+            return index.slotsOfType(((Query.TypeIs) condition).getType());
+        }
+        if (condition instanceof Query.IsDone) {
+            return index.slotsOf(TagQuery.DONE);
+        }
+        if (condition instanceof Query.HasTag) {
+            return index.slotsOf(((Query.HasTag) condition).getTag());
+        }
+        if (condition instanceof Query.Not) {
+            return CompactBitmap.andNot(index.live(), bitmapOf(((Query.Not) condition).getOperand(), index));
+        }
+        if (condition instanceof Query.And) {
+            CompactBitmap slots = index.live();
+            for (Query.Condition part : ((Query.And) condition).getParts()) {
+                slots = CompactBitmap.and(slots, bitmapOf(part, index));
+            }
+            return slots;
+        }
+        CompactBitmap slots = new CompactBitmap();
+        for (Query.Condition part : ((Query.Or) condition).getParts()) {
+            slots = CompactBitmap.or(slots, bitmapOf(part, index));
+        }
+        return slots;
+    }
+
+    /** Tells whether text is a single word as the text index splits descriptions. */
+    private static boolean isWordText(String text) {
+        List<String> words = FuzzyIndex.wordsOf(text);
+        return words.size() == 1 && words.get(0).equals(text);
+    }
+
+    private static Comparator<Task> comparatorFor(SortOrder order) {
+        switch (order) {
+        case DEADLINE:
+            return Comparator.comparing(Query::dueOf, Comparator.nullsLast(Comparator.naturalOrder()));
+        case DESCRIPTION:
+            return (a, b) -> a.getDescription().compareToIgnoreCase(b.getDescription());
+        case DONE:
+            return (a, b) -> Boolean.compare(a.isDone(), b.isDone());
+        default:
+            return (a, b) -> 0;
+        }
+    }
+
+    /**
+     * Tasks an index offers for some parts of a condition, counted before they are fetched.
+     */
+    static class Candidates {
+        private final int estimate;
+        private final Supplier<ArrayList<Task>> fetch;
+
+        /**
+         * Creates a candidate set.
+         *
+         * @param estimate how many tasks the fetch returns at most
+         * @param fetch returns the tasks in list order, each once
+         */
+        Candidates(int estimate, Supplier<ArrayList<Task>> fetch) {
+            this.estimate = estimate;
+            this.fetch = fetch;
+        }
+
+        int estimate() {
+            return estimate;
+        }
+
+        ArrayList<Task> tasks() {
+            return fetch.get();
+        }
+    }
+
+    /**
+     * One index with the parts of the condition it answers.
+     */
+    private static class Path {
+        private final String index;
+        private final List<Query.Condition> parts;
+        private final Candidates candidates;
+
+        Path(String index, List<Query.Condition> parts, Candidates candidates) {
+            this.index = index;
+            this.parts = parts;
+            this.candidates = candidates;
+        }
+
+        @Override
+        public String toString() {
+            return index + " on " + (parts.size() == 1 ? parts.get(0) : new Query.And(parts))
+                + " (" + candidates.estimate() + (candidates.estimate() == 1 ? " candidate)" : " candidates)");
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/**
+ * Order-statistic tree behind the sorted views of the Kiwi task manager.
+ *
+ * A treap: a binary search tree in which every node also carries a random
+ * priority and sits below any node of higher priority, which keeps the expected
+ * depth logarithmic without rebalancing rules. Each node counts the nodes in its
+ * subtree, so the element at a given position is found by walking one path, and
+ * a run of k elements from any position comes out in O(log n + k).
+ *
+ * Elements must be distinct under the comparator.
+ *
+ * @author zow1e
+ * @see SortedViews
+ */
+package kiwi.helper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sorted collection with access by position.
+ *
+ * @param <E> the element type
+ */
+class RankedTree<E> {
+
+    private final Comparator<? super E> comparator;
+    private final Random random = new Random();
+    private Node<E> root;
+
+    /**
+     * Creates an empty tree.
+     *
+     * @param comparator the order of the elements; must not consider two elements equal
+     */
+    RankedTree(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Replaces the contents with elements that are already sorted, in linear time.
+     *
+     * Builds the treap directly: each node becomes the right child of the last
+     * node on the right spine with a higher priority.
+     *
+     * @param sorted distinct elements in ascending order
+     */
+    void build(List<E> sorted) {
+        ArrayList<Node<E>> spine = new ArrayList<>();
+        for (E element : sorted) {
+            Node<E> node = new Node<>(element, random.nextInt());
+            Node<E> last = null;
+            while (!spine.isEmpty() && spine.get(spine.size() - 1).priority < node.priority) {
+                last = spine.remove(spine.size() - 1);
+            }
+            node.left = last;
+            if (!spine.isEmpty()) {
+                spine.get(spine.size() - 1).right = node;
+            }
+            spine.add(node);
+        }
+        root = spine.isEmpty() ? null : spine.get(0);
+        countSizes(root);
+    }
+
+    /**
+     * Adds an element.
+     *
+     * @param element an element not already in the tree
+     */
+    void add(E element) {
+        Node<E> node = new Node<>(element, random.nextInt());
+        Node<E>[] halves = split(root, element);
+        root = merge(merge(halves[0], node), halves[1]);
+    }
+
+    /**
+     * Removes an element if present.
+     *
+     * @param element the element to remove
+     */
+    void remove(E element) {
+        root = remove(root, element);
+    }
+
+    /**
+     * Removes every element.
+     */
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the element count
+     */
+    int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Returns the element at a position in sorted order.
+     *
+     * @param index 0-based position
+     * @return the element
+     * @throws IndexOutOfBoundsException if the position is outside the tree
+     */
+    E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node<E> node = root;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of elements that sort before a probe.
+     *
+     * @param probe a value to compare with the elements; need not be in the tree
+     * @return the position the probe would take in the tree
+     */
+    int rank(E probe) {
+        int rank = 0;
+        Node<E> node = root;
+        while (node != null) {
+            if (comparator.compare(node.value, probe) < 0) {
+                rank += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Copies a run of elements in sorted order.
+     *
+     * @param from position of the first element (inclusive)
+     * @param to position after the last element (exclusive)
+     * @param out receives the elements
+     */
+    void copyRange(int from, int to, List<? super E> out) {
+        copyRange(root, from, to, out);
+    }
+
+    private void copyRange(Node<E> node, int from, int to, List<? super E> out) {
+        if (node == null || from >= to) {
+            return;
+        }
+        int leftSize = sizeOf(node.left);
+        if (from < leftSize) {
+            copyRange(node.left, from, Math.min(to, leftSize), out);
+        }
+        if (from <= leftSize && leftSize < to) {
+            out.add(node.value);
+        }
+        if (to > leftSize + 1) {
+            copyRange(node.right, Math.max(0, from - leftSize - 1), to - leftSize - 1, out);
+        }
+    }
+
+    /** Splits a subtree into the elements before {@code element} and the rest. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Node<E>[] split(Node<E> node, E element) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (comparator.compare(node.value, element) < 0) {
+            Node<E>[] halves = split(node.right, element);
+            node.right = halves[0];
+            update(node);
+            halves[0] = node;
+            return halves;
+        }
+        Node<E>[] halves = split(node.left, element);
+        node.left = halves[1];
+        update(node);
+        halves[1] = node;
+        return halves;
+    }
+
+    /** Joins two subtrees whose elements are all in order. */
+    private Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node<E> remove(Node<E> node, E element) {
+        if (node == null) {
+            return null;
+        }
+        int order = comparator.compare(element, node.value);
+        if (order == 0) {
+            return merge(node.left, node.right);
+        }
+        if (order < 0) {
+            node.left = remove(node.left, element);
+        } else {
+            node.right = remove(node.right, element);
+        }
+        update(node);
+        return node;
+    }
+
+    private static int countSizes(Node<?> node) {
+        if (node == null) {
+            return 0;
+        }
+        node.size = 1 + countSizes(node.left) + countSizes(node.right);
+        return node.size;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+    }
+
+    private static int sizeOf(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Tree node with its random priority and subtree size.
+     */
+    private static class Node<E> {
+        private final E value;
+        private final int priority;
+        private int size = 1;
+        private Node<E> left;
+        private Node<E> right;
+
+        Node(E value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Background reminder engine for upcoming deadlines and events in Kiwi.
+ *
+ * Undone deadlines and events that are still in the future are kept in a
+ * {@link ReminderWheel}; one daemon thread advances the wheel every tick and
+ * sends an alert a configurable lead time before each task is due or starts.
+ * A recurring task has one reminder at a time, for its next occurrence; when it
+ * fires, the occurrence after it is scheduled.
+ * Kiwi tells the scheduler about every add, delete, mark and unmark, so it never
+ * rescans the task list. The lead time in minutes is read from the system
+ * property {@value #LEAD_PROPERTY}; a negative value turns reminders off.
+ *
+ * @author zow1e
+ * @see ReminderWheel
+ */
+package kiwi.helper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import kiwi.build.Event;
+import kiwi.build.RecurringTask;
+import kiwi.build.Task;
+
+/**
+ * Schedules and fires lead-time alerts for tasks with a due or start time.
+ */
+public class ReminderScheduler {
+
+    /** System property holding the lead time in minutes. */
+    public static final String LEAD_PROPERTY = "kiwi.reminder.lead";
+
+    private static final long DEFAULT_LEAD_MINUTES = 60;
+    private static final long TICK_MILLIS = 1000;
+
+    /** One hour of one-second ticks per turn of the wheel. */
+    private static final int SLOT_COUNT = 3600;
+
+    private final Duration lead;
+    private final Clock clock;
+    private final ReminderWheel wheel;
+
+    /** Pending reminder of each tracked task, keyed by identity like TaskList itself. */
+    private final Map<Task, ReminderWheel.Reminder> pending = new IdentityHashMap<>();
+
+    private ScheduledExecutorService timer;
+
+    /**
+     * Creates a scheduler with the lead time from {@value #LEAD_PROPERTY}, using the system clock.
+     */
+    public ReminderScheduler() {
+        this(Duration.ofMinutes(Long.getLong(LEAD_PROPERTY, DEFAULT_LEAD_MINUTES)), Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param lead how long before a task is due to alert; negative disables reminders
+     * @param clock the time source, whose zone is used to interpret task times
+     */
+    public ReminderScheduler(Duration lead, Clock clock) {
+        this.lead = lead;
+        this.clock = clock;
+        this.wheel = new ReminderWheel(TICK_MILLIS, SLOT_COUNT, clock.millis());
+    }
+
+    /**
+     * Returns whether reminders are turned on.
+     *
+     * @return false if the lead time is negative
+     */
+    public boolean isEnabled() {
+        return !lead.isNegative();
+    }
+
+    /**
+     * Starts the reminder thread.
+     *
+     * @param listener receives each alert on the reminder thread
+     */
+    public synchronized void start(Consumer<String> listener) {
+        if (!isEnabled() || timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kiwi-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(() -> fireDue().forEach(listener), TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the reminder thread; pending reminders are kept.
+     */
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    /**
+     * Schedules a reminder for a task if it is an undone deadline, event or recurring task
+     * with an occurrence in the future.
+     *
+     * Calling it again for the same task replaces the earlier reminder.
+     *
+     * @param task the task that was added or unmarked
+     */
+    public synchronized void track(Task task) {
+        untrack(task);
+        if (isEnabled() && !task.isDone()) {
+            schedule(task, dueTimeOf(task, LocalDateTime.now(clock)));
+        }
+    }
+
+    private void schedule(Task task, LocalDateTime due) {
+        if (due == null) {
+            return;
+        }
+        long dueMillis = due.atZone(clock.getZone()).toInstant().toEpochMilli();
+        if (dueMillis <= clock.millis()) {
+            return;
+        }
+        pending.put(task, wheel.schedule(task, dueMillis - lead.toMillis(), dueMillis));
+    }
+
+    /**
+     * Schedules reminders for several tasks.
+     *
+     * @param tasks the tasks that were loaded or imported
+     */
+    public synchronized void trackAll(Collection<Task> tasks) {
+        tasks.forEach(this::track);
+    }
+
+    /**
+     * Cancels the reminder of a task, if it has one.
+     *
+     * @param task the task that was deleted or marked as done
+     */
+    public synchronized void untrack(Task task) {
+        ReminderWheel.Reminder reminder = pending.remove(task);
+        if (reminder != null) {
+            wheel.cancel(reminder);
+        }
+    }
+
+    /**
+     * Cancels every pending reminder.
+     */
+    public synchronized void untrackAll() {
+        pending.values().forEach(wheel::cancel);
+        pending.clear();
+    }
+
+    /**
+     * Returns the number of pending reminders.
+     *
+     * @return the pending count
+     */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Removes the reminders that are due now and formats their alerts.
+     *
+     * @return one alert per reminder that fired
+     */
+    synchronized List<String> fireDue() {
+        List<ReminderWheel.Reminder> fired = wheel.advance(clock.millis());
+        List<String> alerts = fired.stream().map(this::formatAlert).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (ReminderWheel.Reminder reminder : fired) {
+            Task task = reminder.getTask();
+            pending.remove(task);
+            if (task instanceof RecurringTask) {
+                LocalDateTime due = toLocal(reminder.getDueMillis());
+                schedule(task, dueTimeOf(task, due.isAfter(now) ? due : now));
+            }
+        }
+        return alerts;
+    }
+
+    private String formatAlert(ReminderWheel.Reminder reminder) {
+        long minutes = Math.max(0, (reminder.getDueMillis() - clock.millis() + 59_999) / 60_000);
+        Task task = reminder.getTask();
+        if (task instanceof RecurringTask) {
+            RecurringTask recurring = (RecurringTask) task;
+            String verb = recurring.isEvent() ? "Starting" : "Due";
+            return "Reminder: " + verb + " in " + minutes + " min\n"
+                + recurring.formatOccurrence(toLocal(reminder.getDueMillis()));
+        }
+        String verb = task instanceof Event ? "Starting" : "Due";
+        return "Reminder: " + verb + " in " + minutes + " min\n" + task;
+    }
+
+    private LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), clock.getZone());
+    }
+
+    /**
+     * Returns when a task is next due or starts after the given time.
+     */
+    private static LocalDateTime dueTimeOf(Task task, LocalDateTime after) {
+        if (task instanceof RecurringTask) {
+            return ((RecurringTask) task).nextOccurrence(after);
+        }
+        return task instanceof Event ? ((Event) task).getFrom() : task.getDateTime();
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Hashed timing wheel holding pending reminders for the Kiwi task manager.
+ *
+ * Time is split into fixed ticks and each reminder sits in the slot of the tick
+ * it is due, modulo the wheel size, in a doubly linked list. Scheduling and
+ * cancelling are O(1); advancing one tick only looks at that tick's slot, so the
+ * cost of waiting does not grow with the number of reminders. Reminders further
+ * away than one turn of the wheel simply stay in their slot until their tick comes
+ * round, as in a hashed wheel timer.
+ *
+ * The wheel is not tied to a clock: callers pass the current time to
+ * {@link #advance(long)}, which keeps it deterministic to test.
+ *
+ * @author zow1e
+ * @see ReminderScheduler
+ */
+package kiwi.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import kiwi.build.Task;
+
+/**
+ * Timing wheel of task reminders; all methods are thread-safe.
+ */
+public class ReminderWheel {
+
+    private final long tickMillis;
+    private final Reminder[] slots;
+
+    /** Last tick whose reminders have been handed out. */
+    private long currentTick;
+
+    private int size;
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param tickMillis length of one tick; reminders fire at most this late
+     * @param slotCount number of slots, i.e. ticks per turn of the wheel
+     * @param nowMillis the current time, in epoch milliseconds
+     */
+    public ReminderWheel(long tickMillis, int slotCount, long nowMillis) {
+        assert tickMillis > 0 && slotCount > 0 : "Tick length and slot count should be positive";
+        this.tickMillis = tickMillis;
+        this.slots = new Reminder[slotCount];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedules a reminder for a task.
+     *
+     * @param task the task to remind about
+     * @param fireAtMillis when to fire, in epoch milliseconds; past times fire on the next tick
+     * @param dueMillis when the task is due or starts, in epoch milliseconds
+     * @return a handle that can be passed to {@link #cancel(Reminder)}
+     */
+    public synchronized Reminder schedule(Task task, long fireAtMillis, long dueMillis) {
+        long tick = Math.max(Math.floorDiv(fireAtMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Reminder reminder = new Reminder(task, dueMillis, tick);
+        int slot = slotOf(tick);
+        reminder.next = slots[slot];
+        if (slots[slot] != null) {
+            slots[slot].prev = reminder;
+        }
+        slots[slot] = reminder;
+        reminder.isScheduled = true;
+        size++;
+        return reminder;
+    }
+
+    /**
+     * Removes a reminder that has not fired yet.
+     *
+     * @param reminder the handle returned by {@link #schedule}
+     * @return true if the reminder was pending, false if it already fired or was cancelled
+     */
+    public synchronized boolean cancel(Reminder reminder) {
+        if (!reminder.isScheduled) {
+            return false;
+        }
+        unlink(reminder);
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and removes every reminder now due.
+     *
+     * After a long pause each slot is visited at most once, however many ticks were missed.
+     *
+     * @param nowMillis the current time, in epoch milliseconds
+     * @return the reminders that fired, in no particular order
+     */
+    public synchronized List<Reminder> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Reminder> fired = new ArrayList<>();
+        long steps = Math.min(targetTick - currentTick, slots.length);
+        for (long i = 1; i <= steps; i++) {
+            Reminder reminder = slots[slotOf(currentTick + i)];
+            while (reminder != null) {
+                Reminder next = reminder.next;
+                if (reminder.tick <= targetTick) {
+                    unlink(reminder);
+                    fired.add(reminder);
+                }
+                reminder = next;
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return fired;
+    }
+
+    /**
+     * Returns the number of pending reminders.
+     *
+     * @return the pending count
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+
+    private void unlink(Reminder reminder) {
+        if (reminder.prev != null) {
+            reminder.prev.next = reminder.next;
+        } else {
+            slots[slotOf(reminder.tick)] = reminder.next;
+        }
+        if (reminder.next != null) {
+            reminder.next.prev = reminder.prev;
+        }
+        reminder.prev = null;
+        reminder.next = null;
+        reminder.isScheduled = false;
+        size--;
+    }
+
+    /**
+     * A scheduled reminder for one task, linked into its slot of the wheel.
+     */
+    public static class Reminder {
+
+        private final Task task;
+        private final long dueMillis;
+        private final long tick;
+
+        private Reminder prev;
+        private Reminder next;
+        private boolean isScheduled;
+
+        private Reminder(Task task, long dueMillis, long tick) {
+            this.task = task;
+            this.dueMillis = dueMillis;
+            this.tick = tick;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        public long getDueMillis() {
+            return dueMillis;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * The recorded output of one command in the Kiwi task manager, ready to be shown again.
+ *
+ * Produced by {@link ResponseSink#stopRecording()} and handed back to
+ * {@link ResponseSink#replay(RenderedResponse)} of the same sink, which shows it
+ * without running the command or formatting a single task.
+ *
+ * @author zow1e
+ * @see ResultCache
+ */
+package kiwi.helper;
+
+import java.util.List;
+
+import kiwi.build.Task;
+
+/**
+ * Response text, plus the tasks behind any pages not shown yet.
+ */
+public class RenderedResponse {
+
+    private final String text;
+    private final List<Task> pagedTasks;
+
+    /**
+     * Creates a recorded response.
+     *
+     * @param text everything the command showed
+     * @param pagedTasks the whole paged result if only its first page was shown, or null
+     */
+    public RenderedResponse(String text, List<Task> pagedTasks) {
+        this.text = text;
+        this.pagedTasks = pagedTasks;
+    }
+
+    /**
+     * Returns everything the command showed.
+     *
+     * @return the response text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns the whole result behind a paged response.
+     *
+     * @return the paged tasks, or null if the response was complete
+     */
+    public List<Task> getPagedTasks() {
+        return pagedTasks;
+    }
+
+    /**
+     * Returns the memory held by this response, in characters and task references.
+     *
+     * @return the size charged against a cache's budget
+     */
+    int weight() {
+        return text.length() + (pagedTasks == null ? 0 : pagedTasks.size());
+    }
+}
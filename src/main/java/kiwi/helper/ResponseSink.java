@@ -0,0 +1,222 @@
+/**
+ * Output target for command results in the Kiwi task manager.
+ *
+ * Kiwi executes every command once and reports the outcome through this
+ * interface; each front end decides how to render it. {@link Cli} prints to the
+ * console and {@link Gui} collects chat bubble text. A new front end only needs
+ * to implement this interface to reuse all command handling.
+ *
+ * @author zow1e
+ * @see Cli
+ * @see Gui
+ */
+package kiwi.helper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import kiwi.build.Task;
+
+/**
+ * Renders command results for one front end.
+ */
+public interface ResponseSink {
+
+    /**
+     * Shows the full task list.
+     *
+     * @param tasks all tasks, in list order
+     */
+    void showTasks(ArrayList<Task> tasks);
+
+    /**
+     * Shows the whole task list in a sort order.
+     *
+     * @param sorted a read-only view of the tasks in that order
+     * @param order the order of the view
+     */
+    void showSortedTasks(List<Task> sorted, SortOrder order);
+
+    /**
+     * Shows the dated tasks and recurring occurrences in a window of days.
+     *
+     * @param occurrences the occurrences in the window, ordered by time
+     * @param first first day of the window
+     * @param last last day of the window
+     */
+    void showSchedule(ArrayList<TaskList.Occurrence> occurrences, LocalDate first, LocalDate last);
+
+    /**
+     * Shows tasks that matched a find command.
+     *
+     * @param matches the matching tasks
+     */
+    void showMatchingTasks(ArrayList<Task> matches);
+
+    /**
+     * Shows the undone tasks to do next, most urgent first.
+     *
+     * @param next the tasks, in order
+     */
+    void showNextTasks(ArrayList<Task> next);
+
+    /**
+     * Shows a newly added task.
+     *
+     * @param task the task that was added
+     */
+    void showAddedTask(Task task);
+
+    /**
+     * Shows a task that was marked as done.
+     *
+     * @param task the marked task
+     */
+    void showMarkedTask(Task task);
+
+    /**
+     * Shows a task that was marked as not done.
+     *
+     * @param task the unmarked task
+     */
+    void showUnmarkedTask(Task task);
+
+    /**
+     * Shows a task that was deleted.
+     *
+     * @param task the deleted task
+     */
+    void showDeletedTask(Task task);
+
+    /**
+     * Shows tasks marked by a bulk mark command.
+     *
+     * @param marked the marked tasks
+     */
+    void showMarkedTasks(ArrayList<Task> marked);
+
+    /**
+     * Shows tasks unmarked by a bulk unmark command.
+     *
+     * @param unmarked the unmarked tasks
+     */
+    void showUnmarkedTasks(ArrayList<Task> unmarked);
+
+    /**
+     * Shows tasks removed by a bulk delete command.
+     *
+     * @param deleted the deleted tasks
+     */
+    void showDeletedTasks(ArrayList<Task> deleted);
+
+    /**
+     * Shows progress of a long-running command.
+     *
+     * @param message the progress line
+     */
+    void showProgress(String message);
+
+    /**
+     * Shows the outcome of an import.
+     *
+     * @param report counts from the finished import
+     */
+    void showImported(TaskTransfer.Report report);
+
+    /**
+     * Shows the outcome of an export.
+     *
+     * @param count number of tasks written
+     * @param file the file written to
+     */
+    void showExported(int count, String file);
+
+    /**
+     * Shows the command reference.
+     */
+    void showHelp();
+
+    /**
+     * Shows how a query would be answered.
+     *
+     * @param plan the plan described one step per line
+     */
+    void showQueryPlan(String plan);
+
+    /**
+     * Shows the latency and error report of the current session.
+     *
+     * @param report the formatted metrics report
+     */
+    void showStats(String report);
+
+    /**
+     * Starts keeping a copy of everything shown, so the response can be replayed by {@link #replay}.
+     */
+    void startRecording();
+
+    /**
+     * Stops keeping a copy of what is shown.
+     *
+     * @return everything shown since {@link #startRecording()}
+     */
+    RenderedResponse stopRecording();
+
+    /**
+     * Shows a response recorded earlier by this sink, exactly as it was first shown.
+     *
+     * @param response the recorded response
+     */
+    void replay(RenderedResponse response);
+
+    /**
+     * Asks whether all tasks should be cleared.
+     *
+     * @return true if the list should be cleared
+     */
+    boolean confirmClear();
+
+    /**
+     * Shows that all tasks were cleared.
+     */
+    void showTasksCleared();
+
+    /**
+     * Shows that clearing was cancelled.
+     */
+    void showClearCancelled();
+
+    /**
+     * Decides what happens when a new task duplicates an existing description.
+     *
+     * @param existing the existing task with the same description
+     * @return true to add the new task, false to keep only the existing one
+     * @throws KiwiException if the front end rejects duplicates outright
+     */
+    boolean confirmReplaceDuplicate(Task existing) throws KiwiException;
+
+    /**
+     * Shows that a new task was not added because the existing one was kept.
+     *
+     * @param existing the task kept in the list
+     */
+    void showDuplicateKept(Task existing);
+
+    /**
+     * Shows the goodbye message and ends the session.
+     */
+    void showBye();
+
+    /**
+     * Shows an error raised while handling a command.
+     *
+     * @param message the error message
+     */
+    void showError(String message);
+
+    /**
+     * Shows an error for a task number that does not exist.
+     */
+    void showInvalidIndexError();
+}
@@ -0,0 +1,172 @@
+/**
+ * Cache of rendered responses to read-only commands in the Kiwi task manager.
+ *
+ * Responses are keyed by the normalized command, so {@code FIND Report} and
+ * {@code find report} share an entry, and stamped with the version of the
+ * {@link TaskList} they were rendered from. Every change to the list bumps its
+ * version, and the first lookup or store that sees a new version drops every
+ * entry at once: no response outlives a change, and none is dropped without one.
+ *
+ * The cache holds at most a number of entries and a budget of characters and
+ * task references, evicting the least recently used entries first. A response
+ * over the whole budget is not stored. Hits, misses, evictions and entries
+ * dropped by changes are counted for the {@code stats} report.
+ *
+ * @author zow1e
+ * @see TaskList#getVersion()
+ * @see Metrics
+ */
+package kiwi.helper;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU map from normalized commands to rendered responses.
+ */
+public class ResultCache {
+
+    /** Default number of responses kept. */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /** Default budget: about 8 MB of text, or a paged result of 4M tasks. */
+    public static final int DEFAULT_MAX_WEIGHT = 1 << 22;
+
+    private final int maxEntries;
+    private final int maxWeight;
+
+    /** Entries in access order, least recently used first. */
+    private final LinkedHashMap<String, RenderedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    /** List version every entry was rendered from. */
+    private long version;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates a cache with the default bounds.
+     */
+    public ResultCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * Creates a cache with the given bounds.
+     *
+     * @param maxEntries the most responses kept
+     * @param maxWeight the most characters and task references kept, over all responses
+     */
+    public ResultCache(int maxEntries, int maxWeight) {
+        assert maxEntries > 0 && maxWeight > 0 : "Cache bounds should be positive";
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Looks up the response to a command.
+     *
+     * @param key the normalized command
+     * @param listVersion the current version of the task list
+     * @return the response rendered from this version, or null on a miss
+     */
+    public RenderedResponse get(String key, long listVersion) {
+        invalidateUnless(listVersion);
+        RenderedResponse response = entries.get(key);
+        (response == null ? misses : hits).increment();
+        return response;
+    }
+
+    /**
+     * Stores the response to a command.
+     *
+     * @param key the normalized command
+     * @param listVersion the version of the task list the response was rendered from
+     * @param response the recorded response
+     */
+    public void put(String key, long listVersion, RenderedResponse response) {
+        invalidateUnless(listVersion);
+        if (response.weight() > maxWeight) {
+            return;
+        }
+        RenderedResponse old = entries.put(key, response);
+        weight += response.weight() - (old == null ? 0 : old.weight());
+
+        Iterator<Map.Entry<String, RenderedResponse>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || weight > maxWeight) {
+            weight -= eldest.next().getValue().weight();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private void invalidateUnless(long listVersion) {
+        if (listVersion == version) {
+            return;
+        }
+        invalidations.add(entries.size());
+        entries.clear();
+        weight = 0;
+        version = listVersion;
+    }
+
+    /**
+     * Returns the number of responses currently kept.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found nothing.
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of responses dropped to stay within the bounds.
+     *
+     * @return the eviction count
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of responses dropped because the list changed.
+     *
+     * @return the invalidation count
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Formats the counters as one line of the stats report.
+     *
+     * @return the counters, ending with a line break
+     */
+    public String format() {
+        return String.format("Result cache: %d hits, %d misses, %d evicted, %d dropped by changes, %d kept%n",
+            getHits(), getMisses(), getEvictions(), getInvalidations(), size());
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Orders in which {@code list /sort} can show the Kiwi task list.
+ *
+ * Each constant owns the keyword typed after /sort. Ties are always broken by
+ * list order, so every order is total and stable.
+ *
+ * @author zow1e
+ * @see TaskList#sorted(SortOrder)
+ */
+package kiwi.helper;
+
+/**
+ * A sort order for viewing the task list.
+ */
+public enum SortOrder {
+    /** By due or start time; tasks without a date last. */
+    DEADLINE("deadline"),
+    /** In the order the tasks were added, which is list order. */
+    CREATED("created"),
+    /** By description, ignoring case. */
+    DESCRIPTION("desc"),
+    /** Undone tasks before done ones. */
+    DONE("done");
+
+    private final String keyword;
+
+    SortOrder(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * Returns the keyword used after /sort.
+     *
+     * @return lowercase keyword (e.g., "deadline")
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Looks up the order for a keyword, ignoring case.
+     *
+     * @param keyword the keyword typed by the user
+     * @return the matching order, or null if the keyword is unknown
+     */
+    public static SortOrder fromKeyword(String keyword) {
+        for (SortOrder order : values()) {
+            if (order.keyword.equalsIgnoreCase(keyword)) {
+                return order;
+            }
+        }
+        return null;
+    }
+}
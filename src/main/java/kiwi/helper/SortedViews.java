@@ -0,0 +1,284 @@
+/**
+ * Incrementally maintained sorted views of the Kiwi task list.
+ *
+ * Each sort order other than {@link SortOrder#CREATED}, which is list order
+ * itself, keeps a {@link RankedTree} of all tasks. A tree is built once, the
+ * first time its order is asked for, with one sort of the list; after that
+ * adding, deleting, marking or unmarking a task moves only that task, in
+ * O(log n). A view reads its tree by position, so a page of k tasks costs
+ * O(log n + k) and no request sorts the list again.
+ *
+ * @author zow1e
+ * @see TaskList#sorted(SortOrder)
+ */
+package kiwi.helper;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import kiwi.build.Event;
+import kiwi.build.RecurringTask;
+import kiwi.build.Task;
+
+/**
+ * One order-statistic tree per sort order, kept in step with the list.
+ */
+class SortedViews {
+
+    private static final Comparator<Entry> BY_SEQUENCE = Comparator.comparingLong(entry -> entry.sequence);
+
+    private final Map<SortOrder, RankedTree<Entry>> trees = new EnumMap<>(SortOrder.class);
+
+    /** Every task in the list, keyed by identity like TaskList itself. */
+    private final Map<Task, Entry> entries = new IdentityHashMap<>();
+
+    /** Entries of repeating tasks, which the deadline order holds only by their first occurrence. */
+    private final Set<Entry> recurring = new HashSet<>();
+
+    private long nextSequence;
+
+    /**
+     * Records a task that was appended to the list.
+     *
+     * @param task the added task
+     */
+    void add(Task task) {
+        Entry entry = entries.get(task);
+        if (entry != null) {
+            entry.copies++;
+            return;
+        }
+        entry = new Entry(task, nextSequence++);
+        entries.put(task, entry);
+        if (task instanceof RecurringTask) {
+            recurring.add(entry);
+        }
+        for (RankedTree<Entry> tree : trees.values()) {
+            tree.add(entry);
+        }
+    }
+
+    /**
+     * Records tasks that were appended to the list, in order.
+     *
+     * @param tasks the added tasks
+     */
+    void addAll(Collection<Task> tasks) {
+        tasks.forEach(this::add);
+    }
+
+    /**
+     * Drops a task that was deleted from the list.
+     *
+     * @param task the deleted task
+     */
+    void remove(Task task) {
+        Entry entry = entries.get(task);
+        if (entry == null || --entry.copies > 0) {
+            return;
+        }
+        entries.remove(task);
+        recurring.remove(entry);
+        for (RankedTree<Entry> tree : trees.values()) {
+            tree.remove(entry);
+        }
+    }
+
+    /**
+     * Moves a task that was marked or unmarked in the orders that depend on it.
+     *
+     * @param task a task in the list
+     */
+    void updateDone(Task task) {
+        Entry entry = entries.get(task);
+        if (entry == null || entry.isDone == task.isDone()) {
+            return;
+        }
+        RankedTree<Entry> tree = trees.get(SortOrder.DONE);
+        if (tree != null) {
+            tree.remove(entry);
+        }
+        entry.isDone = task.isDone();
+        if (tree != null) {
+            tree.add(entry);
+        }
+    }
+
+    /**
+     * Removes every task.
+     */
+    void clear() {
+        trees.values().forEach(RankedTree::clear);
+        entries.clear();
+        recurring.clear();
+    }
+
+    /**
+     * Returns a read-only view of the list in a sort order.
+     *
+     * The view follows later changes to the list. Reading one task costs
+     * O(log n), and {@code subList} copies a run of k tasks in O(log n + k).
+     *
+     * @param order a sort order other than {@link SortOrder#CREATED}
+     * @param tasks the list, used to build the order the first time it is asked for
+     * @return the tasks in that order
+     */
+    List<Task> view(SortOrder order, List<Task> tasks) {
+        RankedTree<Entry> tree = trees.computeIfAbsent(order, o -> build(o, tasks));
+        return new View(tree);
+    }
+
+    /**
+     * Finds the tasks due or starting in a window of time, using the deadline order as a date index.
+     *
+     * Counting them costs two O(log n) descents of the tree; fetching k of them
+     * costs O(log n + k log k), to put them back in list order. A repeating task is
+     * sorted by its first occurrence only, so every repeating task that started
+     * before the window is also counted, and fetched if one of its occurrences
+     * falls in the window.
+     *
+     * @param from start of the window, or null for no start
+     * @param to end of the window (exclusive), or null for no end
+     * @param tasks the list, used to build the deadline order the first time it is asked for
+     * @return the candidate tasks, fetched in list order when asked for
+     */
+    QueryPlan.Candidates dueBetween(LocalDateTime from, LocalDateTime to, List<Task> tasks) {
+        RankedTree<Entry> tree = trees.computeIfAbsent(SortOrder.DEADLINE, o -> build(o, tasks));
+
+        // Probes sort before every entry with the same time, and null sorts after all dates
+        int first = from == null ? 0 : tree.rank(new Entry(from));
+        int last = tree.rank(new Entry(to));
+        int started = from == null ? 0 : recurring.size();
+        return new QueryPlan.Candidates(last - first + started, () -> {
+            List<Entry> run = new ArrayList<>(last - first);
+            tree.copyRange(first, last, run);
+            if (started > 0) {
+                Query.DueBetween window = new Query.DueBetween(from, to);
+                for (Entry entry : recurring) {
+                    if (entry.due.isBefore(from) && window.test(entry.task)) {
+                        run.add(entry);
+                    }
+                }
+            }
+            run.sort(BY_SEQUENCE);
+            ArrayList<Task> due = new ArrayList<>(run.size());
+            run.forEach(entry -> due.add(entry.task));
+            return due;
+        });
+    }
+
+    /**
+     * Sorts the list into a new tree.
+     *
+     * Entries are gathered in list order rather than from the map: the sort then
+     * finds runs that are already in order and touches memory in order, which is
+     * many times faster at a million tasks.
+     */
+    private RankedTree<Entry> build(SortOrder order, List<Task> tasks) {
+        Comparator<Entry> comparator = comparatorFor(order).thenComparing(BY_SEQUENCE);
+        List<Entry> sorted = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> sorted.add(entries.get(task)));
+        sorted.sort(comparator);
+
+        // A task added more than once sorts next to itself; keep one copy
+        List<Entry> distinct = new ArrayList<>(entries.size());
+        for (Entry entry : sorted) {
+            if (distinct.isEmpty() || distinct.get(distinct.size() - 1) != entry) {
+                distinct.add(entry);
+            }
+        }
+        RankedTree<Entry> tree = new RankedTree<>(comparator);
+        tree.build(distinct);
+        return tree;
+    }
+
+    private static Comparator<Entry> comparatorFor(SortOrder order) {
+        switch (order) {
+        case DEADLINE:
+            return Comparator.comparing(entry -> entry.due, Comparator.nullsLast(Comparator.naturalOrder()));
+        case DESCRIPTION:
+            return (a, b) -> a.task.getDescription().compareToIgnoreCase(b.task.getDescription());
+        case DONE:
+            return (a, b) -> Boolean.compare(a.isDone, b.isDone);
+        default:
+            return BY_SEQUENCE;
+        }
+    }
+
+    /**
+     * A task with the keys it is sorted by.
+     */
+    private static class Entry {
+        private final Task task;
+
+        /** Position in the list relative to other tasks, for list order and ties. */
+        private final long sequence;
+
+        /** Due or start time, or null for undated tasks. */
+        private final LocalDateTime due;
+
+        /** Completion status the task is currently sorted by. */
+        private boolean isDone;
+
+        private int copies = 1;
+
+        /** Creates a probe that sorts before every task due at {@code due}. */
+        Entry(LocalDateTime due) {
+            this.task = null;
+            this.sequence = -1;
+            this.due = due;
+        }
+
+        Entry(Task task, long sequence) {
+            this.task = task;
+            this.sequence = sequence;
+            this.due = task instanceof Event ? ((Event) task).getFrom() : task.getDateTime();
+            this.isDone = task.isDone();
+        }
+    }
+
+    /**
+     * Read-only list backed by a tree of entries.
+     */
+    private static class View extends AbstractList<Task> {
+        private final RankedTree<Entry> tree;
+
+        View(RankedTree<Entry> tree) {
+            this.tree = tree;
+        }
+
+        @Override
+        public Task get(int index) {
+            return tree.get(index).task;
+        }
+
+        @Override
+        public int size() {
+            return tree.size();
+        }
+
+        /**
+         * Returns a copy of a run of tasks, walking the tree once.
+         */
+        @Override
+        public List<Task> subList(int from, int to) {
+            if (from < 0 || to > size() || from > to) {
+                throw new IndexOutOfBoundsException("Range: " + from + "-" + to + ", Size: " + size());
+            }
+            List<Entry> run = new ArrayList<>(to - from);
+            tree.copyRange(from, to, run);
+            List<Task> tasks = new ArrayList<>(run.size());
+            run.forEach(entry -> tasks.add(entry.task));
+            return tasks;
+        }
+    }
+}
@@ -3,13 +3,16 @@
  *
  * Handles loading tasks from `kiwi.txt` and saving tasks back to it using a custom
  * pipe-delimited format. Supports all task types: {@link ToDo}, {@link Deadline},
- * {@link Event}.
+ * {@link Event}, {@link RecurringTask}. A recurring task is saved as its rule on one
+ * line, never as its individual occurrences. A task with a priority has one more
+ * field at the end of its line ("p1" to "p5"); files without it load unchanged.
  *
  * @author zow1e
  * @see Task
  * @see ToDo
  * @see Deadline
  * @see Event
+ * @see RecurringTask
  */
 package kiwi.helper;
 
@@ -17,12 +20,17 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Scanner;
 
 import kiwi.build.Deadline;
 import kiwi.build.Event;
+import kiwi.build.Recurrence;
+import kiwi.build.RecurringTask;
 import kiwi.build.Task;
 import kiwi.build.ToDo;
 
@@ -34,6 +42,9 @@ public class Storage {
     /** Directory path for storing Kiwi data files. */
     private String dirPath;
 
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
     /** Full file path for the kiwi.txt data file. */
     private String filePath;
 
@@ -59,7 +70,9 @@ public class Storage {
      * <li>T | done | description</li>
      * <li>D | done | description | date</li>
      * <li>E | done | description | date from-to</li>
+     * <li>R | done | description | date [to time] | interval | last date</li>
      * </ul>
+     * Any of these may end with "| p1" to "| p5" for a task with a priority.
      *
      * Skips corrupted lines and returns empty list if file/directory missing.
      * Marks tasks as done based on stored status.
@@ -67,6 +80,14 @@ public class Storage {
      * @return ArrayList containing all valid tasks from file
      */
     public ArrayList<Task> loadTasks() {
+        TaskFileEvent event = new TaskFileEvent();
+        event.begin();
+        ArrayList<Task> taskList = readTaskFile();
+        event.complete("load", taskList.size(), () -> new File(filePath).length());
+        return taskList;
+    }
+
+    private ArrayList<Task> readTaskFile() {
         File dir = new File(this.dirPath);
         File file = new File(this.filePath);
 
@@ -101,6 +122,37 @@ public class Storage {
      */
     private Task parseTaskLine(String line) {
         String[] parts = line.split("\\|", -1);
+        int priority = parts.length > 3 ? priorityOf(parts[parts.length - 1].trim()) : 0;
+        Task task = parseTaskFields(priority == 0 ? parts : Arrays.copyOf(parts, parts.length - 1));
+        if (task != null) {
+            task.setPriority(priority);
+        }
+        return task;
+    }
+
+    /**
+     * Reads a priority field such as "p2".
+     *
+     * @return the priority, or 0 if the field is not a priority
+     */
+    private static int priorityOf(String field) {
+        if (field.length() != 2 || field.charAt(0) != 'p') {
+            return 0;
+        }
+        int priority = field.charAt(1) - '0';
+        return priority >= Task.HIGHEST_PRIORITY && priority <= Task.LOWEST_PRIORITY ? priority : 0;
+    }
+
+    /**
+     * Builds a Task from already separated storage fields.
+     *
+     * Shared by the kiwi.txt loader and by {@link TaskTransfer} so that every
+     * format maps onto tasks the same way.
+     *
+     * @param parts fields in storage order: type, done flag, description, and date if any
+     * @return Task object if valid, null if corrupted
+     */
+    Task parseTaskFields(String[] parts) {
         for (int i = 0; i < parts.length; i++) {
             parts[i] = parts[i].trim();
         }
@@ -127,7 +179,7 @@ public class Storage {
     /**
      * Creates a Task object based on type and parts.
      *
-     * @param type task type (T, D, E)
+     * @param type task type (T, D, E, R)
      * @param description task description
      * @param parts parsed line parts from storage file
      * @return Task object if valid, null if corrupted
@@ -147,6 +199,9 @@ public class Storage {
             case "E":
                 return parseEventTask(description, parts);
 
+            case "R":
+                return parseRecurringTask(description, parts);
+
             default:
                 return null; // unknown type
             }
@@ -154,11 +209,44 @@ public class Storage {
             // Skip corrupted tasks during load
             return null;
         } catch (IllegalArgumentException e) {
-            // Skip tasks with invalid format during load
+            // Skip tasks with invalid format during load; DateTimeParseException is one too
             return null;
         }
     }
 
+    /**
+     * Parses a RecurringTask from storage format.
+     *
+     * The first occurrence is "yyyy-MM-dd HHmm" for a deadline, or has " to " and an
+     * end time for an event; the end time may be "HHmm" on the same date or a full date/time.
+     * An empty last date means the task repeats forever.
+     *
+     * @param description task description
+     * @param parts parsed line parts from storage file
+     * @return RecurringTask if valid, null if corrupted
+     * @throws KiwiException if the rule is inconsistent
+     */
+    private Task parseRecurringTask(String description, String[] parts) throws KiwiException {
+        if (parts.length < 5) {
+            return null;
+        }
+        Recurrence recurrence = Recurrence.fromKeyword(parts[4]);
+        if (recurrence == null) {
+            return null;
+        }
+
+        String[] times = parts[3].split("\\s+to\\s+", 2);
+        LocalDateTime first = LocalDateTime.parse(times[0].trim(), DATE_TIME_FORMATTER);
+        LocalDateTime end = null;
+        if (times.length == 2) {
+            String to = times[1].trim();
+            end = LocalDateTime.parse(to.length() == 4 ? first.format(DATE_FORMATTER) + " " + to : to,
+                DATE_TIME_FORMATTER);
+        }
+        LocalDate until = parts.length < 6 || parts[5].isEmpty() ? null : LocalDate.parse(parts[5], DATE_FORMATTER);
+        return new RecurringTask(description, first, end, recurrence, until);
+    }
+
     /**
      * Parses an Event task from storage format.
      *
@@ -207,13 +295,26 @@ public class Storage {
      * @throws KiwiException if file I/O fails
      */
     public void saveTasks(ArrayList<Task> taskList) throws KiwiException {
+        TaskFileEvent event = new TaskFileEvent();
+        event.begin();
+        boolean isWritten = writeTaskFile(taskList);
+        // A rewritten file holds exactly the bytes just written
+        event.complete("save", taskList.size(), () -> isWritten ? new File(filePath).length() : 0);
+    }
+
+    /**
+     * Rewrites the task file, unless the list is empty.
+     *
+     * @return true if the file was rewritten
+     */
+    private boolean writeTaskFile(ArrayList<Task> taskList) throws KiwiException {
         try {
             File dataDir = new File(this.dirPath);
             if (!dataDir.exists()) {
                 dataDir.mkdir();
             }
             if (taskList.isEmpty()) {
-                return;
+                return false;
             }
 
             try (FileWriter fw = new FileWriter(filePath);
@@ -222,6 +323,7 @@ public class Storage {
                     .map(this::taskToPipeString)
                     .forEach(pw::println);
             }
+            return true;
         } catch (IOException e) {
             throw new KiwiException("Unable to save tasks to file");
         }
@@ -235,23 +337,42 @@ public class Storage {
      * <li>T | done | description</li>
      * <li>D | done | description | date</li>
      * <li>E | done | description | from date to time</li>
+     * <li>R | done | description | first date [to time] | interval | last date</li>
      * </ul>
+     * followed by "| pN" if the task has a priority.
      *
      * @param task the task to convert
      * @return formatted string for storage
      */
     private String taskToPipeString(Task task) {
+        String[] fields = taskToFields(task);
+        if (fields.length == 0) {
+            return "";
+        }
+        String line = String.join(" | ", fields);
+        return task.getPriority() == 0 ? line : line + " | p" + task.getPriority();
+    }
+
+    /**
+     * Converts a Task object to its storage fields.
+     *
+     * The inverse of {@link #parseTaskFields(String[])}.
+     *
+     * @param task the task to convert
+     * @return fields in storage order, or an empty array for unknown task types
+     */
+    String[] taskToFields(Task task) {
         String isDone = task.getStatusIcon().equals("X") ? "1" : "0";
 
         if (task instanceof ToDo) {
-            return String.format("T | %s | %s", isDone, task.getDescription());
+            return new String[] {"T", isDone, task.getDescription()};
         }
 
         if (task instanceof Deadline) {
             Deadline dl = (Deadline) task;
             String dueDate = dl.getDateTime()
                     .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
-            return String.format("D | %s | %s | %s", isDone, task.getDescription(), dueDate);
+            return new String[] {"D", isDone, task.getDescription(), dueDate};
         }
 
         if (task instanceof Event) {
@@ -263,9 +384,27 @@ public class Storage {
             String toTime = ev.getTo()
                     .format(DateTimeFormatter.ofPattern("HHmm"));
             String timeRange = String.format("%s %s to %s", eventDate, fromTime, toTime);
-            return String.format("E | %s | %s | %s", isDone, task.getDescription(), timeRange);
+            return new String[] {"E", isDone, task.getDescription(), timeRange};
         }
 
-        return "";
+        if (task instanceof RecurringTask) {
+            return recurringToFields((RecurringTask) task, isDone);
+        }
+
+        return new String[0];
+    }
+
+    private static String[] recurringToFields(RecurringTask task, String isDone) {
+        String first = task.getDateTime().format(DATE_TIME_FORMATTER);
+        if (task.isEvent()) {
+            LocalDateTime end = task.getEnd();
+            boolean isSameDay = end.toLocalDate().equals(task.getDateTime().toLocalDate());
+            first += " to " + end.format(isSameDay ? DateTimeFormatter.ofPattern("HHmm") : DATE_TIME_FORMATTER);
+        }
+        String repeat = task.getRecurrence().getKeyword();
+        if (task.getUntil() == null) {
+            return new String[] {"R", isDone, task.getDescription(), first, repeat};
+        }
+        return new String[] {"R", isDone, task.getDescription(), first, repeat, task.getUntil().format(DATE_FORMATTER)};
     }
 }
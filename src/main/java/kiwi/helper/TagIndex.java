@@ -0,0 +1,255 @@
+/**
+ * Bitmap index of tags, task types and completion status behind tag searches and
+ * queries in the Kiwi task manager.
+ *
+ * Every task gets a slot number when it is added. Slots only grow, and tasks are
+ * only ever appended to the list, so slot order is list order. Each tag owns a
+ * {@link CompactBitmap} of the slots of the tasks carrying it, each task type
+ * another, and two more bitmaps hold the done tasks and every live task. A
+ * {@link TagQuery} is then answered with bitmap AND, OR and AND NOT, without
+ * looking at a single task until the matching slots are turned back into tasks;
+ * {@link QueryPlan} combines the same bitmaps for the conditions of a query.
+ *
+ * Deleting a task frees its slot for good. Once more than half of the slots are
+ * free, the next search renumbers the live tasks and rebuilds the bitmaps, so
+ * they stay dense however many tasks come and go.
+ *
+ * @author zow1e
+ * @see TaskList#findTagged(TagQuery)
+ */
+package kiwi.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import kiwi.build.Task;
+
+/**
+ * Tag, done and live bitmaps over task slots.
+ */
+class TagIndex {
+
+    private static final CompactBitmap EMPTY = new CompactBitmap();
+
+    private final Map<String, CompactBitmap> byTag = new HashMap<>();
+    private final Map<Character, CompactBitmap> byType = new HashMap<>();
+    private CompactBitmap done = new CompactBitmap();
+    private CompactBitmap live = new CompactBitmap();
+
+    /** Live tasks, keyed by identity like TaskList itself, with their slots. */
+    private final Map<Task, Entry> entries = new IdentityHashMap<>();
+
+    /** Task in each slot, or null once it has been removed. */
+    private Task[] bySlot = new Task[16];
+    private int nextSlot;
+
+    /**
+     * Indexes a task that was appended to the list.
+     *
+     * @param task the added task
+     */
+    void add(Task task) {
+        Entry entry = entries.get(task);
+        if (entry != null) {
+            entry.copies++;
+            return;
+        }
+        if (nextSlot == bySlot.length) {
+            bySlot = Arrays.copyOf(bySlot, nextSlot * 2);
+        }
+        int slot = nextSlot++;
+        bySlot[slot] = task;
+        entries.put(task, new Entry(slot));
+        index(task, slot);
+    }
+
+    /**
+     * Indexes tasks that were appended to the list, in order.
+     *
+     * @param tasks the added tasks
+     */
+    void addAll(Collection<Task> tasks) {
+        tasks.forEach(this::add);
+    }
+
+    /**
+     * Removes a task that was deleted from the list.
+     *
+     * @param task the deleted task
+     */
+    void remove(Task task) {
+        Entry entry = entries.get(task);
+        if (entry == null || --entry.copies > 0) {
+            return;
+        }
+        entries.remove(task);
+        bySlot[entry.slot] = null;
+        live.remove(entry.slot);
+        done.remove(entry.slot);
+        byType.get(Query.typeOf(task)).remove(entry.slot);
+        for (String tag : task.getTags()) {
+            CompactBitmap slots = byTag.get(tag);
+            slots.remove(entry.slot);
+            if (slots.cardinality() == 0) {
+                byTag.remove(tag);
+            }
+        }
+    }
+
+    /**
+     * Records that a task was marked or unmarked.
+     *
+     * @param task a task in the list
+     */
+    void updateDone(Task task) {
+        Entry entry = entries.get(task);
+        if (entry == null) {
+            return;
+        }
+        if (task.isDone()) {
+            done.add(entry.slot);
+        } else {
+            done.remove(entry.slot);
+        }
+    }
+
+    /**
+     * Removes every task.
+     */
+    void clear() {
+        byTag.clear();
+        byType.clear();
+        done = new CompactBitmap();
+        live = new CompactBitmap();
+        entries.clear();
+        bySlot = new Task[16];
+        nextSlot = 0;
+    }
+
+    /**
+     * Finds the tasks matching a tag query.
+     *
+     * @param query tags the tasks must and must not carry
+     * @return matching tasks in list order
+     */
+    ArrayList<Task> find(TagQuery query) {
+        compact();
+
+        CompactBitmap matches = live;
+        for (List<String> alternatives : query.getRequired()) {
+            CompactBitmap any = EMPTY;
+            for (String tag : alternatives) {
+                any = CompactBitmap.or(any, slotsOf(tag));
+            }
+            matches = CompactBitmap.and(matches, any);
+        }
+        for (String tag : query.getExcluded()) {
+            matches = CompactBitmap.andNot(matches, slotsOf(tag));
+        }
+
+        return tasksOf(matches);
+    }
+
+    /**
+     * Renumbers the live tasks if most slots are free.
+     *
+     * Call before reading bitmaps to combine; bitmaps read earlier are stale afterwards.
+     */
+    void compact() {
+        if (entries.size() * 2 < nextSlot) {
+            renumber();
+        }
+    }
+
+    /**
+     * Returns the slots of every task in the list.
+     *
+     * @return a bitmap the caller must not change
+     */
+    CompactBitmap live() {
+        return live;
+    }
+
+    /**
+     * Returns the slots of the tasks carrying a tag; the tag {@link TagQuery#DONE} means done tasks.
+     *
+     * @param tag lowercase tag name without the '#'
+     * @return a bitmap the caller must not change
+     */
+    CompactBitmap slotsOf(String tag) {
+        return TagQuery.DONE.equals(tag) ? done : byTag.getOrDefault(tag, EMPTY);
+    }
+
+    /**
+     * Returns the slots of the tasks of one type.
+     *
+     * @param type T, D or E, as given by {@link Query#typeOf(Task)}
+     * @return a bitmap the caller must not change
+     */
+    CompactBitmap slotsOfType(char type) {
+        return byType.getOrDefault(type, EMPTY);
+    }
+
+    /**
+     * Returns the tasks in a set of slots.
+     *
+     * @param slots slots of live tasks
+     * @return the tasks in list order
+     */
+    ArrayList<Task> tasksOf(CompactBitmap slots) {
+        ArrayList<Task> tasks = new ArrayList<>(slots.cardinality());
+        slots.forEach(slot -> tasks.add(bySlot[slot]));
+        return tasks;
+    }
+
+    private void index(Task task, int slot) {
+        live.add(slot);
+        if (task.isDone()) {
+            done.add(slot);
+        }
+        byType.computeIfAbsent(Query.typeOf(task), t -> new CompactBitmap()).add(slot);
+        for (String tag : task.getTags()) {
+            byTag.computeIfAbsent(tag, t -> new CompactBitmap()).add(slot);
+        }
+    }
+
+    /**
+     * Gives the live tasks consecutive slots, in order, and rebuilds the bitmaps.
+     */
+    private void renumber() {
+        Task[] old = bySlot;
+        int oldCount = nextSlot;
+        byTag.clear();
+        byType.clear();
+        done = new CompactBitmap();
+        live = new CompactBitmap();
+        bySlot = new Task[Math.max(16, entries.size())];
+        nextSlot = 0;
+        for (int i = 0; i < oldCount; i++) {
+            Task task = old[i];
+            if (task != null) {
+                int slot = nextSlot++;
+                bySlot[slot] = task;
+                entries.get(task).slot = slot;
+                index(task, slot);
+            }
+        }
+    }
+
+    /**
+     * Slot and copy count of a task in the list.
+     */
+    private static class Entry {
+        private int slot;
+        private int copies = 1;
+
+        Entry(int slot) {
+            this.slot = slot;
+        }
+    }
+}
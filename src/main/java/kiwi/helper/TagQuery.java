@@ -0,0 +1,73 @@
+/**
+ * A search by tags in the Kiwi task manager, such as {@code find #work #urgent -#done}.
+ *
+ * Each {@code #tag} term must be carried by a matching task; terms joined by
+ * {@code |} (e.g. {@code #work|#home}) need only one of their tags, and a
+ * {@code -#tag} term rules out tasks carrying it. The reserved tag {@code #done}
+ * stands for tasks marked as done. Queries are created by {@link Parser} and
+ * answered from bitmaps by {@link TaskList#findTagged(TagQuery)}.
+ *
+ * @author zow1e
+ * @see kiwi.build.Task#parseTags(String)
+ */
+package kiwi.helper;
+
+import java.util.List;
+
+/**
+ * Required and excluded tags of a tag search.
+ */
+public class TagQuery {
+
+    /** Tag that matches tasks marked as done rather than tasks tagged with it. */
+    public static final String DONE = "done";
+
+    private final List<List<String>> required;
+    private final List<String> excluded;
+
+    /**
+     * Creates a query from lowercase tag names without the '#'.
+     *
+     * @param required groups of alternative tags; a task needs one tag of every group
+     * @param excluded tags a task must not carry
+     */
+    TagQuery(List<List<String>> required, List<String> excluded) {
+        this.required = required;
+        this.excluded = excluded;
+    }
+
+    /**
+     * Returns the groups of alternative tags, one of each of which a task must carry.
+     *
+     * @return lowercase tag names without the '#'
+     */
+    public List<List<String>> getRequired() {
+        return required;
+    }
+
+    /**
+     * Returns the tags a matching task must not carry.
+     *
+     * @return lowercase tag names without the '#'
+     */
+    public List<String> getExcluded() {
+        return excluded;
+    }
+
+    /**
+     * Returns the search in its normalized written form.
+     *
+     * @return the tag terms as they could be typed after "find"
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (List<String> group : required) {
+            text.append(text.length() == 0 ? "" : " ").append('#').append(String.join("|#", group));
+        }
+        for (String tag : excluded) {
+            text.append(text.length() == 0 ? "" : " ").append("-#").append(tag);
+        }
+        return text.toString();
+    }
+}
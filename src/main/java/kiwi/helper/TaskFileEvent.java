@@ -0,0 +1,57 @@
+/**
+ * Flight Recorder event for reading or writing the Kiwi task file.
+ *
+ * @author zow1e
+ * @see Storage
+ * @see CommandEvent
+ */
+package kiwi.helper;
+
+import java.util.function.LongSupplier;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Duration and size of one load or save of kiwi.txt.
+ */
+@Name("kiwi.TaskFile")
+@Label("Kiwi Task File")
+@Category("Kiwi")
+@Description("Loading or saving the task file")
+public class TaskFileEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    @Label("Bytes")
+    @DataAmount
+    @Description("Bytes read from or written to the file")
+    private long bytes;
+
+    /**
+     * Ends the event and commits it if a recording wants it.
+     *
+     * The byte count is only looked up when the event is committed.
+     *
+     * @param operation "load" or "save"
+     * @param taskCount number of tasks read or written
+     * @param bytes returns the number of bytes read or written
+     */
+    public void complete(String operation, int taskCount, LongSupplier bytes) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.taskCount = taskCount;
+            this.bytes = bytes.getAsLong();
+            commit();
+        }
+    }
+}
@@ -3,18 +3,38 @@
  *
  * Encapsulates all task list operations: add, delete, mark/unmark, find, and list.
  * Uses 1-based indexing for user-facing operations (delete 1 = remove first task).
+ * Recurring tasks stay one entry each; their occurrences are only expanded for the
+ * window asked for by {@link #occurrencesBetween(LocalDateTime, LocalDateTime)}.
+ *
+ * Typo-tolerant search uses a {@link FuzzyIndex} of description words. It is built
+ * on the first fuzzy find, so startup does not pay for it, and from then on it is
+ * updated by every add and delete made through this class. Autocompletion of
+ * descriptions uses a {@link PrefixTree} kept up to date the same way once
+ * {@link #enableCompletions()} has been called. Tag searches use a {@link TagIndex}
+ * of bitmaps, built on the first tag search and also updated by mark and unmark.
+ * The {@code next} command reads a {@link NextQueue} maintained in the same way,
+ * and sorted listings read the trees of {@link SortedViews}. Queries are planned
+ * over these same indexes by {@link QueryPlan}. Every change also bumps a version
+ * number, which tells a {@link ResultCache} when its responses have gone stale.
  *
  * @author zow1e
  * @see Task
  * @see kiwi.build.ToDo
  * @see kiwi.build.Deadline
  * @see kiwi.build.Event
+ * @see kiwi.build.RecurringTask
  */
 package kiwi.helper;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 
+import kiwi.build.Event;
+import kiwi.build.RecurringTask;
 import kiwi.build.Task;
 
 /**
@@ -25,6 +45,24 @@ public class TaskList {
     /** The underlying ArrayList storing all tasks. */
     private ArrayList<Task> tasks;
 
+    /** Word index for fuzzy find, or null until the first fuzzy find. */
+    private FuzzyIndex fuzzyIndex;
+
+    /** Tag and done bitmaps for tag searches, or null until the first tag search. */
+    private TagIndex tagIndex;
+
+    /** Undone tasks in "do next" order, or null until next is first asked for. */
+    private NextQueue nextQueue;
+
+    /** Trees behind sorted listings, or null until the first sorted listing. */
+    private SortedViews sortedViews;
+
+    /** Descriptions for autocompletion, or null until completions are enabled; read from any thread. */
+    private volatile PrefixTree descriptions;
+
+    /** Number of changes made through this class. */
+    private long version;
+
     /**
      * Creates an empty TaskList.
      *
@@ -52,6 +90,17 @@ public class TaskList {
      */
     public void add(Task task) {
         tasks.add(task);
+        onAdded(task);
+    }
+
+    /**
+     * Adds a batch of tasks to the end of the task list in one operation.
+     *
+     * @param batch tasks to add, in order
+     */
+    public void addAll(Collection<Task> batch) {
+        tasks.addAll(batch);
+        batch.forEach(this::onAdded);
     }
 
     /**
@@ -64,7 +113,95 @@ public class TaskList {
      * @throws IndexOutOfBoundsException if index is invalid
      */
     public Task delete(int index) {
-        return tasks.remove(index - 1);
+        Task deleted = tasks.remove(index - 1);
+        onRemoved(deleted);
+        return deleted;
+    }
+
+    /**
+     * Deletes every task.
+     */
+    public void clear() {
+        tasks.clear();
+        version++;
+        if (fuzzyIndex != null) {
+            fuzzyIndex.clear();
+        }
+        if (tagIndex != null) {
+            tagIndex.clear();
+        }
+        if (nextQueue != null) {
+            nextQueue.clear();
+        }
+        if (sortedViews != null) {
+            sortedViews.clear();
+        }
+        if (descriptions != null) {
+            descriptions.clear();
+        }
+    }
+
+    /** Keeps the search indexes in step with a task appended to the list. */
+    private void onAdded(Task task) {
+        version++;
+        if (fuzzyIndex != null) {
+            fuzzyIndex.add(task);
+        }
+        if (tagIndex != null) {
+            tagIndex.add(task);
+        }
+        if (nextQueue != null) {
+            nextQueue.add(task);
+        }
+        if (sortedViews != null) {
+            sortedViews.add(task);
+        }
+        if (descriptions != null) {
+            descriptions.add(task.getDescription());
+        }
+    }
+
+    /** Keeps the search indexes in step with a task removed from the list. */
+    private void onRemoved(Task task) {
+        version++;
+        if (fuzzyIndex != null) {
+            fuzzyIndex.remove(task);
+        }
+        if (tagIndex != null) {
+            tagIndex.remove(task);
+        }
+        if (nextQueue != null) {
+            nextQueue.remove(task);
+        }
+        if (sortedViews != null) {
+            sortedViews.remove(task);
+        }
+        if (descriptions != null) {
+            descriptions.remove(task.getDescription());
+        }
+    }
+
+    /** Keeps the indexes that depend on completion in step with a task that was marked or unmarked. */
+    private void onStatusChanged(Task task) {
+        version++;
+        if (tagIndex != null) {
+            tagIndex.updateDone(task);
+        }
+        if (nextQueue != null) {
+            nextQueue.updateDone(task);
+        }
+        if (sortedViews != null) {
+            sortedViews.updateDone(task);
+        }
+    }
+
+    /**
+     * Returns the version of the list, which changes with every add, delete, mark, unmark and clear.
+     *
+     * @return a number that is the same for two reads only if the list did not change between them
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
@@ -77,6 +214,7 @@ public class TaskList {
     public Task mark(int index) {
         Task t = tasks.get(index - 1);
         t.markTask();
+        onStatusChanged(t);
         return t;
     }
 
@@ -90,9 +228,76 @@ public class TaskList {
     public Task unmark(int index) {
         Task t = tasks.get(index - 1);
         t.unmarkTask();
+        onStatusChanged(t);
         return t;
     }
 
+    /**
+     * Marks every selected task as done.
+     *
+     * @param selection the tasks to mark
+     * @return the marked tasks in list order
+     * @throws IndexOutOfBoundsException if the selection exceeds the list, in which case nothing is marked
+     */
+    public ArrayList<Task> markAll(TaskSelection selection) {
+        ArrayList<Task> marked = collect(selection.resolve(tasks));
+        marked.forEach(Task::markTask);
+        marked.forEach(this::onStatusChanged);
+        return marked;
+    }
+
+    /**
+     * Marks every selected task as not done.
+     *
+     * @param selection the tasks to unmark
+     * @return the unmarked tasks in list order
+     * @throws IndexOutOfBoundsException if the selection exceeds the list, in which case nothing is unmarked
+     */
+    public ArrayList<Task> unmarkAll(TaskSelection selection) {
+        ArrayList<Task> unmarked = collect(selection.resolve(tasks));
+        unmarked.forEach(Task::unmarkTask);
+        unmarked.forEach(this::onStatusChanged);
+        return unmarked;
+    }
+
+    /**
+     * Deletes every selected task in a single compaction pass.
+     *
+     * Remaining tasks are shifted down once each instead of once per deleted task,
+     * so the whole operation is O(n) regardless of how many tasks are removed.
+     *
+     * @param selection the tasks to delete
+     * @return the deleted tasks in their original list order
+     * @throws IndexOutOfBoundsException if the selection exceeds the list, in which case nothing is deleted
+     */
+    public ArrayList<Task> deleteAll(TaskSelection selection) {
+        boolean[] selected = selection.resolve(tasks);
+        ArrayList<Task> deleted = new ArrayList<>();
+
+        int write = 0;
+        for (int read = 0; read < selected.length; read++) {
+            Task t = tasks.get(read);
+            if (selected[read]) {
+                deleted.add(t);
+            } else {
+                tasks.set(write++, t);
+            }
+        }
+        tasks.subList(write, tasks.size()).clear();
+        deleted.forEach(this::onRemoved);
+        return deleted;
+    }
+
+    private ArrayList<Task> collect(boolean[] selected) {
+        ArrayList<Task> result = new ArrayList<>();
+        for (int i = 0; i < selected.length; i++) {
+            if (selected[i]) {
+                result.add(tasks.get(i));
+            }
+        }
+        return result;
+    }
+
     /**
      * Returns the complete list of tasks.
      *
@@ -114,14 +319,246 @@ public class TaskList {
     /**
      * Finds all tasks whose description contains the given keyword.
      *
-     * Case-insensitive search. Returns empty list if no matches.
+     * Case-insensitive search. Returns empty list if no matches. Long lists are
+     * scanned in parallel by {@link ParallelScan}, with matches still in list order.
      *
      * @param keyword search keyword (trimmed, case-insensitive)
      * @return ArrayList of matching tasks
      */
     public ArrayList<Task> find(String keyword) {
-        return (ArrayList<Task>) tasks.stream()
-            .filter(t -> t.getDescription().toLowerCase().contains(keyword))
-            .collect(Collectors.toList());
+        FindEvent event = new FindEvent();
+        event.begin();
+        ArrayList<Task> matches = ParallelScan.COMMON.filter(tasks,
+            t -> t.getDescription().toLowerCase().contains(keyword));
+        event.complete(tasks.size(), matches.size());
+        return matches;
+    }
+
+    /**
+     * Finds all tasks with a description word within a few typos of each word of the keyword.
+     *
+     * Words of up to 2 characters must match exactly, up to 5 characters may differ
+     * by one edit and longer words by two. The first call indexes the whole list.
+     *
+     * @param keyword one or more words, case-insensitive
+     * @return matching tasks, fewest typos first and then in list order
+     */
+    public ArrayList<Task> findFuzzy(String keyword) {
+        FindEvent event = new FindEvent();
+        event.begin();
+        ArrayList<Task> matches = fuzzyIndex().find(keyword);
+        event.complete(tasks.size(), matches.size());
+        return matches;
+    }
+
+    /**
+     * Finds all tasks matching a tag search such as "#work #urgent -#done".
+     *
+     * Answered with bitmap operations over the tag index, so the cost depends on
+     * the number of tags in the query and of matches, not on a scan of the list.
+     * The first call indexes the whole list.
+     *
+     * @param query tags the tasks must and must not carry
+     * @return matching tasks in list order
+     */
+    public ArrayList<Task> findTagged(TagQuery query) {
+        FindEvent event = new FindEvent();
+        event.begin();
+        ArrayList<Task> matches = tagIndex().find(query);
+        event.complete(tasks.size(), matches.size());
+        return matches;
+    }
+
+    /**
+     * Finds all tasks matching a query, in its order and up to its limit.
+     *
+     * The query is planned first: the index offering the fewest candidates for
+     * the parts of its condition supplies the tasks, and the other parts filter
+     * them. Without a useful index the list is scanned. Indexes the query can
+     * use are built the first time they are needed.
+     *
+     * @param query the condition, order and limit
+     * @return the matching tasks
+     */
+    public ArrayList<Task> query(Query query) {
+        FindEvent event = new FindEvent();
+        event.begin();
+        ArrayList<Task> matches = QueryPlan.plan(query, this).execute();
+        event.complete(tasks.size(), matches.size());
+        return matches;
+    }
+
+    /**
+     * Describes how a query would be answered, without running it.
+     *
+     * @param query the condition, order and limit
+     * @return the chosen plan and the index paths weighed against it, one per line
+     */
+    public String explain(Query query) {
+        return QueryPlan.plan(query, this).explain();
+    }
+
+    /**
+     * Returns the undone tasks to do next: by priority, then by due or start time.
+     *
+     * Tasks without a priority come after all prioritized ones and undated tasks
+     * after dated ones; ties keep list order. Read from a heap that add, delete,
+     * mark and unmark keep up to date, so no call sorts the list. The first call
+     * builds the heap.
+     *
+     * @param count the maximum number of tasks to return
+     * @return up to {@code count} undone tasks, most urgent first
+     */
+    public ArrayList<Task> next(int count) {
+        if (nextQueue == null) {
+            nextQueue = new NextQueue();
+            nextQueue.addAll(tasks);
+        }
+        return nextQueue.peek(count);
+    }
+
+    /**
+     * Returns a read-only view of the list in a sort order.
+     *
+     * Ties keep list order. The view follows later changes to the list, and a
+     * run of k tasks read through {@code subList} costs O(log n + k). The first
+     * request for an order sorts the list once; later changes keep it sorted.
+     *
+     * @param order how to sort the tasks
+     * @return the tasks in that order
+     */
+    public List<Task> sorted(SortOrder order) {
+        if (order == SortOrder.CREATED) {
+            return Collections.unmodifiableList(tasks);
+        }
+        return sortedViews().view(order, tasks);
+    }
+
+    /** Returns the fuzzy word index, building it on first use. */
+    FuzzyIndex fuzzyIndex() {
+        if (fuzzyIndex == null) {
+            fuzzyIndex = new FuzzyIndex();
+            fuzzyIndex.addAll(tasks);
+        }
+        return fuzzyIndex;
+    }
+
+    /** Returns the tag bitmap index, building it on first use. */
+    TagIndex tagIndex() {
+        if (tagIndex == null) {
+            tagIndex = new TagIndex();
+            tagIndex.addAll(tasks);
+        }
+        return tagIndex;
+    }
+
+    /** Returns the sorted view trees, setting them up on first use. */
+    SortedViews sortedViews() {
+        if (sortedViews == null) {
+            sortedViews = new SortedViews();
+            sortedViews.addAll(tasks);
+        }
+        return sortedViews;
+    }
+
+    /**
+     * Builds the description index used by {@link #completeDescription(String, int)}.
+     *
+     * Call it on the thread that changes this list; does nothing if already built.
+     */
+    public void enableCompletions() {
+        if (descriptions != null) {
+            return;
+        }
+        PrefixTree tree = new PrefixTree();
+        tasks.forEach(task -> tree.add(task.getDescription()));
+        descriptions = tree;
+    }
+
+    /**
+     * Returns descriptions of tasks in the list that start with a prefix, ignoring case.
+     *
+     * Safe to call from any thread; each call only walks the prefix and the results.
+     *
+     * @param prefix the typed start of a description
+     * @param limit the maximum number of descriptions to return
+     * @return distinct descriptions in alphabetical order, or none until completions are enabled
+     */
+    public List<String> completeDescription(String prefix, int limit) {
+        PrefixTree tree = descriptions;
+        return tree == null ? new ArrayList<>() : tree.complete(prefix, limit);
+    }
+
+    /**
+     * Lists every deadline, event and recurring occurrence that falls in a time window.
+     *
+     * Only recurring tasks are expanded, and only for the window, so a wide list of
+     * rules costs one entry per occurrence shown rather than per occurrence stored.
+     *
+     * @param from start of the window (inclusive)
+     * @param to end of the window (exclusive)
+     * @return the occurrences ordered by time, ties kept in list order
+     */
+    public ArrayList<Occurrence> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Occurrence> occurrences = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            int number = i + 1;
+            if (task instanceof RecurringTask) {
+                RecurringTask recurring = (RecurringTask) task;
+                recurring.occurrencesBetween(from, to).forEach(time ->
+                    occurrences.add(new Occurrence(number, time, recurring.formatOccurrence(time))));
+                continue;
+            }
+            LocalDateTime time = task instanceof Event ? ((Event) task).getFrom() : task.getDateTime();
+            if (time != null && !time.isBefore(from) && time.isBefore(to)) {
+                occurrences.add(new Occurrence(number, time, task.toString()));
+            }
+        }
+        occurrences.sort(Comparator.comparing(Occurrence::getTime));
+        return occurrences;
+    }
+
+    /**
+     * One dated entry in a window of the task list.
+     */
+    public static class Occurrence {
+        private final int number;
+        private final LocalDateTime time;
+        private final String text;
+
+        private Occurrence(int number, LocalDateTime time, String text) {
+            this.number = number;
+            this.time = time;
+            this.text = text;
+        }
+
+        /**
+         * Returns the 1-based number of the task this occurrence belongs to.
+         *
+         * @return the task number
+         */
+        public int getNumber() {
+            return number;
+        }
+
+        /**
+         * Returns when this occurrence is due or starts.
+         *
+         * @return the due or start time
+         */
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        /**
+         * Returns the occurrence displayed like a one-off task.
+         *
+         * @return formatted occurrence
+         */
+        @Override
+        public String toString() {
+            return text;
+        }
     }
 }
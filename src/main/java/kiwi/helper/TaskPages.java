@@ -0,0 +1,112 @@
+/**
+ * Splits a long list of tasks into numbered pages of text for the Kiwi GUI.
+ *
+ * A list or find result with tens of thousands of tasks would otherwise be joined
+ * into one multi-megabyte string and laid out as a single label. Each page is only
+ * formatted when it is requested, so the first rows are ready in constant time no
+ * matter how long the result is. Each page is read with one {@code subList} call,
+ * which sorted views answer without visiting the tasks before the page.
+ *
+ * Pages shown in the GUI remember the version of the task list they were taken
+ * from. Once the list changes, the rows of unread pages may have shifted and their
+ * numbers no longer match the list, so the next page only says so and ends the
+ * paging.
+ *
+ * @author zow1e
+ * @see Gui
+ */
+package kiwi.helper;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import kiwi.build.Task;
+
+/**
+ * Iterator over the pages of a task list, formatted one page at a time.
+ */
+public class TaskPages implements Iterator<String> {
+
+    /** Number of tasks shown in each page. */
+    public static final int PAGE_SIZE = 200;
+
+    /** Text of the page that replaces the rest once the list has changed. */
+    static final String STALE_MESSAGE = "The task list has changed since these tasks were shown. "
+        + "Run the command again to see the rest.";
+
+    private final List<Task> tasks;
+    private final int pageSize;
+
+    /** List whose changes make unread pages stale, or null if the tasks never go stale. */
+    private final TaskList source;
+
+    /** Version of {@link #source} the tasks were taken from. */
+    private final long version;
+
+    /** 0-based index of the first task on the next page. */
+    private int next;
+
+    /**
+     * Creates pages over the given tasks.
+     *
+     * The list is read lazily, so callers should pass a list that is not modified while paging.
+     *
+     * @param tasks the tasks to page through, in display order
+     * @param pageSize number of tasks per page
+     */
+    public TaskPages(List<Task> tasks, int pageSize) {
+        this(tasks, pageSize, 0, null);
+    }
+
+    /**
+     * Creates pages over tasks taken from the current version of a task list.
+     *
+     * @param tasks the tasks to page through, in display order; may be a live view of the list
+     * @param pageSize number of tasks per page
+     * @param next 0-based index of the first task on the next page, after any already shown
+     * @param source the list the tasks were taken from, or null if they never go stale
+     */
+    TaskPages(List<Task> tasks, int pageSize, int next, TaskList source) {
+        assert pageSize > 0 : "Page size should be positive";
+        this.tasks = tasks;
+        this.pageSize = pageSize;
+        this.next = next;
+        this.source = source;
+        this.version = source == null ? 0 : source.getVersion();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next < tasks.size();
+    }
+
+    /**
+     * Formats the next page, headed by the range of tasks it covers.
+     *
+     * @return the page text, with tasks numbered by their position in the whole list,
+     *     or {@link #STALE_MESSAGE} as the last page if the list has changed
+     * @throws NoSuchElementException if every page has been returned
+     */
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (source != null && source.getVersion() != version) {
+            next = tasks.size();
+            return STALE_MESSAGE;
+        }
+        int end = Math.min(next + pageSize, tasks.size());
+        StringBuilder page = new StringBuilder(64 * (end - next));
+        page.append(next == 0 ? "Here are the tasks" : "More tasks")
+            .append(" (showing ").append(next + 1).append('-').append(end)
+            .append(" of ").append(tasks.size()).append("):");
+        int number = next;
+        for (Task task : tasks.subList(next, end)) {
+            page.append('\n').append(++number).append(". ").append(task);
+        }
+        next = end;
+        return page.toString();
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Describes which tasks a mark, unmark or delete command applies to.
+ *
+ * A selection is either a set of 1-based index ranges (e.g. "3,7,9-20") or a
+ * condition on completion status (e.g. "where done"). Selections are created by
+ * {@link Parser} and resolved against a {@link TaskList} in a single pass.
+ *
+ * @author zow1e
+ * @see Parser
+ * @see TaskList
+ */
+package kiwi.helper;
+
+import java.util.List;
+
+import kiwi.build.Task;
+
+/**
+ * Set of tasks targeted by an index command.
+ */
+public class TaskSelection {
+
+    /** Inclusive 1-based range bounds stored as start/end pairs. */
+    private final int[] bounds;
+
+    /** Required completion status for condition selections, null for index selections. */
+    private final Boolean matchDone;
+
+    private TaskSelection(int[] bounds, Boolean matchDone) {
+        this.bounds = bounds;
+        this.matchDone = matchDone;
+    }
+
+    /**
+     * Creates a selection covering the given inclusive 1-based ranges.
+     *
+     * @param bounds start/end pairs, each start at least 1 and not after its end
+     * @return selection over the ranges
+     */
+    public static TaskSelection ofRanges(int[] bounds) {
+        assert bounds.length > 0 && bounds.length % 2 == 0 : "Ranges must come in start/end pairs";
+        return new TaskSelection(bounds, null);
+    }
+
+    /**
+     * Creates a selection covering a single 1-based index.
+     *
+     * @param index 1-based task index
+     * @return selection over the single index
+     */
+    public static TaskSelection ofIndex(int index) {
+        return ofRanges(new int[] {index, index});
+    }
+
+    /**
+     * Creates a selection of all tasks with the given completion status.
+     *
+     * @param isDone true to select done tasks, false to select undone tasks
+     * @return selection over matching tasks
+     */
+    public static TaskSelection whereDone(boolean isDone) {
+        return new TaskSelection(new int[0], isDone);
+    }
+
+    /**
+     * Returns whether this selection refers to exactly one index.
+     *
+     * @return true for a plain single-index selection
+     */
+    public boolean isSingle() {
+        return matchDone == null && bounds.length == 2 && bounds[0] == bounds[1];
+    }
+
+    /**
+     * Returns the first selected index of an index selection.
+     *
+     * @return 1-based index of the first range start
+     */
+    public int getFirstIndex() {
+        assert matchDone == null : "Condition selections have no fixed index";
+        return bounds[0];
+    }
+
+    /**
+     * Resolves this selection against a list of tasks.
+     *
+     * Every range is validated before anything is selected, so an out-of-bounds
+     * range leaves the caller free to abort without partial changes.
+     *
+     * @param tasks the tasks to select from
+     * @return flags indexed by 0-based position, true where the task is selected
+     * @throws IndexOutOfBoundsException if any range exceeds the list size
+     */
+    boolean[] resolve(List<Task> tasks) {
+        boolean[] selected = new boolean[tasks.size()];
+
+        if (matchDone != null) {
+            for (int i = 0; i < selected.length; i++) {
+                selected[i] = tasks.get(i).isDone() == matchDone;
+            }
+            return selected;
+        }
+
+        for (int i = 1; i < bounds.length; i += 2) {
+            if (bounds[i] > selected.length) {
+                throw new IndexOutOfBoundsException("Task " + bounds[i] + " does not exist");
+            }
+        }
+        for (int i = 0; i < bounds.length; i += 2) {
+            for (int index = bounds[i]; index <= bounds[i + 1]; index++) {
+                selected[index - 1] = true;
+            }
+        }
+        return selected;
+    }
+}
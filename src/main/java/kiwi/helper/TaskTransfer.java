@@ -0,0 +1,534 @@
+/**
+ * Imports and exports tasks as CSV or iCalendar files for the Kiwi task manager.
+ *
+ * Import runs as a streaming pipeline: records are read in fixed-size batches,
+ * each batch is parsed in parallel, duplicates are dropped through a hash lookup
+ * on the description, and survivors are appended to the {@link TaskList} in one go.
+ * Only one batch is held in memory at a time, so arbitrarily large files can be read.
+ *
+ * Both formats reuse the field mapping in {@link Storage}, so CSV rows have the
+ * same columns as kiwi.txt: type, done, description, date. Recurring tasks add two
+ * columns, interval and last date, and become an RRULE in iCalendar files.
+ *
+ * @author zow1e
+ * @see Storage
+ * @see TaskList
+ */
+package kiwi.helper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import kiwi.build.Deadline;
+import kiwi.build.Event;
+import kiwi.build.Recurrence;
+import kiwi.build.RecurringTask;
+import kiwi.build.Task;
+
+/**
+ * Streams tasks between a TaskList and external CSV/ICS files.
+ */
+public class TaskTransfer {
+
+    /** Number of records parsed and inserted together. */
+    private static final int BATCH_SIZE = 10_000;
+
+    /** CSV header written on export and skipped on import. */
+    private static final String CSV_HEADER = "type,done,description,date";
+
+    private static final DateTimeFormatter STORAGE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final DateTimeFormatter ICS_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter ICS_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final Storage storage;
+
+    /**
+     * Constructs a TaskTransfer that maps records through the given storage.
+     *
+     * @param storage storage whose task field mapping is reused
+     */
+    public TaskTransfer(Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Summary of a finished import.
+     */
+    public static class Report {
+        private final long read;
+        private final long imported;
+        private final long duplicates;
+        private final long elapsedMillis;
+
+        private Report(long read, long imported, long duplicates, long elapsedMillis) {
+            this.read = read;
+            this.imported = imported;
+            this.duplicates = duplicates;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        public long getInvalid() {
+            return read - imported - duplicates;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    /**
+     * Imports tasks from a .csv or .ics file into the task list.
+     *
+     * Tasks whose description matches an existing or earlier imported task
+     * (case-insensitive) are skipped, as are records that cannot be mapped to a task.
+     *
+     * @param fileName path of the file to read
+     * @param tasks the task list to append to
+     * @param progress receives a throughput line after every batch
+     * @return counts of imported, duplicate and invalid records
+     * @throws KiwiException if the file type is unsupported or cannot be read
+     */
+    public Report importTasks(String fileName, TaskList tasks, Consumer<String> progress) throws KiwiException {
+        Path file = toPath(fileName);
+        boolean isCalendar = isCalendar(file);
+        long start = System.nanoTime();
+
+        HashSet<String> seen = new HashSet<>();
+        tasks.getTasks().forEach(t -> seen.add(t.getDescription().toLowerCase()));
+
+        long read = 0;
+        long imported = 0;
+        long duplicates = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            IcsLineReader icsReader = isCalendar ? new IcsLineReader(reader) : null;
+            List<String[]> batch = new ArrayList<>(BATCH_SIZE);
+            boolean hasMore = true;
+
+            while (hasMore) {
+                hasMore = isCalendar ? readIcsBatch(icsReader, batch) : readCsvBatch(reader, batch);
+                read += batch.size();
+
+                List<Task> parsed = batch.parallelStream()
+                    .map(storage::parseTaskFields)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+
+                ArrayList<Task> accepted = new ArrayList<>(parsed.size());
+                for (Task t : parsed) {
+                    if (seen.add(t.getDescription().toLowerCase())) {
+                        accepted.add(t);
+                    } else {
+                        duplicates++;
+                    }
+                }
+                tasks.addAll(accepted);
+                imported += accepted.size();
+                batch.clear();
+
+                progress.accept(formatProgress(read, imported, System.nanoTime() - start));
+            }
+        } catch (NoSuchFileException e) {
+            throw new KiwiException("File not found: " + file);
+        } catch (IOException e) {
+            throw new KiwiException("Unable to import tasks from " + file);
+        }
+
+        return new Report(read, imported, duplicates, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Exports every task in the list to a .csv or .ics file.
+     *
+     * Tasks are written one at a time through a buffered writer, so no full
+     * copy of the output is built in memory.
+     *
+     * @param fileName path of the file to write, replaced if it exists
+     * @param tasks the tasks to export
+     * @return number of tasks written
+     * @throws KiwiException if the file type is unsupported or cannot be written
+     */
+    public int exportTasks(String fileName, TaskList tasks) throws KiwiException {
+        Path file = toPath(fileName);
+        boolean isCalendar = isCalendar(file);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (isCalendar) {
+                writeIcs(writer, tasks.getTasks());
+            } else {
+                writeCsv(writer, tasks.getTasks());
+            }
+        } catch (IOException e) {
+            throw new KiwiException("Unable to export tasks to " + file);
+        }
+        return tasks.size();
+    }
+
+    private static Path toPath(String fileName) throws KiwiException {
+        try {
+            return Path.of(fileName);
+        } catch (InvalidPathException e) {
+            throw new KiwiException("Invalid file path: '" + fileName + "'");
+        }
+    }
+
+    private static boolean isCalendar(Path file) throws KiwiException {
+        // A root such as "/" has no file name at all
+        Path fileName = file.getFileName() == null ? file : file.getFileName();
+        String name = file.getFileName() == null ? "" : fileName.toString().toLowerCase();
+        if (name.endsWith(".ics")) {
+            return true;
+        }
+        if (name.endsWith(".csv")) {
+            return false;
+        }
+        throw new KiwiException("Unsupported file type: '" + fileName + "'\n"
+            + "Use a .csv or .ics file");
+    }
+
+    private static String formatProgress(long read, long imported, long elapsedNanos) {
+        long rate = elapsedNanos == 0 ? 0 : read * 1_000_000_000L / elapsedNanos;
+        return "... read " + read + " records, imported " + imported + " (" + rate + " records/s)";
+    }
+
+    private static boolean readCsvBatch(BufferedReader reader, List<String[]> batch) throws IOException {
+        String line;
+        while (batch.size() < BATCH_SIZE && (line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith(CSV_HEADER)) {
+                continue;
+            }
+            batch.add(splitCsv(line));
+        }
+        return batch.size() == BATCH_SIZE;
+    }
+
+    /**
+     * Splits one CSV line into fields, honouring double-quoted fields and "" escapes.
+     */
+    static String[] splitCsv(String line) {
+        ArrayList<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (isQuoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    isQuoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                isQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private void writeCsv(BufferedWriter writer, List<Task> tasks) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.newLine();
+        for (Task task : tasks) {
+            String[] fields = storage.taskToFields(task);
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(quoteCsv(fields[i]));
+            }
+            writer.newLine();
+        }
+    }
+
+    private static String quoteCsv(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Reads VTODO and VEVENT components into storage fields.
+     *
+     * Deadlines are VTODOs with a DUE date, todos are VTODOs without one, and
+     * events are VEVENTs. Folded lines are joined before properties are read.
+     * A component with a plain daily, weekly or monthly RRULE becomes a recurring task.
+     */
+    private static boolean readIcsBatch(IcsLineReader reader, List<String[]> batch) throws IOException {
+        String component = null;
+        String summary = "";
+        String status = "";
+        String start = null;
+        String end = null;
+        String due = null;
+        String rule = null;
+        boolean isDoneEvent = false;
+
+        String line = reader.next();
+        while (line != null) {
+            if (line.startsWith("BEGIN:VTODO") || line.startsWith("BEGIN:VEVENT")) {
+                component = line.substring("BEGIN:".length()).trim();
+                summary = "";
+                status = "";
+                start = null;
+                end = null;
+                due = null;
+                rule = null;
+                isDoneEvent = false;
+            } else if (component != null && line.startsWith("END:" + component)) {
+                String[] fields = toFields(component, summary, isDoneEvent ? "COMPLETED" : status, start, end, due);
+                batch.add(rule == null ? fields : toRecurringFields(fields, rule));
+                component = null;
+                if (batch.size() == BATCH_SIZE) {
+                    return true;
+                }
+            } else if (component != null) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    String name = line.substring(0, colon);
+                    int param = name.indexOf(';');
+                    name = (param < 0 ? name : name.substring(0, param)).toUpperCase();
+                    String value = line.substring(colon + 1);
+
+                    switch (name) {
+                    case "SUMMARY":
+                        summary = unescapeIcs(value);
+                        break;
+                    case "STATUS":
+                        status = value.trim();
+                        break;
+                    case "DTSTART":
+                        start = value.trim();
+                        break;
+                    case "DTEND":
+                        end = value.trim();
+                        break;
+                    case "DUE":
+                        due = value.trim();
+                        break;
+                    case "RRULE":
+                        rule = value.trim();
+                        break;
+                    case "X-KIWI-DONE":
+                        isDoneEvent = value.trim().equalsIgnoreCase("TRUE");
+                        break;
+                    default:
+                        break;
+                    }
+                }
+            }
+            line = reader.next();
+        }
+        return false;
+    }
+
+    private static String[] toFields(String component, String summary, String status,
+            String start, String end, String due) {
+        String isDone = status.equalsIgnoreCase("COMPLETED") ? "1" : "0";
+
+        if (component.equals("VEVENT")) {
+            String from = fromIcsDate(start);
+            String to = fromIcsDate(end == null ? start : end);
+            if (from == null || to == null) {
+                return new String[] {"E", isDone, summary};
+            }
+            return new String[] {"E", isDone, summary, from + " to " + to.substring(to.length() - 4)};
+        }
+
+        String dueDate = fromIcsDate(due);
+        return dueDate == null
+            ? new String[] {"T", isDone, summary}
+            : new String[] {"D", isDone, summary, dueDate};
+    }
+
+    /**
+     * Turns the fields of a dated deadline or event into a recurring task.
+     *
+     * Rules Kiwi cannot express, such as an INTERVAL, COUNT or BYDAY part, keep only the first occurrence.
+     *
+     * @param fields storage fields of the first occurrence
+     * @param rule the RRULE value
+     * @return recurring task fields, or the given fields if the rule is not supported
+     */
+    private static String[] toRecurringFields(String[] fields, String rule) {
+        if (fields.length < 4 || fields[0].equals("T")) {
+            return fields;
+        }
+        Recurrence recurrence = null;
+        String until = "";
+        for (String part : rule.split(";")) {
+            int eq = part.indexOf('=');
+            String name = eq < 0 ? part : part.substring(0, eq).toUpperCase();
+            String value = eq < 0 ? "" : part.substring(eq + 1);
+            if (name.equals("FREQ")) {
+                recurrence = Recurrence.fromKeyword(value);
+            } else if (name.equals("UNTIL") && fromIcsDate(value) != null) {
+                until = fromIcsDate(value).substring(0, "yyyy-MM-dd".length());
+            } else {
+                return fields;
+            }
+        }
+        if (recurrence == null) {
+            return fields;
+        }
+        return new String[] {"R", fields[1], fields[2], fields[3], recurrence.getKeyword(), until};
+    }
+
+    private static String fromIcsDate(String value) {
+        return fromIcsDate(value, ZoneId.systemDefault());
+    }
+
+    /**
+     * Converts an iCalendar date or date-time to the storage format.
+     *
+     * A time ending in "Z" is in UTC and is converted to the local zone; any other
+     * time is already local.
+     *
+     * @param value the iCalendar value, e.g. 20260301T090000Z
+     * @param local the zone tasks are kept in
+     * @return the date and time as "yyyy-MM-dd HHmm", or null if the value is not a valid date
+     */
+    static String fromIcsDate(String value, ZoneId local) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            boolean isUtc = value.endsWith("Z");
+            String plain = isUtc ? value.substring(0, value.length() - 1) : value;
+            LocalDateTime dateTime = plain.length() == 8
+                ? LocalDate.parse(plain, ICS_DATE_FORMAT).atStartOfDay()
+                : LocalDateTime.parse(plain, ICS_FORMAT);
+            if (isUtc) {
+                dateTime = dateTime.atOffset(ZoneOffset.UTC).atZoneSameInstant(local).toLocalDateTime();
+            }
+            return dateTime.format(STORAGE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads iCalendar content lines, joining folded continuation lines.
+     */
+    private static class IcsLineReader {
+        private final BufferedReader reader;
+        private String pending;
+
+        IcsLineReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            this.pending = reader.readLine();
+        }
+
+        String next() throws IOException {
+            String line = pending;
+            if (line == null) {
+                return null;
+            }
+
+            StringBuilder unfolded = null;
+            pending = reader.readLine();
+            while (pending != null && !pending.isEmpty()
+                    && (pending.charAt(0) == ' ' || pending.charAt(0) == '\t')) {
+                if (unfolded == null) {
+                    unfolded = new StringBuilder(line);
+                }
+                unfolded.append(pending, 1, pending.length());
+                pending = reader.readLine();
+            }
+            return unfolded == null ? line : unfolded.toString();
+        }
+    }
+
+    private void writeIcs(BufferedWriter writer, List<Task> tasks) throws IOException {
+        writer.write("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//Kiwi//Task Manager//EN\r\n");
+        int uid = 0;
+        for (Task task : tasks) {
+            RecurringTask recurring = task instanceof RecurringTask ? (RecurringTask) task : null;
+            boolean isEvent = task instanceof Event || recurring != null && recurring.isEvent();
+            String component = isEvent ? "VEVENT" : "VTODO";
+
+            writer.write("BEGIN:" + component + "\r\n");
+            writer.write("UID:kiwi-" + (++uid) + "\r\n");
+            writer.write("SUMMARY:" + escapeIcs(task.getDescription()) + "\r\n");
+            if (recurring != null) {
+                writeRecurrence(writer, recurring);
+            } else if (isEvent) {
+                Event ev = (Event) task;
+                writer.write("DTSTART:" + ev.getFrom().format(ICS_FORMAT) + "\r\n");
+                writer.write("DTEND:" + ev.getTo().format(ICS_FORMAT) + "\r\n");
+            } else if (task instanceof Deadline) {
+                writer.write("DUE:" + task.getDateTime().format(ICS_FORMAT) + "\r\n");
+            }
+            if (task.isDone()) {
+                // VEVENT has no COMPLETED status, so done events carry a private property
+                writer.write(isEvent ? "X-KIWI-DONE:TRUE\r\n" : "STATUS:COMPLETED\r\n");
+            }
+            writer.write("END:" + component + "\r\n");
+        }
+        writer.write("END:VCALENDAR\r\n");
+    }
+
+    private static void writeRecurrence(BufferedWriter writer, RecurringTask task) throws IOException {
+        writer.write("DTSTART:" + task.getDateTime().format(ICS_FORMAT) + "\r\n");
+        if (task.isEvent()) {
+            writer.write("DTEND:" + task.getEnd().format(ICS_FORMAT) + "\r\n");
+        } else {
+            writer.write("DUE:" + task.getDateTime().format(ICS_FORMAT) + "\r\n");
+        }
+        String until = task.getUntil() == null ? "" : ";UNTIL=" + task.getUntil().format(ICS_DATE_FORMAT) + "T235959";
+        writer.write("RRULE:FREQ=" + task.getRecurrence().name() + until + "\r\n");
+    }
+
+    private static String escapeIcs(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n");
+    }
+
+    private static String unescapeIcs(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                sb.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -4,14 +4,29 @@
  * Displays welcome messages, task lists, operation feedback, and errors using
  * consistent formatting with 1-based task numbering.
  *
+ * Output goes through one buffered writer rather than straight to System.out,
+ * which locks and flushes on every line. Callers decide when output is visible
+ * by calling {@link #flush()}, normally once at the end of each command.
+ * Reminders arrive on another thread; they wait for the command being run to
+ * finish, between {@link #beginCommand()} and {@link #endCommand()}, so they
+ * never land inside a line of its output or a prompt.
+ *
  * @author zow1e
  * @see Task
  * @see TaskList
  */
 package kiwi.helper;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.stream.IntStream;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 import kiwi.build.Task;
 
@@ -20,6 +35,139 @@ import kiwi.build.Task;
  */
 public class Ui {
 
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM d yyyy");
+
+    /** Held while a command writes output, and by each reminder. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Buffered standard output; nothing reaches the console until it is flushed. */
+    private final PrintWriter console;
+
+    /** Where command output is written: the console, or the console and a recording; swapped under the lock. */
+    private PrintWriter out;
+
+    /** Copy of the output since recording started, or null when not recording. */
+    private StringWriter recording;
+
+    /**
+     * Creates a Ui that writes to standard output.
+     */
+    public Ui() {
+        this(new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), BUFFER_SIZE), false));
+    }
+
+    /**
+     * Creates a Ui that writes to the given writer.
+     *
+     * @param out where console output is written; flushed only by {@link #flush()}
+     */
+    Ui(PrintWriter out) {
+        this.console = out;
+        this.out = out;
+    }
+
+    /**
+     * Starts copying output, which still reaches the console as before.
+     */
+    public void startRecording() {
+        lock.lock();
+        try {
+            recording = new StringWriter();
+            out = new PrintWriter(new Tee(console, recording), false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops copying output.
+     *
+     * @return the output written since {@link #startRecording()}
+     */
+    public String stopRecording() {
+        lock.lock();
+        try {
+            out.flush();
+            String text = recording.toString();
+            out = console;
+            recording = null;
+            return text;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts writing the output of one command; reminders wait until {@link #endCommand()}.
+     */
+    public void beginCommand() {
+        lock.lock();
+    }
+
+    /**
+     * Makes the output of the command visible and lets waiting reminders through.
+     */
+    public void endCommand() {
+        try {
+            out.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a reminder and makes it visible at once, between commands. Safe to call from any thread.
+     *
+     * @param alert the reminder text
+     */
+    public void showReminder(String alert) {
+        lock.lock();
+        try {
+            // Straight to the console, so a reminder is never part of a recorded response
+            console.println(alert + "\n");
+            console.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes all output written so far visible.
+     */
+    public void flush() {
+        out.flush();
+    }
+
+    /**
+     * Writes text without a line break, e.g. a prompt. Call {@link #flush()} before waiting for input.
+     *
+     * @param text the text to write
+     */
+    public void print(String text) {
+        out.print(text);
+    }
+
+    /**
+     * Writes a line of text.
+     *
+     * @param text the line to write
+     */
+    public void println(String text) {
+        out.println(text);
+    }
+
+    /**
+     * Writes an error to standard error, after flushing pending output so the two streams stay in order.
+     *
+     * @param message the error message
+     */
+    public void showError(String message) {
+        out.flush();
+        System.err.println(message);
+    }
+
     /**
      * Displays the welcome message when Kiwi starts.
      *
@@ -28,28 +176,57 @@ public class Ui {
      * What can i do for you?
      */
     public void showWelcome() {
-        System.out.println("Hello! I'm Kiwi");
-        System.out.println("What can i do for you?");
+        out.println("Hello! I'm Kiwi");
+        out.println("What can i do for you?");
     }
 
     /**
      * Displays all tasks in the given list with 1-based numbering.
      *
-     * Shows "No tasks yet!" if list is empty.
+     * Shows "No tasks yet!" if list is empty. Each line is written piece by piece,
+     * so no per-line or whole-list strings are built.
      *
      * @param tasks list of tasks to display
      */
     public void showTasks(ArrayList<Task> tasks) {
         if (tasks.isEmpty()) {
-            System.out.println("No tasks yet!");
+            out.println("No tasks yet!");
         } else {
-            System.out.println("Here are your tasks:");
-            for (int i = 0; i < tasks.size(); i++) {
-                Task currItem = tasks.get(i);
-                System.out.println((i + 1) + ". " + currItem.toString());
-            }
+            out.println("Here are your tasks:");
+            writeNumbered(tasks);
+        }
+        out.println("\n");
+    }
+
+    /**
+     * Displays the whole task list in a sort order, numbered by position in that order.
+     *
+     * The view is read with one {@code subList} call, so no task is looked up by index.
+     *
+     * @param sorted a read-only view of the tasks in that order
+     * @param order the order of the view
+     */
+    public void showSortedTasks(List<Task> sorted, SortOrder order) {
+        if (sorted.isEmpty()) {
+            out.println("No tasks yet!");
+        } else {
+            out.println("Here are your tasks by " + order.getKeyword() + ":");
+            writeNumbered(sorted.subList(0, sorted.size()));
+        }
+        out.println("\n");
+    }
+
+    /**
+     * Writes tasks one per line as "n. task", numbered from 1.
+     *
+     * @param tasks the tasks to write
+     */
+    private void writeNumbered(List<Task> tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            out.print(i + 1);
+            out.print(". ");
+            out.println(tasks.get(i));
         }
-        System.out.println("\n");
     }
 
     /**
@@ -59,8 +236,8 @@ public class Ui {
      * @param total current total number of tasks after adding
      */
     public void showAddTask(Task task, int total) {
-        System.out.println("Added: " + task.toString());
-        System.out.println("There are now " + total + " tasks in the list\n");
+        out.println("Added: " + task.toString());
+        out.println("There are now " + total + " tasks in the list\n");
     }
 
     /**
@@ -69,7 +246,7 @@ public class Ui {
      * @param task the marked task
      */
     public void showMarked(Task task) {
-        System.out.println("Great! Marked this as done!!\n" + task.toString() + "\n");
+        out.println("Great! Marked this as done!!\n" + task.toString() + "\n");
     }
 
     /**
@@ -78,7 +255,7 @@ public class Ui {
      * @param task the unmarked task
      */
     public void showUnmarked(Task task) {
-        System.out.println("ok... marked this as not done...\n" + task.toString() + "\n");
+        out.println("ok... marked this as not done...\n" + task.toString() + "\n");
     }
 
     /**
@@ -88,8 +265,75 @@ public class Ui {
      * @param size current total number of tasks after deletion
      */
     public void showDeleted(Task task, int size) {
-        System.out.println("Deletion done for:\n" + task.toString() + "\n");
-        System.out.println("There are now " + size + " tasks in the list");
+        out.println("Deletion done for:\n" + task.toString() + "\n");
+        out.println("There are now " + size + " tasks in the list");
+    }
+
+    /**
+     * Shows confirmation when several tasks are marked as done in one command.
+     *
+     * @param tasks the marked tasks
+     */
+    public void showMarkedAll(ArrayList<Task> tasks) {
+        out.println("Great! Marked " + tasks.size() + " tasks as done!!");
+        tasks.forEach(out::println);
+        out.println();
+    }
+
+    /**
+     * Shows confirmation when several tasks are unmarked in one command.
+     *
+     * @param tasks the unmarked tasks
+     */
+    public void showUnmarkedAll(ArrayList<Task> tasks) {
+        out.println("ok... marked " + tasks.size() + " tasks as not done...");
+        tasks.forEach(out::println);
+        out.println();
+    }
+
+    /**
+     * Shows confirmation when several tasks are deleted in one command.
+     *
+     * @param tasks the deleted tasks
+     * @param size current total number of tasks after deletion
+     */
+    public void showDeletedAll(ArrayList<Task> tasks, int size) {
+        out.println("Deletion done for " + tasks.size() + " tasks:");
+        tasks.forEach(out::println);
+        out.println();
+        out.println("There are now " + size + " tasks in the list");
+    }
+
+    /**
+     * Shows the outcome of an import.
+     *
+     * @param report counts from the finished import
+     * @param total current total number of tasks after importing
+     */
+    public void showImported(TaskTransfer.Report report, int total) {
+        out.println(formatImportReport(report));
+        out.println("There are now " + total + " tasks in the list\n");
+    }
+
+    /**
+     * Shows the outcome of an export.
+     *
+     * @param count number of tasks written
+     * @param file the file written to
+     */
+    public void showExported(int count, String file) {
+        out.println("Exported " + count + " tasks to " + file + "\n");
+    }
+
+    /**
+     * Formats the counts of a finished import.
+     *
+     * @param report counts from the finished import
+     * @return one-line import summary
+     */
+    public static String formatImportReport(TaskTransfer.Report report) {
+        return "Imported " + report.getImported() + " tasks in " + report.getElapsedMillis() + " ms ("
+            + report.getDuplicates() + " duplicates, " + report.getInvalid() + " invalid records skipped)";
     }
 
     /**
@@ -99,7 +343,7 @@ public class Ui {
      * Byebye. Hope to see you again soon!
      */
     public void showBye() {
-        System.out.println("\nByebye. Hope to see you again soon!");
+        out.println("\nByebye. Hope to see you again soon!");
     }
 
     /**
@@ -110,15 +354,98 @@ public class Ui {
      * @param matches list of matching tasks from search
      */
     public void showMatchingTasks(ArrayList<Task> matches) {
-        System.out.println("Here are the matching tasks in your list:");
+        out.println("Here are the matching tasks in your list:");
         if (matches.isEmpty()) {
-            System.out.println("No matching tasks found.");
+            out.println("No matching tasks found.");
         } else {
-            IntStream.range(0, matches.size())
-                .mapToObj(index -> (index + 1) + ". " + matches.get(index))
-                .forEach(System.out::println);
+            writeNumbered(matches);
         }
-        System.out.println();
+        out.println();
+    }
+
+    /**
+     * Displays the undone tasks to do next, most urgent first.
+     *
+     * @param next the tasks, in order
+     */
+    public void showNextTasks(ArrayList<Task> next) {
+        out.println(formatNextTasks(next));
+        out.println();
+    }
+
+    /**
+     * Displays how a query would be answered.
+     *
+     * @param plan the plan described one step per line
+     */
+    public void showQueryPlan(String plan) {
+        out.println(plan);
+        out.println();
+    }
+
+    /**
+     * Formats the undone tasks to do next; shared by the CLI and GUI.
+     *
+     * @param next the tasks, most urgent first
+     * @return the tasks numbered from 1, or a note that nothing is left to do
+     */
+    public static String formatNextTasks(ArrayList<Task> next) {
+        if (next.isEmpty()) {
+            return "Nothing left to do!";
+        }
+        StringBuilder text = new StringBuilder("Here is what to do next:");
+        for (int i = 0; i < next.size(); i++) {
+            text.append('\n').append(i + 1).append(". ").append(next.get(i));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Displays completions for a partially typed command, one per line.
+     *
+     * @param completions the completed input lines
+     */
+    public void showCompletions(List<String> completions) {
+        if (completions.isEmpty()) {
+            out.println("No completions found.");
+        } else {
+            out.println("Completions:");
+            completions.forEach(completion -> out.println("  " + completion));
+        }
+        out.println();
+    }
+
+    /**
+     * Displays the dated tasks in a window of days, numbered by their place in the task list.
+     *
+     * @param occurrences the occurrences in the window, ordered by time
+     * @param first first day of the window
+     * @param last last day of the window
+     */
+    public void showSchedule(ArrayList<TaskList.Occurrence> occurrences, LocalDate first, LocalDate last) {
+        out.println(formatSchedule(occurrences, first, last));
+        out.println();
+    }
+
+    /**
+     * Formats the dated tasks in a window of days; shared by the CLI and GUI.
+     *
+     * @param occurrences the occurrences in the window, ordered by time
+     * @param first first day of the window
+     * @param last last day of the window
+     * @return the schedule text, one occurrence per line
+     */
+    public static String formatSchedule(ArrayList<TaskList.Occurrence> occurrences, LocalDate first,
+            LocalDate last) {
+        String window = first.format(DATE_FORMATTER) + " to " + last.format(DATE_FORMATTER);
+        if (occurrences.isEmpty()) {
+            return "Nothing scheduled from " + window + ".";
+        }
+        StringBuilder schedule = new StringBuilder("Here is your schedule from " + window + ":");
+        for (TaskList.Occurrence occurrence : occurrences) {
+            schedule.append('\n').append(occurrence.getNumber()).append(". ").append(occurrence);
+        }
+        return schedule.toString();
     }
 
     /**
@@ -134,10 +461,53 @@ public class Ui {
         help.append("deadline <description> /by yyyy-MM-dd HHmm\n");
         help.append("  Example: deadline CS2103T /by 2026-02-15 2359\n\n");
         help.append("event <description> /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm\n");
-        help.append("  Example: event meeting /from 2026-02-12 1400 /to 2026-02-12 1600\n\n");
+        help.append("  Example: event meeting /from 2026-02-12 1400 /to 2026-02-12 1600\n");
+        help.append("  Deadlines and events repeat with /every daily|weekly|monthly [/until yyyy-MM-dd]\n\n");
         help.append("mark <task number>     unmark <task number>\n");
         help.append("delete <task number>   find <keyword>\n");
+        help.append("  Numbers also take lists and ranges: delete 3,7,9-20\n");
+        help.append("  Or a condition: delete where done\n");
+        help.append("  find ~<keyword> also matches words with a typo or two\n");
+        help.append("  find #work #urgent|#soon -#done searches by #tags written in descriptions\n");
+        help.append("next [n]               (undone tasks by priority, then date)\n");
+        help.append("list /sort deadline|created|desc|done\n");
+        help.append("query type:D and not done and due:2026-03-01..2026-03-31 order by deadline limit 10\n");
+        help.append("  Conditions: type:T|D|E done undone #tag desc:text due:FROM..TO, with and/or/not ( )\n");
+        help.append("  explain <query> shows which index answers it\n");
+        help.append("  end todo, deadline or event with /p 1 to /p 5 to set a priority (1 is most urgent)\n");
+        help.append("import <file.csv|.ics> export <file.csv|.ics>\n");
         help.append("list                   clear                  help\n");
+        help.append("list /from yyyy-MM-dd /to yyyy-MM-dd   (dated tasks and repeats in a window)\n");
+        help.append("stats                  (command latencies for this session)\n");
+        help.append("Tab completes commands and task descriptions (in the console: Tab, then Enter)\n");
         return help.toString();
     }
+
+    /**
+     * Writer that passes everything to the console and a recording.
+     */
+    private static class Tee extends Writer {
+        private final PrintWriter console;
+        private final StringWriter recording;
+
+        Tee(PrintWriter console, StringWriter recording) {
+            this.console = console;
+            this.recording = recording;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            console.write(chars, offset, length);
+            recording.write(chars, offset, length);
+        }
+
+        /** Does nothing: when the console is flushed stays up to {@link Ui#flush()}. */
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
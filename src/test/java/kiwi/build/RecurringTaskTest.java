@@ -0,0 +1,63 @@
+package kiwi.build;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.helper.KiwiException;
+
+public class RecurringTaskTest {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(2026, 1, 31, 9, 0);
+
+    @Test
+    public void toString_deadlineRule_correctFormat() throws KiwiException {
+        RecurringTask rent = new RecurringTask("rent", FIRST, null, Recurrence.MONTHLY, LocalDate.of(2026, 12, 31));
+        assertEquals("[R][D][ ] rent (by: Jan 31 2026 0900, monthly until Dec 31 2026)", rent.toString());
+    }
+
+    @Test
+    public void occurrencesBetween_monthlyOn31st_clampsWithoutDrifting() throws KiwiException {
+        RecurringTask rent = new RecurringTask("rent", FIRST, null, Recurrence.MONTHLY, null);
+
+        List<LocalDateTime> occurrences = rent.occurrencesBetween(LocalDateTime.of(2026, 2, 1, 0, 0),
+            LocalDateTime.of(2026, 5, 1, 0, 0)).collect(Collectors.toList());
+
+        assertEquals(List.of(LocalDateTime.of(2026, 2, 28, 9, 0), LocalDateTime.of(2026, 3, 31, 9, 0),
+            LocalDateTime.of(2026, 4, 30, 9, 0)), occurrences);
+    }
+
+    @Test
+    public void occurrencesBetween_farWindow_skipsToWindowAndStopsAtUntil() throws KiwiException {
+        RecurringTask standup = new RecurringTask("standup", FIRST, FIRST.plusMinutes(15), Recurrence.DAILY,
+            LocalDate.of(2030, 6, 2));
+
+        List<LocalDateTime> occurrences = standup.occurrencesBetween(LocalDateTime.of(2030, 6, 1, 0, 0),
+            LocalDateTime.of(2030, 7, 1, 0, 0)).collect(Collectors.toList());
+
+        assertEquals(List.of(LocalDateTime.of(2030, 6, 1, 9, 0), LocalDateTime.of(2030, 6, 2, 9, 0)), occurrences);
+        assertEquals("[E][ ] standup (at: Jun 1 2030 0900 - 0915)", standup.formatOccurrence(occurrences.get(0)));
+    }
+
+    @Test
+    public void nextOccurrence_atAnOccurrence_returnsTheOneAfter() throws KiwiException {
+        RecurringTask review = new RecurringTask("review", FIRST, null, Recurrence.WEEKLY, LocalDate.of(2026, 2, 14));
+
+        assertEquals(FIRST, review.nextOccurrence(FIRST.minusDays(3)));
+        assertEquals(FIRST.plusWeeks(1), review.nextOccurrence(FIRST));
+        assertNull(review.nextOccurrence(FIRST.plusWeeks(2)));
+    }
+
+    @Test
+    public void constructor_untilBeforeFirst_throwsException() {
+        assertThrows(KiwiException.class, () ->
+            new RecurringTask("rent", FIRST, null, Recurrence.MONTHLY, LocalDate.of(2026, 1, 1)));
+    }
+}
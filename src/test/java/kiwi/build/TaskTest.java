@@ -0,0 +1,22 @@
+package kiwi.build;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskTest {
+
+    @Test
+    public void parseTags_description_distinctLowercaseTags() {
+        assertEquals(List.of("work", "q3-report"), Task.parseTags("#Work on #q3-report, #work again"));
+        assertTrue(Task.parseTags("issue#12 and # alone").isEmpty());
+    }
+
+    @Test
+    public void constructor_taggedDescription_readsTags() {
+        assertEquals(List.of("work"), new ToDo("file #work report").getTags());
+    }
+}
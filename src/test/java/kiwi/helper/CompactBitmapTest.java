@@ -0,0 +1,81 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class CompactBitmapTest {
+
+    /** Values spread over three blocks, dense enough in one to need a bitmap container. */
+    private static BitSet randomSet(Random random, int count) {
+        BitSet set = new BitSet();
+        for (int i = 0; i < count; i++) {
+            set.set(random.nextInt(3 * 65536));
+        }
+        return set;
+    }
+
+    private static CompactBitmap toBitmap(BitSet set) {
+        CompactBitmap bitmap = new CompactBitmap();
+        set.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static void assertSameValues(BitSet expected, CompactBitmap actual) {
+        List<Integer> values = new ArrayList<>();
+        actual.forEach(values::add);
+        assertEquals(expected.stream().boxed().collect(Collectors.toList()), values);
+        assertEquals(expected.cardinality(), actual.cardinality());
+    }
+
+    @Test
+    public void setOperations_sparseAndDense_matchBitSet() {
+        Random random = new Random(7);
+        for (int count : new int[] {50, 5_000, 100_000}) {
+            BitSet a = randomSet(random, count);
+            BitSet b = randomSet(random, 20_000);
+
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            BitSet andNot = (BitSet) a.clone();
+            andNot.andNot(b);
+
+            assertSameValues(and, CompactBitmap.and(toBitmap(a), toBitmap(b)));
+            assertSameValues(or, CompactBitmap.or(toBitmap(a), toBitmap(b)));
+            assertSameValues(andNot, CompactBitmap.andNot(toBitmap(a), toBitmap(b)));
+        }
+    }
+
+    @Test
+    public void remove_denseBlockShrinks_staysCorrect() {
+        CompactBitmap bitmap = new CompactBitmap();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.add(70_000 + i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            bitmap.remove(70_000 + i);
+        }
+        bitmap.remove(5);
+
+        assertEquals(5_000, bitmap.cardinality());
+        assertTrue(bitmap.contains(70_001));
+        assertFalse(bitmap.contains(70_002));
+
+        for (int i = 1; i < 10_000; i += 2) {
+            bitmap.remove(70_000 + i);
+        }
+        assertEquals(0, bitmap.cardinality());
+        bitmap.add(3);
+        assertTrue(bitmap.contains(3));
+    }
+}
@@ -0,0 +1,65 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.ToDo;
+
+public class CompleterTest {
+
+    private TaskList createTasks() {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDo("read report"));
+        tasks.add(new ToDo("read book"));
+        tasks.add(new ToDo("buy milk"));
+        return tasks;
+    }
+
+    @Test
+    public void complete_firstWord_completesKeywords() {
+        Completer completer = new Completer(createTasks());
+
+        assertEquals(List.of("deadline", "delete"), completer.complete("de"));
+        assertEquals(List.of("todo"), completer.complete("TO"));
+        assertTrue(completer.complete("todo").isEmpty());
+        assertTrue(completer.complete("  ").isEmpty());
+    }
+
+    @Test
+    public void complete_description_completesExistingTasks() {
+        TaskList tasks = createTasks();
+        tasks.enableCompletions();
+        Completer completer = new Completer(tasks);
+
+        assertEquals(List.of("todo read book", "todo read report"), completer.complete("todo rea"));
+        assertEquals(List.of("find read book"), completer.complete("find  read b"));
+        assertTrue(completer.complete("todo read book").isEmpty());
+
+        tasks.add(new ToDo("read news"));
+        tasks.delete(1);
+        assertEquals(List.of("todo read book", "todo read news"), completer.complete("todo rea"));
+    }
+
+    @Test
+    public void complete_descriptionsNotEnabled_onlyKeywords() {
+        Completer completer = new Completer(createTasks());
+
+        assertTrue(completer.complete("todo rea").isEmpty());
+        assertEquals(List.of("todo"), completer.complete("tod"));
+    }
+
+    @Test
+    public void complete_commandWithoutDescription_nothing() {
+        TaskList tasks = createTasks();
+        tasks.enableCompletions();
+        Completer completer = new Completer(tasks);
+
+        assertTrue(completer.complete("mark re").isEmpty());
+        assertTrue(completer.complete("find ~rea").isEmpty());
+        assertTrue(completer.complete("nonsense rea").isEmpty());
+    }
+}
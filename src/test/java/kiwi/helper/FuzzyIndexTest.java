@@ -0,0 +1,78 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Task;
+import kiwi.build.ToDo;
+
+public class FuzzyIndexTest {
+
+    private final Task read = new ToDo("read report");
+    private final Task write = new ToDo("write reprot draft");
+    private final Task tool = new ToDo("reporting tool");
+
+    private FuzzyIndex createIndex() {
+        FuzzyIndex index = new FuzzyIndex();
+        index.addAll(List.of(write, read, tool));
+        return index;
+    }
+
+    @Test
+    public void find_typo_rankedByDistanceThenListOrder() {
+        assertEquals(List.of(read, write), createIndex().find("Report"));
+        assertEquals(List.of(write, read), createIndex().find("reprot"));
+    }
+
+    @Test
+    public void find_severalWords_everyWordMustMatch() {
+        assertEquals(List.of(read), createIndex().find("reed reprot"));
+        assertTrue(createIndex().find("reed tool").isEmpty());
+    }
+
+    @Test
+    public void find_shortWord_needsExactMatch() {
+        FuzzyIndex index = new FuzzyIndex();
+        index.add(new ToDo("go to gym"));
+
+        assertEquals(1, index.find("to").size());
+        assertTrue(index.find("do").isEmpty());
+    }
+
+    @Test
+    public void remove_deletedTasks_notFoundAndBranchesPruned() {
+        FuzzyIndex index = createIndex();
+        index.remove(read);
+        index.remove(write);
+
+        assertTrue(index.find("report").isEmpty());
+        assertEquals(List.of(tool), index.find("reportin"));
+
+        index.add(read);
+        assertEquals(List.of(read), index.find("report"));
+    }
+
+    @Test
+    public void remove_manyTasksSharingAWord_keepsTheRest() {
+        FuzzyIndex index = new FuzzyIndex();
+        Task[] tasks = new Task[10];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new ToDo("errand " + i);
+            index.add(tasks[i]);
+        }
+        for (int i = 0; i < 8; i++) {
+            index.remove(tasks[i]);
+        }
+
+        assertEquals(List.of(tasks[8], tasks[9]), index.find("erand"));
+    }
+
+    @Test
+    public void wordsOf_punctuationAndCase_splitIntoDistinctWords() {
+        assertEquals(List.of("cs2103t", "ip", "week"), FuzzyIndex.wordsOf("CS2103T iP, week-IP!"));
+    }
+}
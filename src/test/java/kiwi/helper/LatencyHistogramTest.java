@@ -0,0 +1,42 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketOf_anyValue_upperBoundWithinOneSixteenth() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+        for (long value : values) {
+            long upper = LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(value));
+            assertTrue(upper >= value, "upper bound below " + value);
+            assertTrue(upper - value <= value / 16, "bucket too wide for " + value);
+        }
+    }
+
+    @Test
+    public void getPercentile_uniformValues_withinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean());
+        assertTrue(Math.abs(histogram.getPercentile(50) - 500) <= 500 / 16);
+        assertTrue(Math.abs(histogram.getPercentile(99) - 990) <= 990 / 16);
+        assertEquals(1000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void getPercentile_empty_returnsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMax());
+    }
+}
@@ -0,0 +1,99 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Deadline;
+import kiwi.build.Event;
+import kiwi.build.Task;
+import kiwi.build.ToDo;
+
+public class NextQueueTest {
+
+    private static Task withPriority(Task task, int priority) {
+        task.setPriority(priority);
+        return task;
+    }
+
+    @Test
+    public void peek_priorityThenDateThenListOrder() throws KiwiException {
+        Task chores = new ToDo("chores");
+        Task urgentTodo = withPriority(new ToDo("urgent todo"), 1);
+        Task urgentLate = withPriority(new Deadline("urgent late", LocalDateTime.of(2026, 5, 1, 9, 0)), 1);
+        Task urgentSoon = withPriority(new Event("urgent soon", LocalDateTime.of(2026, 4, 1, 9, 0),
+            LocalDateTime.of(2026, 4, 1, 10, 0)), 1);
+        Task low = withPriority(new ToDo("low"), 3);
+        Task dated = new Deadline("dated", LocalDateTime.of(2026, 1, 1, 9, 0));
+        NextQueue queue = new NextQueue();
+        queue.addAll(List.of(chores, urgentTodo, urgentLate, urgentSoon, low, dated));
+
+        assertEquals(List.of(urgentSoon, urgentLate, urgentTodo, low, dated, chores), queue.peek(10));
+        assertEquals(List.of(urgentSoon, urgentLate), queue.peek(2));
+    }
+
+    @Test
+    public void updateDoneAndRemove_keepOnlyUndoneTasks() {
+        Task first = withPriority(new ToDo("first"), 2);
+        Task second = withPriority(new ToDo("second"), 2);
+        Task third = new ToDo("third");
+        NextQueue queue = new NextQueue();
+        queue.add(first);
+        queue.add(second);
+        queue.add(third);
+
+        first.markTask();
+        queue.updateDone(first);
+        assertEquals(List.of(second, third), queue.peek(5));
+
+        first.unmarkTask();
+        queue.updateDone(first);
+        queue.remove(second);
+        assertEquals(List.of(first, third), queue.peek(5));
+
+        queue.clear();
+        assertTrue(queue.peek(5).isEmpty());
+    }
+
+    @Test
+    public void peek_afterRandomChanges_matchesSortedList() {
+        Random random = new Random(3);
+        NextQueue queue = new NextQueue();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Task task = withPriority(new ToDo("task " + i), random.nextInt(Task.LOWEST_PRIORITY + 1));
+            tasks.add(task);
+            queue.add(task);
+        }
+        for (int i = 0; i < 3_000; i++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            if (random.nextInt(4) == 0) {
+                tasks.remove(task);
+                queue.remove(task);
+            } else {
+                if (task.isDone()) {
+                    task.unmarkTask();
+                } else {
+                    task.markTask();
+                }
+                queue.updateDone(task);
+            }
+        }
+
+        Comparator<Task> byPriority = Comparator.comparingInt(task -> task.getPriority() == 0 ? 9 : task.getPriority());
+        List<Task> expected = tasks.stream()
+            .filter(task -> !task.isDone())
+            .sorted(byPriority)
+            .limit(50)
+            .collect(Collectors.toList());
+        assertEquals(expected, queue.peek(50));
+    }
+}
@@ -0,0 +1,45 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Task;
+import kiwi.build.ToDo;
+
+public class ParallelScanTest {
+
+    @Test
+    public void filter_splitAcrossWorkers_keepsListOrder() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new ToDo((i % 3 == 0 ? "report " : "task ") + i));
+        }
+        Predicate<Task> isReport = t -> t.getDescription().startsWith("report");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelScan scan = new ParallelScan(pool, 7);
+            assertEquals(28, scan.threshold());
+            assertEquals(tasks.stream().filter(isReport).collect(Collectors.toList()), scan.filter(tasks, isReport));
+            assertEquals(tasks.subList(0, 5), scan.filter(tasks.subList(0, 5), t -> true));
+            assertEquals(new ArrayList<Task>(), scan.filter(tasks, t -> false));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void threshold_singleWorker_neverSplits() {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            assertEquals(Integer.MAX_VALUE, new ParallelScan(pool, ParallelScan.MIN_LEAF).threshold());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
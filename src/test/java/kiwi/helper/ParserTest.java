@@ -1,10 +1,19 @@
 package kiwi.helper;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import kiwi.build.Recurrence;
+
 
 public class ParserTest {
     @Test
@@ -50,4 +59,174 @@ public class ParserTest {
     public void parse_markInvalidNumber_throwsException() {
         assertThrows(KiwiException.class, () -> Parser.parse("mark abc"));
     }
+
+    @Test
+    public void parse_deleteRanges_bulkSelection() throws KiwiException {
+        Parser p = Parser.parse("delete 3,7,9-20");
+        assertEquals("delete", p.getType());
+        assertEquals("3,7,9-20", p.getArg(0));
+        assertFalse(p.getSelection().isSingle());
+    }
+
+    @Test
+    public void parse_markSingle_singleSelection() throws KiwiException {
+        Parser p = Parser.parse("mark 2");
+        assertEquals("2", p.getArg(0));
+        assertTrue(p.getSelection().isSingle());
+        assertEquals(2, p.getSelection().getFirstIndex());
+    }
+
+    @Test
+    public void parse_reversedRange_throwsException() {
+        assertThrows(KiwiException.class, () -> Parser.parse("mark 5-2"));
+    }
+
+    @Test
+    public void parse_unknownCondition_throwsException() {
+        assertThrows(KiwiException.class, () -> Parser.parse("delete where later"));
+    }
+
+    @Test
+    public void parse_mixedCaseKeyword_typedCommand() throws KiwiException {
+        assertEquals(CommandType.LIST, Parser.parse("LiSt").getCommandType());
+        assertEquals(CommandType.TODO, Parser.parse("TODO read").getCommandType());
+    }
+
+    @Test
+    public void parse_eventTimeOnlyTo_usesFromDate() throws KiwiException {
+        Parser p = Parser.parse("event party /from 2026-01-31 1430 /to 1630");
+        assertEquals(LocalDateTime.of(2026, 1, 31, 14, 30), p.getDateTime(0));
+        assertEquals(LocalDateTime.of(2026, 1, 31, 16, 30), p.getDateTime(1));
+    }
+
+    @Test
+    public void parse_deadlineExtraSpaces_trimmedParts() throws KiwiException {
+        Parser p = Parser.parse("  deadline   read  /by  2026-01-31 1800  ");
+        assertEquals("read", p.getArg(0));
+        assertEquals("2026-01-31 1800", p.getArg(1));
+        assertEquals(LocalDateTime.of(2026, 1, 31, 18, 0), p.getDateTime(0));
+    }
+
+    @Test
+    public void parse_deadlineEvery_parsesRule() throws KiwiException {
+        Parser p = Parser.parse("deadline rent /by 2026-01-31 0900 /every monthly /until 2026-12-31");
+        assertEquals("rent", p.getArg(0));
+        assertEquals(LocalDateTime.of(2026, 1, 31, 9, 0), p.getDateTime(0));
+        assertEquals(Recurrence.MONTHLY, p.getRecurrence());
+        assertEquals(LocalDate.of(2026, 12, 31), p.getUntil());
+    }
+
+    @Test
+    public void parse_eventEveryWithoutUntil_repeatsForever() throws KiwiException {
+        Parser p = Parser.parse("event standup /from 2026-01-05 0900 /to 0915 /every weekly");
+        assertEquals(LocalDateTime.of(2026, 1, 5, 9, 15), p.getDateTime(1));
+        assertEquals(Recurrence.WEEKLY, p.getRecurrence());
+        assertNull(p.getUntil());
+    }
+
+    @Test
+    public void parse_everyUnknownInterval_throwsException() {
+        assertThrows(KiwiException.class, () -> Parser.parse("deadline rent /by 2026-01-31 0900 /every yearly"));
+    }
+
+    @Test
+    public void parse_listWindow_parsesDays() throws KiwiException {
+        Parser p = Parser.parse("list /from 2026-03-01 /to 2026-03-31");
+        assertEquals(LocalDateTime.of(2026, 3, 1, 0, 0), p.getDateTime(0));
+        assertEquals(LocalDateTime.of(2026, 3, 31, 0, 0), p.getDateTime(1));
+        assertThrows(KiwiException.class, () -> Parser.parse("list /from 2026-03-31 /to 2026-03-01"));
+    }
+
+    @Test
+    public void parse_findTilde_fuzzyKeywordWithoutTilde() throws KiwiException {
+        Parser p = Parser.parse("find ~reprot");
+        assertTrue(p.isFuzzy());
+        assertEquals("reprot", p.getArg(0));
+        assertFalse(Parser.parse("find report").isFuzzy());
+        assertThrows(KiwiException.class, () -> Parser.parse("find ~"));
+    }
+
+    @Test
+    public void parse_findTags_tagQuery() throws KiwiException {
+        TagQuery query = Parser.parse("find #Work  #urgent|#soon -#done").getTagQuery();
+        assertEquals(List.of(List.of("work"), List.of("urgent", "soon")), query.getRequired());
+        assertEquals(List.of("done"), query.getExcluded());
+        assertNull(Parser.parse("find work").getTagQuery());
+        assertThrows(KiwiException.class, () -> Parser.parse("find -#a|#b"));
+    }
+
+    @Test
+    public void parse_findWordsAndTags_plainSearch() throws KiwiException {
+        for (String keyword : new String[] {"issue #1", "#1 bug", "#work report", "#work|", "C#", "-#"}) {
+            Parser find = Parser.parse("find " + keyword);
+            assertNull(find.getTagQuery(), keyword);
+            assertEquals(keyword, find.getArg(0), keyword);
+        }
+    }
+
+    @Test
+    public void parse_priority_takenOffTheEnd() throws KiwiException {
+        Parser todo = Parser.parse("todo fix login /p 1");
+        assertEquals("fix login", todo.getArg(0));
+        assertEquals(1, todo.getPriority());
+
+        Parser deadline = Parser.parse("deadline rent /by 2026-01-31 0900 /every monthly /p P3");
+        assertEquals(3, deadline.getPriority());
+        assertEquals(Recurrence.MONTHLY, deadline.getRecurrence());
+        assertEquals(0, Parser.parse("todo read /proc notes").getPriority());
+        Parser chapter = Parser.parse("todo read chapter /p 3 of book");
+        assertEquals(0, chapter.getPriority());
+        assertEquals("read chapter /p 3 of book", chapter.getArg(0));
+        assertThrows(KiwiException.class, () -> Parser.parse("todo fix login /p 9"));
+        assertThrows(KiwiException.class, () -> Parser.parse("todo /p 1"));
+    }
+
+    @Test
+    public void parse_listSort_sortOrder() throws KiwiException {
+        assertEquals(SortOrder.DESCRIPTION, Parser.parse("list /sort DESC").getSortOrder());
+        assertEquals(SortOrder.DEADLINE, Parser.parse("list /sort deadline").getSortOrder());
+        assertNull(Parser.parse("list").getSortOrder());
+        assertThrows(KiwiException.class, () -> Parser.parse("list /sort size"));
+    }
+
+    @Test
+    public void parse_query_precedenceAndNormalizedForm() throws KiwiException {
+        Query q = Parser.parse("query TYPE:d not not done or (#Work \"and more\") order by desc limit 3").getQuery();
+        assertEquals("(type:D and done) or (#work and desc:\"and more\") order by desc limit 3", q.toString());
+        assertEquals(SortOrder.DESCRIPTION, q.getOrderBy());
+        assertEquals(3, q.getLimit());
+
+        Query window = Parser.parse("explain due:2026-03-01..2026-03-31 undone").getQuery();
+        assertEquals("due:2026-03-01..2026-03-31 and not done", window.toString());
+        assertEquals(CommandType.EXPLAIN, Parser.parse("explain limit 5").getCommandType());
+        assertNull(Parser.parse("query limit 5").getQuery().getWhere());
+    }
+
+    @Test
+    public void parse_queryInvalid_throwsException() {
+        assertThrows(KiwiException.class, () -> Parser.parse("query"));
+        assertThrows(KiwiException.class, () -> Parser.parse("query (done"));
+        assertThrows(KiwiException.class, () -> Parser.parse("query type:X"));
+        assertThrows(KiwiException.class, () -> Parser.parse("query size:3"));
+        assertThrows(KiwiException.class, () -> Parser.parse("query due:2026-03-31..2026-03-01"));
+        assertThrows(KiwiException.class, () -> Parser.parse("query done and"));
+        assertThrows(KiwiException.class, () -> Parser.parse("query done limit 0"));
+        assertThrows(KiwiException.class, () -> Parser.parse("query \"unclosed"));
+    }
+
+    @Test
+    public void parse_next_defaultAndCount() throws KiwiException {
+        assertEquals("5", Parser.parse("next").getArg(0));
+        assertEquals("12", Parser.parse("next 12").getArg(0));
+        assertThrows(KiwiException.class, () -> Parser.parse("next 0"));
+        assertThrows(KiwiException.class, () -> Parser.parse("next few"));
+    }
+
+    @Test
+    public void parse_unknownCommand_listsEveryCommand() {
+        KiwiException e = assertThrows(KiwiException.class, () -> Parser.parse("blah"));
+        for (CommandType type : CommandType.values()) {
+            assertTrue(e.getMessage().contains(type.getKeyword()), type.getKeyword());
+        }
+    }
 }
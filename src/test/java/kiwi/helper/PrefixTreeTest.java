@@ -0,0 +1,74 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class PrefixTreeTest {
+
+    private PrefixTree createTree() {
+        PrefixTree tree = new PrefixTree();
+        for (String text : List.of("read report", "read book", "return book", "read", "buy milk")) {
+            tree.add(text);
+        }
+        return tree;
+    }
+
+    @Test
+    public void complete_sharedPrefix_alphabeticalAndIgnoringCase() {
+        assertEquals(List.of("read", "read book", "read report", "return book"), createTree().complete("RE", 10));
+        assertEquals(List.of("read book", "read report"), createTree().complete("read ", 10));
+        assertEquals(List.of("read report"), createTree().complete("read rep", 10));
+    }
+
+    @Test
+    public void complete_noMatch_empty() {
+        assertTrue(createTree().complete("rex", 10).isEmpty());
+        assertTrue(createTree().complete("read reports", 10).isEmpty());
+    }
+
+    @Test
+    public void complete_limit_stopsEarly() {
+        assertEquals(List.of("buy milk", "read"), createTree().complete("", 2));
+    }
+
+    @Test
+    public void add_differentCase_keepsFirstSpelling() {
+        PrefixTree tree = new PrefixTree();
+        tree.add("Read Book");
+        tree.add("read book");
+
+        assertEquals(List.of("Read Book"), tree.complete("read", 10));
+    }
+
+    @Test
+    public void remove_lastCopy_mergesAndPrunes() {
+        PrefixTree tree = createTree();
+        tree.add("read book");
+        tree.remove("read book");
+        assertEquals(List.of("read", "read book", "read report"), tree.complete("read", 10));
+
+        tree.remove("read book");
+        tree.remove("read");
+        tree.remove("unknown");
+        assertEquals(List.of("read report"), tree.complete("rea", 10));
+        assertEquals(List.of("read report", "return book"), tree.complete("re", 10));
+
+        tree.remove("read report");
+        tree.remove("return book");
+        assertEquals(List.of("buy milk"), tree.complete("", 10));
+    }
+
+    @Test
+    public void clear_removesEverything() {
+        PrefixTree tree = createTree();
+        tree.clear();
+
+        assertTrue(tree.complete("", 10).isEmpty());
+        tree.add("read");
+        assertEquals(List.of("read"), tree.complete("r", 10));
+    }
+}
@@ -0,0 +1,123 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Deadline;
+import kiwi.build.Event;
+import kiwi.build.Recurrence;
+import kiwi.build.RecurringTask;
+import kiwi.build.Task;
+import kiwi.build.ToDo;
+
+public class QueryPlanTest {
+
+    private static final String[] QUERIES = {
+        "type:D and undone",
+        "#work and not #urgent",
+        "report and done",
+        "due:2026-01-05..2026-01-09 type:E",
+        "due:..2026-01-03 or #urgent",
+        "rep order by deadline limit 3",
+        "undone order by deadline limit 2",
+        "type:T order by desc",
+        "limit 4",
+    };
+
+    private static Query query(String text) throws KiwiException {
+        return Parser.parse("query " + text).getQuery();
+    }
+
+    private static TaskList sampleList() throws KiwiException {
+        TaskList list = new TaskList();
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 9, 0);
+        for (int i = 0; i < 60; i++) {
+            String description = (i % 5 == 0 ? "report " : "task ") + i
+                + (i % 3 == 0 ? " #work" : "") + (i % 4 == 0 ? " #urgent" : "");
+            LocalDateTime time = start.plusHours(i * 5L);
+            Task task = i % 3 == 0 ? new ToDo(description)
+                : i % 3 == 1 ? new Deadline(description, time) : new Event(description, time, time.plusHours(1));
+            if (i % 2 == 0) {
+                task.markTask();
+            }
+            list.add(task);
+        }
+        return list;
+    }
+
+    /** Answers a query the slow way: scan, stable sort, cut. */
+    private static List<Task> scan(TaskList list, Query query) {
+        List<Task> matches = list.getTasks().stream().filter(query::matches).collect(Collectors.toList());
+        if (query.getOrderBy() == SortOrder.DEADLINE) {
+            matches.sort(Comparator.comparing(Query::dueOf, Comparator.nullsLast(Comparator.naturalOrder())));
+        } else if (query.getOrderBy() == SortOrder.DESCRIPTION) {
+            matches.sort((a, b) -> a.getDescription().compareToIgnoreCase(b.getDescription()));
+        }
+        return matches.subList(0, Math.min(matches.size(), query.getLimit()));
+    }
+
+    @Test
+    public void query_everyPlan_matchesScan() throws KiwiException {
+        TaskList list = sampleList();
+        for (String text : QUERIES) {
+            assertEquals(scan(list, query(text)), list.query(query(text)), text);
+        }
+
+        // Indexes built by the first round must follow later changes
+        list.delete(1);
+        list.mark(2);
+        list.unmark(3);
+        list.add(new Deadline("late report #work", LocalDateTime.of(2026, 1, 6, 8, 0)));
+        for (String text : QUERIES) {
+            assertEquals(scan(list, query(text)), list.query(query(text)), text);
+        }
+    }
+
+    @Test
+    public void query_dueWindow_matchesLaterOccurrencesOfRepeatingTask() throws KiwiException {
+        TaskList list = sampleList();
+        Task weekly = new RecurringTask("weekly report", LocalDateTime.of(2025, 12, 1, 9, 0), null,
+            Recurrence.WEEKLY, null);
+        list.add(weekly);
+
+        for (String text : new String[] {"due:2026-01-05..2026-01-09", "due:2026-03-01..2026-03-31"}) {
+            List<Task> matches = list.query(query(text));
+            assertTrue(matches.contains(weekly), text);
+            assertEquals(scan(list, query(text)), matches, text);
+        }
+        assertEquals(List.of(), list.query(query("due:..2025-11-30")));
+    }
+
+    @Test
+    public void explain_mostSelectiveIndex_chosen() throws KiwiException {
+        TaskList list = sampleList();
+
+        String byDate = list.explain(query("type:E and due:2026-01-05..2026-01-05"));
+        assertTrue(byDate.contains("1. date index on due:2026-01-05..2026-01-05"), byDate);
+        assertTrue(byDate.contains("2. filter: type:E"), byDate);
+        assertTrue(byDate.contains("Not used: bitmap index on type:E"), byDate);
+
+        String byBitmap = list.explain(query("#work and #urgent and report"));
+        assertTrue(byBitmap.contains("1. bitmap index on #work and #urgent"), byBitmap);
+
+        String byScan = list.explain(query("\"report 5\" or done"));
+        assertTrue(byScan.contains("1. scan the list (60 tasks)"), byScan);
+
+        String ordered = list.explain(query("undone order by deadline limit 1"));
+        assertTrue(ordered.contains("1. scan the deadline sorted view"), ordered);
+    }
+
+    @Test
+    public void query_emptyList_noMatches() throws KiwiException {
+        TaskList list = new TaskList();
+        assertEquals(new ArrayList<Task>(), list.query(query("type:D due:2026-01-01.. order by deadline limit 5")));
+    }
+}
@@ -0,0 +1,69 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class RankedTreeTest {
+
+    private static List<Integer> contents(RankedTree<Integer> tree) {
+        List<Integer> values = new ArrayList<>();
+        tree.copyRange(0, tree.size(), values);
+        return values;
+    }
+
+    @Test
+    public void buildAddRemove_matchesSortedList() {
+        Random random = new Random(11);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1_000; i += 2) {
+            expected.add(i);
+        }
+        RankedTree<Integer> tree = new RankedTree<>(Comparator.naturalOrder());
+        tree.build(expected);
+
+        for (int i = 0; i < 2_000; i++) {
+            int value = random.nextInt(1_000);
+            int at = -1;
+            for (int j = 0; j < expected.size() && at < 0; j++) {
+                at = expected.get(j) == value ? j : -1;
+            }
+            if (at >= 0) {
+                expected.remove(at);
+                tree.remove(value);
+            } else {
+                expected.add(value);
+                expected.sort(Comparator.naturalOrder());
+                tree.add(value);
+            }
+        }
+
+        assertEquals(expected, contents(tree));
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < expected.size(); i += 7) {
+            assertEquals(expected.get(i), tree.get(i));
+        }
+    }
+
+    @Test
+    public void copyRange_middleRun_onlyThatRun() {
+        RankedTree<Integer> tree = new RankedTree<>(Comparator.naturalOrder());
+        for (int i = 99; i >= 0; i--) {
+            tree.add(i);
+        }
+
+        List<Integer> run = new ArrayList<>();
+        tree.copyRange(40, 45, run);
+        assertEquals(List.of(40, 41, 42, 43, 44), run);
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.get(100));
+
+        tree.clear();
+        assertEquals(0, tree.size());
+    }
+}
@@ -0,0 +1,113 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Deadline;
+import kiwi.build.Recurrence;
+import kiwi.build.RecurringTask;
+import kiwi.build.ToDo;
+
+public class ReminderSchedulerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private MutableClock clock;
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+        scheduler = new ReminderScheduler(Duration.ofMinutes(60), clock);
+    }
+
+    @Test
+    public void fireDue_withinLeadTime_alertsOnce() {
+        scheduler.track(new Deadline("report", START.plusHours(2)));
+
+        clock.advance(Duration.ofMinutes(59));
+        assertTrue(scheduler.fireDue().isEmpty());
+
+        clock.advance(Duration.ofMinutes(2));
+        assertEquals("Reminder: Due in 59 min\n[D][ ] report (by: Jan 1 2026 1100)",
+            String.join("", scheduler.fireDue()));
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void track_doneTodoOrPastTasks_schedulesNothing() {
+        Deadline done = new Deadline("done", START.plusHours(2));
+        done.markTask();
+
+        scheduler.track(done);
+        scheduler.track(new ToDo("no date"));
+        scheduler.track(new Deadline("overdue", START.minusHours(1)));
+
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void untrack_markedTask_cancelsReminder() {
+        Deadline deadline = new Deadline("report", START.plusMinutes(30));
+        scheduler.track(deadline);
+        scheduler.untrack(deadline);
+
+        clock.advance(Duration.ofHours(1));
+        assertTrue(scheduler.fireDue().isEmpty());
+    }
+
+    @Test
+    public void fireDue_recurringTask_schedulesNextOccurrence() throws KiwiException {
+        scheduler.track(new RecurringTask("standup", START.plusMinutes(30), START.plusMinutes(45), Recurrence.DAILY,
+            null));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals("Reminder: Starting in 30 min\n[E][ ] standup (at: Jan 1 2026 0930 - 0945)",
+            String.join("", scheduler.fireDue()));
+        assertEquals(1, scheduler.size());
+
+        clock.advance(Duration.ofMinutes(23 * 60 + 29));
+        assertTrue(scheduler.fireDue().isEmpty());
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals("Reminder: Starting in 60 min\n[E][ ] standup (at: Jan 2 2026 0930 - 0945)",
+            String.join("", scheduler.fireDue()));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
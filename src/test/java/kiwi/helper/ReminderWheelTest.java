@@ -0,0 +1,66 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.ToDo;
+
+public class ReminderWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    public void advance_beforeAndAtFireTime_firesOnlyWhenDue() {
+        ReminderWheel wheel = new ReminderWheel(TICK, 8, 0);
+        ReminderWheel.Reminder reminder = wheel.schedule(new ToDo("a"), 5 * TICK, 6 * TICK);
+
+        assertTrue(wheel.advance(4 * TICK).isEmpty());
+        List<ReminderWheel.Reminder> fired = wheel.advance(5 * TICK);
+
+        assertEquals(1, fired.size());
+        assertSame(reminder, fired.get(0));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void advance_beyondOneTurn_waitsForLaterRound() {
+        ReminderWheel wheel = new ReminderWheel(TICK, 8, 0);
+        wheel.schedule(new ToDo("far"), 20 * TICK, 20 * TICK);
+        wheel.schedule(new ToDo("near"), 4 * TICK, 4 * TICK);
+
+        assertEquals(1, wheel.advance(12 * TICK).size());
+        assertTrue(wheel.advance(19 * TICK).isEmpty());
+        assertEquals("far", wheel.advance(20 * TICK).get(0).getTask().getDescription());
+    }
+
+    @Test
+    public void advance_longPause_firesEverythingDue() {
+        ReminderWheel wheel = new ReminderWheel(TICK, 8, 0);
+        for (int i = 1; i <= 50; i++) {
+            wheel.schedule(new ToDo("task " + i), i * TICK, i * TICK);
+        }
+
+        assertEquals(30, wheel.advance(30 * TICK).size());
+        assertEquals(20, wheel.size());
+    }
+
+    @Test
+    public void cancel_pendingReminder_neverFires() {
+        ReminderWheel wheel = new ReminderWheel(TICK, 8, 0);
+        ReminderWheel.Reminder first = wheel.schedule(new ToDo("a"), 3 * TICK, 3 * TICK);
+        wheel.schedule(new ToDo("b"), 3 * TICK, 3 * TICK);
+
+        assertTrue(wheel.cancel(first));
+        assertFalse(wheel.cancel(first));
+        List<ReminderWheel.Reminder> fired = wheel.advance(3 * TICK);
+
+        assertEquals(1, fired.size());
+        assertEquals("b", fired.get(0).getTask().getDescription());
+    }
+}
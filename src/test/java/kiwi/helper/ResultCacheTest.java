@@ -0,0 +1,65 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Task;
+import kiwi.build.ToDo;
+
+public class ResultCacheTest {
+
+    private static RenderedResponse text(String text) {
+        return new RenderedResponse(text, null);
+    }
+
+    @Test
+    public void get_sameVersion_hitsUntilListChanges() {
+        ResultCache cache = new ResultCache();
+        RenderedResponse response = text("1. read book");
+        cache.put("find book", 3, response);
+
+        assertSame(response, cache.get("find book", 3));
+        assertNull(cache.get("find pen", 3));
+        assertNull(cache.get("find book", 4));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getInvalidations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void put_overEntryLimit_evictsLeastRecentlyUsed() {
+        ResultCache cache = new ResultCache(2, 1000);
+        cache.put("list", 0, text("a"));
+        cache.put("find a", 0, text("b"));
+        cache.get("list", 0);
+        cache.put("find b", 0, text("c"));
+
+        assertNull(cache.get("find a", 0));
+        assertEquals("a", cache.get("list", 0).getText());
+        assertEquals("c", cache.get("find b", 0).getText());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void put_overWeightBudget_evictsOrSkips() {
+        ResultCache cache = new ResultCache(10, 10);
+        cache.put("a", 0, text("123456"));
+        cache.put("b", 0, text("1234"));
+        assertEquals(2, cache.size());
+
+        cache.put("c", 0, text("12"));
+        assertNull(cache.get("a", 0));
+        assertEquals(2, cache.size());
+
+        Task task = new ToDo("read book");
+        cache.put("d", 0, new RenderedResponse("page", Collections.nCopies(20, task)));
+        assertNull(cache.get("d", 0));
+        assertEquals(2, cache.size());
+    }
+}
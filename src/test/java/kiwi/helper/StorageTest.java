@@ -0,0 +1,42 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Deadline;
+import kiwi.build.Task;
+import kiwi.build.ToDo;
+
+public class StorageTest {
+
+    @Test
+    public void saveThenLoad_priorities_keptAndOtherLinesUnaffected() throws IOException, KiwiException {
+        Path dir = Files.createTempDirectory("kiwi");
+        Path file = dir.resolve("kiwi.txt");
+        Storage storage = new Storage(dir.toString(), file.toString());
+
+        Task urgent = new Deadline("report", "2026-04-16 2359");
+        urgent.setPriority(1);
+        Task plain = new ToDo("read");
+        storage.saveTasks(new ArrayList<>(List.of(urgent, plain)));
+        assertEquals(List.of("D | 0 | report | 2026-04-16 2359 | p1", "T | 0 | read"), Files.readAllLines(file));
+
+        Files.writeString(file, String.join("\n", Files.readAllLines(file)) + "\nT | 1 | old line\nT | 0 | x | p9\n");
+        ArrayList<Task> loaded = storage.loadTasks();
+        Files.delete(file);
+        Files.delete(dir);
+
+        assertEquals(4, loaded.size());
+        assertEquals(1, loaded.get(0).getPriority());
+        assertEquals(0, loaded.get(1).getPriority());
+        assertEquals("[T][X] old line", loaded.get(2).toString());
+        assertEquals(0, loaded.get(3).getPriority());
+    }
+}
@@ -0,0 +1,73 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Task;
+import kiwi.build.ToDo;
+
+public class TagIndexTest {
+
+    private static TagQuery query(String tags) throws KiwiException {
+        return Parser.parse("find " + tags).getTagQuery();
+    }
+
+    @Test
+    public void find_requiredAlternativesAndExcluded_listOrder() throws KiwiException {
+        Task slides = new ToDo("slides #work #urgent");
+        Task bills = new ToDo("bills #home #URGENT");
+        Task report = new ToDo("report #work");
+        TagIndex index = new TagIndex();
+        index.addAll(List.of(slides, bills, report));
+
+        assertEquals(List.of(slides, bills), index.find(query("#urgent")));
+        assertEquals(List.of(slides, report), index.find(query("#work|#home -#home")));
+        assertEquals(List.of(slides, bills, report), index.find(query("#work|#home")));
+        assertTrue(index.find(query("#holiday")).isEmpty());
+
+        report.markTask();
+        index.updateDone(report);
+        assertEquals(List.of(slides), index.find(query("#work -#done")));
+        assertEquals(List.of(report), index.find(query("#done")));
+    }
+
+    @Test
+    public void find_afterManyRemovals_renumbersAndKeepsOrder() throws KiwiException {
+        TagIndex index = new TagIndex();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            Task task = new ToDo("task " + i + (i % 3 == 0 ? " #three" : "") + (i % 5 == 0 ? " #five" : ""));
+            tasks.add(task);
+            index.add(task);
+        }
+        for (int i = 0; i < 90_000; i++) {
+            index.remove(tasks.get(i));
+        }
+
+        List<Task> expected = new ArrayList<>();
+        for (int i = 90_000; i < 100_000; i++) {
+            if (i % 15 == 0) {
+                expected.add(tasks.get(i));
+            }
+        }
+        assertEquals(expected, index.find(query("#three #five")));
+
+        Task added = new ToDo("late #three #five");
+        index.add(added);
+        expected.add(added);
+        assertEquals(expected, index.find(query("#five #three")));
+
+        int untagged = 0;
+        for (int i = 90_000; i < 100_000; i++) {
+            if (i % 3 != 0 && i % 5 != 0) {
+                untagged++;
+            }
+        }
+        assertEquals(untagged, index.find(query("-#five -#three")).size());
+    }
+}
@@ -0,0 +1,168 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Deadline;
+import kiwi.build.Recurrence;
+import kiwi.build.RecurringTask;
+import kiwi.build.Task;
+import kiwi.build.ToDo;
+
+public class TaskListTest {
+
+    private TaskList createList(int size) {
+        TaskList list = new TaskList();
+        for (int i = 1; i <= size; i++) {
+            list.add(new ToDo("task " + i));
+        }
+        return list;
+    }
+
+    @Test
+    public void deleteAll_rangesAndIndices_keepsOrderOfRest() throws KiwiException {
+        TaskList list = createList(10);
+        var deleted = list.deleteAll(Parser.parse("delete 2,4-6,9").getSelection());
+
+        assertEquals(5, deleted.size());
+        assertEquals("task 2", deleted.get(0).getDescription());
+        assertEquals(5, list.size());
+        assertEquals("task 1", list.getTasks().get(0).getDescription());
+        assertEquals("task 3", list.getTasks().get(1).getDescription());
+        assertEquals("task 7", list.getTasks().get(2).getDescription());
+        assertEquals("task 10", list.getTasks().get(4).getDescription());
+    }
+
+    @Test
+    public void deleteAll_whereDone_removesOnlyDone() throws KiwiException {
+        TaskList list = createList(4);
+        list.markAll(Parser.parse("mark 1,3").getSelection());
+        list.deleteAll(Parser.parse("delete where done").getSelection());
+
+        assertEquals(2, list.size());
+        assertEquals("task 2", list.getTasks().get(0).getDescription());
+        assertEquals("task 4", list.getTasks().get(1).getDescription());
+    }
+
+    @Test
+    public void markAll_outOfRange_changesNothing() throws KiwiException {
+        TaskList list = createList(3);
+        TaskSelection selection = Parser.parse("mark 1-5").getSelection();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.markAll(selection));
+        assertTrue(list.getTasks().stream().noneMatch(t -> t.isDone()));
+    }
+
+    @Test
+    public void occurrencesBetween_recurringAndOneOff_mergedByTime() throws KiwiException {
+        TaskList list = new TaskList();
+        list.add(new RecurringTask("gym", LocalDateTime.of(2026, 3, 2, 18, 0), null, Recurrence.WEEKLY,
+            LocalDate.of(2026, 12, 31)));
+        list.add(new ToDo("undated"));
+        list.add(new Deadline("essay", LocalDateTime.of(2026, 3, 10, 12, 0)));
+
+        var occurrences = list.occurrencesBetween(LocalDateTime.of(2026, 3, 8, 0, 0),
+            LocalDateTime.of(2026, 3, 17, 0, 0));
+
+        assertEquals(3, occurrences.size());
+        assertEquals("1. [D][ ] gym (by: Mar 9 2026 1800)", occurrences.get(0).getNumber() + ". " + occurrences.get(0));
+        assertEquals(3, occurrences.get(1).getNumber());
+        assertEquals(LocalDateTime.of(2026, 3, 16, 18, 0), occurrences.get(2).getTime());
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    public void findFuzzy_afterAddDeleteAndClear_staysInSync() throws KiwiException {
+        TaskList list = createList(5);
+        list.add(new ToDo("submit assignment"));
+        assertEquals(1, list.findFuzzy("asignment").size());
+
+        list.add(new ToDo("assignment review"));
+        list.delete(6);
+        assertEquals("assignment review", list.findFuzzy("asignment").get(0).getDescription());
+        assertEquals(5, list.findFuzzy("tsk").size());
+
+        list.deleteAll(Parser.parse("delete 1,2").getSelection());
+        assertEquals(3, list.findFuzzy("tsk").size());
+
+        list.clear();
+        assertTrue(list.findFuzzy("assignment").isEmpty());
+    }
+
+    @Test
+    public void sorted_afterAddMarkAndDelete_staysSorted() throws KiwiException {
+        TaskList list = new TaskList();
+        list.add(new ToDo("banana"));
+        list.add(new Deadline("Apple", "2026-05-01 0900"));
+        list.add(new Deadline("cherry", "2026-04-01 0900"));
+        List<Task> byDesc = list.sorted(SortOrder.DESCRIPTION);
+        List<Task> byDeadline = list.sorted(SortOrder.DEADLINE);
+        List<Task> byDone = list.sorted(SortOrder.DONE);
+
+        list.add(new ToDo("avocado"));
+        list.mark(1);
+        list.delete(3);
+
+        assertEquals(List.of("Apple", "avocado", "banana"), descriptionsOf(byDesc));
+        assertEquals(List.of("Apple", "banana", "avocado"), descriptionsOf(byDeadline));
+        assertEquals(List.of("Apple", "avocado", "banana"), descriptionsOf(byDone));
+        assertEquals(List.of("banana", "Apple", "avocado"), descriptionsOf(list.sorted(SortOrder.CREATED)));
+        assertEquals("avocado", byDesc.subList(1, 2).get(0).getDescription());
+    }
+
+    private static List<String> descriptionsOf(List<Task> tasks) {
+        return tasks.stream().map(Task::getDescription).collect(Collectors.toList());
+    }
+
+    @Test
+    public void findTagged_afterMarkAndDelete_staysInSync() throws KiwiException {
+        TaskList list = new TaskList();
+        list.add(new ToDo("draft slides #work #urgent"));
+        list.add(new ToDo("pay bills #home #urgent"));
+        list.add(new ToDo("file report #work"));
+        TagQuery urgentWork = Parser.parse("find #work #urgent -#done").getTagQuery();
+        assertEquals(1, list.findTagged(urgentWork).size());
+
+        list.mark(1);
+        assertTrue(list.findTagged(urgentWork).isEmpty());
+        assertEquals(2, list.findTagged(Parser.parse("find #done|#home").getTagQuery()).size());
+
+        list.unmark(1);
+        list.delete(2);
+        list.add(new ToDo("book venue #work #urgent"));
+        assertEquals(List.of("draft slides #work #urgent", "book venue #work #urgent"),
+            list.findTagged(urgentWork).stream().map(Task::getDescription).collect(Collectors.toList()));
+        assertEquals(1, list.findTagged(Parser.parse("find -#urgent").getTagQuery()).size());
+    }
+
+    @Test
+    public void getVersion_everyChange_bumpsVersion() throws KiwiException {
+        TaskList list = createList(3);
+        long version = list.getVersion();
+        list.find("task");
+        list.sorted(SortOrder.DONE);
+        assertEquals(version, list.getVersion());
+
+        List<Long> versions = new ArrayList<>();
+        list.mark(1);
+        versions.add(list.getVersion());
+        list.unmark(1);
+        versions.add(list.getVersion());
+        list.delete(2);
+        versions.add(list.getVersion());
+        list.add(new ToDo("task 4"));
+        versions.add(list.getVersion());
+        list.clear();
+        versions.add(list.getVersion());
+        assertEquals(versions.size(), versions.stream().distinct().filter(v -> v != version).count());
+    }
+}
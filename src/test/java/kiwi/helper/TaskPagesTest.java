@@ -0,0 +1,98 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Task;
+import kiwi.build.ToDo;
+
+public class TaskPagesTest {
+
+    private ArrayList<Task> createTasks(int size) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        return tasks;
+    }
+
+    @Test
+    public void next_fivePagesOfTwo_numbersAcrossPages() {
+        TaskPages pages = new TaskPages(createTasks(5), 2);
+
+        assertEquals("Here are the tasks (showing 1-2 of 5):\n1. [T][ ] task 1\n2. [T][ ] task 2", pages.next());
+        assertEquals("More tasks (showing 3-4 of 5):\n3. [T][ ] task 3\n4. [T][ ] task 4", pages.next());
+        assertTrue(pages.hasNext());
+        assertEquals("More tasks (showing 5-5 of 5):\n5. [T][ ] task 5", pages.next());
+        assertFalse(pages.hasNext());
+        assertThrows(NoSuchElementException.class, pages::next);
+    }
+
+    @Test
+    public void showTasks_longList_respondsWithFirstPageOnly() {
+        ArrayList<Task> tasks = createTasks(TaskPages.PAGE_SIZE * 2 + 1);
+        Gui gui = new Gui(new TaskList(tasks));
+
+        gui.showTasks(tasks);
+        String first = gui.takeResponse();
+        TaskPages more = gui.takeMorePages();
+
+        assertTrue(first.startsWith("Here are the tasks (showing 1-200 of 401):"));
+        assertEquals(TaskPages.PAGE_SIZE + 1, first.split("\n").length);
+        assertTrue(more.next().startsWith("More tasks (showing 201-400 of 401):"));
+        assertEquals("More tasks (showing 401-401 of 401):\n401. [T][ ] task 401", more.next());
+        assertNull(gui.takeMorePages());
+    }
+
+    @Test
+    public void showMatchingTasks_shortList_hasNoMorePages() {
+        Gui gui = new Gui(new TaskList());
+
+        gui.showMatchingTasks(createTasks(3));
+
+        assertTrue(gui.takeResponse().startsWith("Here are the tasks:\n1. "));
+        assertNull(gui.takeMorePages());
+    }
+
+    @Test
+    public void replay_recordedLongList_respondsWithSameFirstPageAndRest() {
+        ArrayList<Task> tasks = createTasks(TaskPages.PAGE_SIZE * 2 + 1);
+        Gui gui = new Gui(new TaskList(tasks));
+
+        gui.startRecording();
+        gui.showTasks(tasks);
+        RenderedResponse recorded = gui.stopRecording();
+        String first = gui.takeResponse();
+        gui.takeMorePages();
+
+        gui.replay(recorded);
+        assertEquals(first, gui.takeResponse());
+        TaskPages more = gui.takeMorePages();
+        assertTrue(more.next().startsWith("More tasks (showing 201-400 of 401):"));
+        assertTrue(more.next().startsWith("More tasks (showing 401-401 of 401):"));
+        assertFalse(more.hasNext());
+    }
+
+    @Test
+    public void next_afterListChanges_endsWithStaleMessage() {
+        TaskList list = new TaskList(createTasks(TaskPages.PAGE_SIZE * 3));
+        Gui gui = new Gui(list);
+
+        gui.showSortedTasks(list.sorted(SortOrder.CREATED), SortOrder.CREATED);
+        gui.takeResponse();
+        TaskPages more = gui.takeMorePages();
+        assertTrue(more.next().startsWith("More tasks (showing 201-400 of 600):"));
+
+        list.delete(1);
+        assertEquals(TaskPages.STALE_MESSAGE, more.next());
+        assertFalse(more.hasNext());
+    }
+}
@@ -0,0 +1,100 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Deadline;
+import kiwi.build.Event;
+import kiwi.build.Recurrence;
+import kiwi.build.RecurringTask;
+import kiwi.build.ToDo;
+
+public class TaskTransferTest {
+
+    private TaskList createSampleList() throws KiwiException {
+        TaskList list = new TaskList();
+        list.add(new ToDo("read, then \"summarise\""));
+        list.add(new Deadline("capstone", "2026-04-16 2359"));
+        list.add(new Event("open house", "2026-03-07 1030", "1930"));
+        list.mark(3);
+        list.add(new RecurringTask("standup", LocalDateTime.of(2026, 1, 5, 9, 0), LocalDateTime.of(2026, 1, 5, 9, 15),
+            Recurrence.WEEKLY, LocalDate.of(2026, 3, 31)));
+        list.add(new RecurringTask("rent", LocalDateTime.of(2026, 1, 31, 9, 0), null, Recurrence.MONTHLY, null));
+        return list;
+    }
+
+    private void assertRoundTrip(String suffix) throws IOException, KiwiException {
+        Path file = Files.createTempFile("kiwi", suffix);
+        TaskTransfer transfer = new TaskTransfer(new Storage("data", "data/kiwi.txt"));
+        TaskList source = createSampleList();
+
+        assertEquals(5, transfer.exportTasks(file.toString(), source));
+
+        TaskList target = new TaskList();
+        TaskTransfer.Report report = transfer.importTasks(file.toString(), target, message -> { });
+        Files.delete(file);
+
+        assertEquals(5, report.getImported());
+        for (int i = 0; i < source.size(); i++) {
+            assertEquals(source.getTasks().get(i).toString(), target.getTasks().get(i).toString());
+        }
+    }
+
+    @Test
+    public void exportThenImport_csv_sameTasks() throws IOException, KiwiException {
+        assertRoundTrip(".csv");
+    }
+
+    @Test
+    public void exportThenImport_ics_sameTasks() throws IOException, KiwiException {
+        assertRoundTrip(".ics");
+    }
+
+    @Test
+    public void importTasks_duplicatesAndBadRows_skipped() throws IOException, KiwiException {
+        Path file = Files.createTempFile("kiwi", ".csv");
+        Files.writeString(file, "T,0,run\nT,1,RUN\nD,0,broken,not a date\nT,0,rest\n");
+
+        TaskList target = new TaskList();
+        target.add(new ToDo("rest"));
+        TaskTransfer.Report report = new TaskTransfer(new Storage("data", "data/kiwi.txt"))
+            .importTasks(file.toString(), target, message -> { });
+        Files.delete(file);
+
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getDuplicates());
+        assertEquals(1, report.getInvalid());
+        assertEquals(2, target.size());
+    }
+
+    @Test
+    public void exportTasks_unknownExtension_throwsException() {
+        TaskTransfer transfer = new TaskTransfer(new Storage("data", "data/kiwi.txt"));
+        assertThrows(KiwiException.class, () -> transfer.exportTasks("tasks.xlsx", new TaskList()));
+    }
+
+    @Test
+    public void importTasks_pathWithoutFileName_throwsException() {
+        TaskTransfer transfer = new TaskTransfer(new Storage("data", "data/kiwi.txt"));
+        assertThrows(KiwiException.class, () -> transfer.importTasks("/", new TaskList(), message -> { }));
+        assertThrows(KiwiException.class, () -> transfer.exportTasks("/", new TaskList()));
+    }
+
+    @Test
+    public void fromIcsDate_utcTime_convertedToLocalZone() {
+        ZoneId singapore = ZoneId.of("Asia/Singapore");
+        assertEquals("2026-03-01 1700", TaskTransfer.fromIcsDate("20260301T090000Z", singapore));
+        assertEquals("2026-03-01 0900", TaskTransfer.fromIcsDate("20260301T090000", singapore));
+        assertEquals("2026-03-02 0700", TaskTransfer.fromIcsDate("20260301T230000Z", singapore));
+        assertEquals("2026-03-01 0000", TaskTransfer.fromIcsDate("20260301", singapore));
+    }
+}
@@ -0,0 +1,88 @@
+package kiwi.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import kiwi.build.Task;
+import kiwi.build.ToDo;
+
+public class UiTest {
+
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    public void showTasks_beforeAndAfterFlush_writesNumberedLinesOnFlush() {
+        StringWriter console = new StringWriter();
+        Ui ui = new Ui(new PrintWriter(new BufferedWriter(console), false));
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read book"));
+        tasks.add(new ToDo("return book"));
+
+        ui.showTasks(tasks);
+        assertEquals("", console.toString());
+
+        ui.flush();
+        assertEquals("Here are your tasks:" + NL
+            + "1. [T][ ] read book" + NL
+            + "2. [T][ ] return book" + NL
+            + "\n" + NL, console.toString());
+    }
+
+    @Test
+    public void stopRecording_afterShowTasks_returnsTextAlsoWrittenToConsole() {
+        StringWriter console = new StringWriter();
+        Ui ui = new Ui(new PrintWriter(console, false));
+        ui.println("before");
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read book"));
+
+        ui.startRecording();
+        ui.showMatchingTasks(tasks);
+        String recorded = ui.stopRecording();
+        ui.println("after");
+        ui.flush();
+
+        assertEquals("Here are the matching tasks in your list:" + NL + "1. [T][ ] read book" + NL + NL, recorded);
+        assertEquals("before" + NL + recorded + "after" + NL, console.toString());
+    }
+
+    @Test
+    public void showReminder_duringCommand_waitsUntilCommandEnds() throws InterruptedException {
+        StringWriter console = new StringWriter();
+        Ui ui = new Ui(new PrintWriter(console, false));
+
+        ui.beginCommand();
+        ui.print("1");
+        Thread reminder = new Thread(() -> ui.showReminder("Reminder: Due in 59 min"));
+        reminder.start();
+        while (reminder.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        ui.print(". ");
+        ui.println("[T][ ] read book");
+        ui.endCommand();
+        reminder.join();
+
+        assertEquals("1. [T][ ] read book" + NL + "Reminder: Due in 59 min\n" + NL, console.toString());
+    }
+
+    @Test
+    public void showReminder_whileRecording_notRecorded() {
+        StringWriter console = new StringWriter();
+        Ui ui = new Ui(new PrintWriter(console, false));
+
+        ui.startRecording();
+        ui.println("Here are your tasks:");
+        ui.showReminder("Reminder: Due in 59 min");
+        String recorded = ui.stopRecording();
+
+        assertEquals("Here are your tasks:" + NL, recorded);
+        assertEquals("Here are your tasks:" + NL + "Reminder: Due in 59 min\n" + NL, console.toString());
+    }
+}